@@ -1,15 +1,29 @@
 package jpacman;
 
+import com.google.common.io.ByteStreams;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import jpacman.concurrent.GameActor;
+import jpacman.concurrent.GameView;
 import jpacman.concurrent.PacmanActor;
+import jpacman.concurrent.PacmanMessageBus;
 import jpacman.concurrent.ghosts.BlinkyActor;
 import jpacman.concurrent.ghosts.ClydeActor;
+import jpacman.concurrent.ghosts.GhostPhase;
 import jpacman.concurrent.ghosts.InkyActor;
 import jpacman.concurrent.ghosts.PinkyActor;
 import jpacman.engine.board.BoardFactory;
@@ -18,9 +32,14 @@ import jpacman.engine.game.GameFactory;
 import jpacman.engine.game.SinglePlayerGame;
 import jpacman.engine.level.Level;
 import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapCompiler;
 import jpacman.engine.level.MapParser;
 import jpacman.engine.level.PlayerFactory;
 import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.replay.Journal;
+import jpacman.engine.replay.JournalWriter;
+import jpacman.engine.replay.KeyframeWriter;
+import jpacman.engine.replay.Keyframes;
 import jpacman.engine.sprite.PacManSprites;
 import jpacman.engine.ui.Keypress;
 import jpacman.engine.ui.PacManUI;
@@ -36,6 +55,9 @@ public class Launcher {
   public static final String DEFAULT_MAP = "/board.txt";
   private static final PacManSprites SPRITE_STORE = new PacManSprites();
   private String levelMap = DEFAULT_MAP;
+  private long seed = new SplittableRandom().nextLong();
+  private String journalFile;
+  private boolean pelletLayer;
 
   private PacManUI pacManUI;
   private Game game;
@@ -45,10 +67,6 @@ public class Launcher {
   private GameActor gameActor;
   private Thread gameStateThread;
   private Thread pacmanThread;
-  private Thread pinkyThread;
-  private Thread blinkyThread;
-  private Thread inkyThread;
-  private Thread clydeThread;
 
   /**
    * Main execution method for the Launcher.
@@ -91,6 +109,56 @@ public class Launcher {
     return this;
   }
 
+  /**
+   * The seed from which all randomness of the game is derived.
+   *
+   * @return The seed of the game.
+   */
+  protected long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Set the seed from which all randomness of the game is derived, so a game can be reproduced.
+   *
+   * @param gameSeed Seed to be used.
+   * @return This launcher.
+   */
+  public Launcher withSeed(final long gameSeed) {
+    this.seed = gameSeed;
+    return this;
+  }
+
+  /**
+   * Set the name of the file the moves of the game are recorded in, see
+   * {@link jpacman.engine.replay.Replayer}. Keyframes are recorded next to it.
+   *
+   * @param fileName Journal to be written, or <code>null</code> to not record the game.
+   * @return This launcher.
+   */
+  public Launcher withJournalFile(final String fileName) {
+    this.journalFile = fileName;
+    return this;
+  }
+
+  /**
+   * Keep the pellets of text maps in a pellet layer, see {@link MapParser#withPelletLayer()}.
+   * The journal records the setting, so the game is replayed with a pellet layer too.
+   *
+   * @return This launcher.
+   */
+  public Launcher withPelletLayer() {
+    this.pelletLayer = true;
+    return this;
+  }
+
+  /**
+   * @return <code>true</code> iff the pellets of text maps are kept in a pellet layer.
+   */
+  protected boolean hasPelletLayer() {
+    return this.pelletLayer;
+  }
+
   /**
    * Creates a new game using the level from {@link #makeLevel()}.
    *
@@ -105,24 +173,90 @@ public class Launcher {
   /**
    * Creates a new level. By default this method will use the map parser to
    * parse the default board stored in the <code>board.txt</code> resource.
+   * Maps compiled by {@link MapCompiler} are loaded without parsing, straight
+   * from a memory-mapped file if the resource is one.
    *
    * @return A new level.
    */
   public Level makeLevel() {
     final MapParser parser = getMapParser();
-    try (InputStream boardStream = Launcher.class.getResourceAsStream(getLevelMap())) {
+    if (getLevelMap().endsWith(MapCompiler.EXTENSION)) {
+      return parser.parseMap(loadCompiledMap());
+    }
+    try (InputStream boardStream = openMap()) {
       return parser.parseMap(boardStream);
     } catch (final IOException e) {
       throw new PacmanConfigurationException("Unable to create level.", e);
     }
   }
 
+  /**
+   * @return A new stream of the map resource.
+   */
+  private InputStream openMap() {
+    final InputStream boardStream = Launcher.class.getResourceAsStream(getLevelMap());
+    if (boardStream == null) {
+      throw new PacmanConfigurationException("Missing map: " + getLevelMap());
+    }
+    return boardStream;
+  }
+
+  /**
+   * @return The contents of the compiled map resource.
+   */
+  private ByteBuffer loadCompiledMap() {
+    final URL resource = Launcher.class.getResource(getLevelMap());
+    if (resource == null) {
+      throw new PacmanConfigurationException("Missing map: " + getLevelMap());
+    }
+    try {
+      if ("file".equals(resource.getProtocol())) {
+        try (FileChannel channel = FileChannel.open(Paths.get(resource.toURI()),
+            StandardOpenOption.READ)) {
+          return channel.map(MapMode.READ_ONLY, 0L, channel.size());
+        }
+      }
+      try (InputStream boardStream = resource.openStream()) {
+        return ByteBuffer.wrap(ByteStreams.toByteArray(boardStream));
+      }
+    } catch (final IOException | URISyntaxException e) {
+      throw new PacmanConfigurationException("Unable to create level.", e);
+    }
+  }
+
+  /**
+   * Opens the journal the game is recorded in.
+   *
+   * @return A new journal writing to the file set by {@link #withJournalFile(String)}, or
+   * <code>null</code> if the game is not recorded.
+   */
+  protected JournalWriter makeJournal() {
+    if (this.journalFile == null) {
+      return null;
+    }
+    try (InputStream boardStream = openMap()) {
+      final long checksum = Journal.checksum(ByteStreams.toByteArray(boardStream));
+      final Path journal = Paths.get(this.journalFile);
+      return new JournalWriter(FileChannel.open(journal,
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE), checksum, getSeed(), hasPelletLayer(),
+          KeyframeWriter.create(journal, Keyframes.DEFAULT_INTERVAL));
+    } catch (final IOException e) {
+      throw new PacmanConfigurationException("Unable to create journal.", e);
+    }
+  }
+
   /**
    * @return A new map parser object using the factories from {@link #getLevelFactory()} and {@link
-   * #getBoardFactory()}.
+   * #getBoardFactory()}, keeping the pellets in a pellet layer if set by
+   * {@link #withPelletLayer()}.
    */
   protected MapParser getMapParser() {
-    return new MapParser(getLevelFactory(), getBoardFactory());
+    final MapParser parser = new MapParser(getLevelFactory(), getBoardFactory());
+    if (hasPelletLayer()) {
+      parser.withPelletLayer();
+    }
+    return parser;
   }
 
   /**
@@ -148,10 +282,11 @@ public class Launcher {
   }
 
   /**
-   * @return A new factory using the sprites from {@link #getSpriteStore()}.
+   * @return A new factory using the sprites from {@link #getSpriteStore()} and the seed from
+   * {@link #getSeed()}.
    */
   protected GhostFactory getGhostFactory() {
-    return new GhostFactory(getSpriteStore());
+    return new GhostFactory(getSpriteStore(), getSeed());
   }
 
   /**
@@ -189,19 +324,21 @@ public class Launcher {
    */
   public void launch(final boolean withGui) {
     this.game = makeGame();
+    PacmanMessageBus.setSinglePlayerGame((SinglePlayerGame) this.game);
     // Keep this object around so we can call reset()
-    final GameActor gameActor = new GameActor((SinglePlayerGame) this.game);
+    // The ghosts decide on their moves within the ticks of the game loop.
+    final GhostPhase ghostPhase = new GhostPhase(Arrays.asList(
+        new BlinkyActor(), new PinkyActor(), new InkyActor(), new ClydeActor()));
+    final GameActor gameActor = new GameActor((SinglePlayerGame) this.game, ghostPhase,
+        makeJournal());
     this.gameActor = gameActor;
 
     this.gameStateThread = new Thread(gameActor);
     this.pacmanThread = new Thread(new PacmanActor());
-    this.pinkyThread = new Thread(new PinkyActor());
-    this.blinkyThread = new Thread(new BlinkyActor());
-    this.inkyThread = new Thread(new InkyActor());
-    this.clydeThread = new Thread(new ClydeActor());
 
     if (withGui) {
-      final PacManUiBuilder builder = new PacManUiBuilder().withDefaultButtons();
+      final PacManUiBuilder builder = new PacManUiBuilder().withDefaultButtons()
+          .withLevelView(this::getLevelView);
       addSinglePlayerKeys(builder, this.game);
       this.pacManUI = builder.build(this.game);
       this.pacManUI.start();
@@ -215,15 +352,23 @@ public class Launcher {
       if (this.game.isInProgress()) {
         this.gameStateThread.start();
         this.pacmanThread.start();
-        this.pinkyThread.start();
-        this.blinkyThread.start();
-        this.inkyThread.start();
-        this.clydeThread.start();
         scheduler.shutdownNow();
       }
     }, 1, 1, TimeUnit.MILLISECONDS);
   }
 
+  /**
+   * @return The level of the most recent view published by the game loop, or the level of the
+   * game itself when the game loop has not published a view yet.
+   */
+  private Level getLevelView() {
+    final GameView view = PacmanMessageBus.getGameView();
+    if (view == null) {
+      return this.game.getLevel();
+    }
+    return view.getLEVEL();
+  }
+
   /**
    * Disposes of the UI. For more information see
    * {@link javax.swing.JFrame#dispose()}.
@@ -242,22 +387,6 @@ public class Launcher {
     return this.pacmanThread;
   }
 
-  public Thread getPinkyThread() {
-    return this.pinkyThread;
-  }
-
-  public Thread getBlinkyThread() {
-    return this.blinkyThread;
-  }
-
-  public Thread getInkyThread() {
-    return this.inkyThread;
-  }
-
-  public Thread getClydeThread() {
-    return this.clydeThread;
-  }
-
   public GameActor getGameActor() {
     return this.gameActor;
   }
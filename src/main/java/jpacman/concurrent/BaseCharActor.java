@@ -25,7 +25,9 @@ public abstract class BaseCharActor implements Runnable {
         e.printStackTrace();
       }
       gameView = PacmanMessageBus.getGameView();
-      doAction();
+      if (gameView != null) {
+        doAction();
+      }
     }
     while (pmb.getSinglePlayerGame().isInProgress());
   }
@@ -1,12 +1,27 @@
 package jpacman.concurrent;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import javax.lang.model.element.PackageElement;
 import jpacman.concurrent.ghosts.Event;
 import jpacman.concurrent.ghosts.GhostActor;
+import jpacman.concurrent.ghosts.GhostPhase;
 import jpacman.engine.board.Direction;
 import jpacman.engine.game.SinglePlayerGame;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.Level.Move;
 import jpacman.engine.level.Player;
+import jpacman.engine.npc.ghost.Blinky;
+import jpacman.engine.npc.ghost.Clyde;
 import jpacman.engine.npc.ghost.Ghost;
+import jpacman.engine.npc.ghost.Inky;
+import jpacman.engine.npc.ghost.Pinky;
+import jpacman.engine.replay.JournalWriter;
 
 /**
  * Actor to control the game state in a single player game
@@ -14,7 +29,16 @@ import jpacman.engine.npc.ghost.Ghost;
 public class GameActor implements Runnable {
 
   public static final int SLEEP_INTERVAL_FRAMERATE_CONTROL = 200;
+
+  /**
+   * The order in which the intents of the ghosts are applied within a tick, after Pac-Man's.
+   */
+  public static final List<Class<? extends Ghost>> GHOST_PRIORITY = Arrays.asList(
+      Blinky.class, Pinky.class, Inky.class, Clyde.class);
+
   private final SinglePlayerGame game;
+  private final GhostPhase ghostPhase;
+  private final JournalWriter journal;
   PacmanMessageBus pmb = PacmanMessageBus.getInstance();
 
   /**
@@ -31,34 +55,58 @@ public class GameActor implements Runnable {
    * might start crashing in confusing ways.
    */
   public GameActor(final SinglePlayerGame game) {
+    this(game, null);
+  }
+
+  /**
+   * Creates a game loop that also lets the ghosts decide on their moves at every tick.
+   *
+   * @param game The game to run.
+   * @param ghostPhase The ghosts deciding on their moves at every tick, or <code>null</code> if
+   * the ghosts push their own intents.
+   */
+  public GameActor(final SinglePlayerGame game, final GhostPhase ghostPhase) {
+    this(game, ghostPhase, null);
+  }
+
+  /**
+   * Creates a game loop that also records the moves of every tick.
+   *
+   * @param game The game to run.
+   * @param ghostPhase The ghosts deciding on their moves at every tick, or <code>null</code> if
+   * the ghosts push their own intents.
+   * @param journal The journal to record the moves in, or <code>null</code> to not record them.
+   * The journal is closed when the game ends.
+   */
+  public GameActor(final SinglePlayerGame game, final GhostPhase ghostPhase,
+      final JournalWriter journal) {
     this.game = game;
+    this.ghostPhase = ghostPhase;
+    this.journal = journal;
   }
 
   public void gameLoop() {
+    pmb.setSinglePlayerGame(game);
     while (game.isInProgress()) {
-      pmb.setSinglePlayerGame(game);
-
-      GameView gameView = new GameView(game.getLevel(), game.getLastKeypress());
-      pmb.setGameView(gameView);
-
       try {
         Thread.sleep(SLEEP_INTERVAL_FRAMERATE_CONTROL);
       } catch (InterruptedException e) {
         e.printStackTrace();
       }
 
-      Event event = pmb.pollFromBlockingDeque();
-      if (event != null) {
-        if (event.getACTOR() instanceof GhostActor) {
-          moveGhost(
-              pmb.getSinglePlayerGame().getLevel().getGhost(
-                  ((GhostActor) event.getACTOR()).getGhostType()),
-              event.getDIRECTION());
-        } else {
-          movePlayer(game.getPlayer(), event.getDIRECTION());
-        }
-      } else {
-        movePlayer(game.getPlayer(), game.getPlayer().getDirection());
+      final List<Event> intents = pmb.drainBlockingDeque();
+      if (ghostPhase != null) {
+        intents.addAll(ghostPhase.decide(pmb.getGameView()));
+      }
+
+      final List<Move> moves = resolveIntents(intents);
+      try {
+        game.getLevel().moveAll(moves);
+      } finally {
+        pmb.endGameUpdate();
+      }
+      if (journal != null) {
+        journal.record(game.getLevel(), moves);
       }
 
       try {
@@ -67,21 +115,75 @@ public class GameActor implements Runnable {
         e.printStackTrace();
       }
     }
+    closeJournal();
+  }
+
+  private void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
   }
+
   /**
    * Clean up! To avoid problems during the automated tests, we'll invoke this
    * method (reset()) after each game.
    */
   public void reset() {
     pmb.resestBlockingDeque();
+    pmb.resetGameView();
   }
 
-  private void moveGhost(final Ghost ghost, final Direction dir) {
-    this.game.getLevel().move(ghost, dir);
+  /**
+   * Turns the intents collected during a tick into the moves of that tick. Only the latest intent
+   * of every actor is kept. Pac-Man moves first, continuing in his current direction if he has no
+   * intent, followed by the ghosts in the order of {@link #GHOST_PRIORITY}.
+   *
+   * @param events The intents pushed since the previous tick, oldest first.
+   * @return The moves to apply, in order.
+   */
+  List<Move> resolveIntents(final List<Event> events) {
+    final Map<BaseCharActor, Direction> latest = new LinkedHashMap<>();
+    for (final Event event : events) {
+      latest.put(event.getACTOR(), event.getDIRECTION());
+    }
+
+    final Level level = this.game.getLevel();
+    final Player player = this.game.getPlayer();
+    final List<Move> moves = new ArrayList<>(latest.size() + 1);
+
+    Direction playerDirection = player.getDirection();
+    final List<GhostActor> ghostActors = new ArrayList<>();
+    for (final Map.Entry<BaseCharActor, Direction> intent : latest.entrySet()) {
+      if (intent.getKey() instanceof GhostActor) {
+        ghostActors.add((GhostActor) intent.getKey());
+      } else {
+        playerDirection = intent.getValue();
+      }
+    }
+    moves.add(new Move(player, playerDirection));
+
+    ghostActors.sort(Comparator.comparingInt(GameActor::priorityOf));
+    for (final GhostActor actor : ghostActors) {
+      moves.add(new Move(level.getGhost(actor.getGhostType()), latest.get(actor)));
+    }
+    return moves;
   }
 
-  private void movePlayer(final Player player, final Direction dir) {
-    this.game.getLevel().move(player, dir);
+  /**
+   * @param actor The actor of a ghost.
+   * @return The position of the ghost in {@link #GHOST_PRIORITY}, ghosts of other types go last.
+   */
+  private static int priorityOf(final GhostActor actor) {
+    final int priority = GHOST_PRIORITY.indexOf(actor.getGhostType());
+    if (priority < 0) {
+      return GHOST_PRIORITY.size();
+    }
+    return priority;
   }
 
   @Override
@@ -18,10 +18,10 @@ public class PacmanActor extends BaseCharActor {
 
   @Override
   protected void doAction() {
-    final Keypress kp = pmb.getGameView().getKEYPRESS();
+    final Keypress kp = gameView.getKEYPRESS();
     if (kp != null) {
       Direction direction = kp.keypressToDirection();
-      final Player player = pmb.getSinglePlayerGame().getPlayer();
+      final Player player = gameView.getLEVEL().getPlayer();
 
       //continue forward if we can't go in the chosen direction
       if (!player.getSquare().getSquareAt(direction).isAccessibleTo(player)) {
@@ -1,6 +1,8 @@
 package jpacman.concurrent;
 
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -15,8 +17,9 @@ public class PacmanMessageBus {
 
   private static final PacmanMessageBus INSTANCE
       = new PacmanMessageBus();
-  private static volatile GameView gameView;
   private static volatile SinglePlayerGame singlePlayerGame;
+  private static final SnapshotChannel<GameView> gameViews =
+      new SnapshotChannel<>(PacmanMessageBus::copyGame);
   private static Deque<Event> blockingDeque =
       new LinkedBlockingDeque<>();
 
@@ -27,24 +30,61 @@ public class PacmanMessageBus {
     return INSTANCE;
   }
 
-  public static void setGameView(GameView newGameView) {
-    gameView = newGameView;
+  /**
+   * Must be called by the game loop after it changed the state of the game, which makes a new
+   * view of the game available if one was asked for.
+   */
+  public static void endGameUpdate() {
+    gameViews.endWrite();
   }
 
+  /**
+   * The view is copied from the game by the game loop, at the end of the first update after a
+   * call to this method, and shared by all callers until the next copy.
+   *
+   * @return The most recent view of the game, or <code>null</code> if there is no game yet.
+   */
   public static GameView getGameView() {
-    return gameView;
+    return gameViews.get();
+  }
+
+  /**
+   * @return The version of the game state, which increases with every update.
+   */
+  public static long getGameViewVersion() {
+    return gameViews.getVersion();
+  }
+
+  private static GameView copyGame() {
+    final SinglePlayerGame game = singlePlayerGame;
+    if (game == null) {
+      return null;
+    }
+    return new GameView(game.getLevel(), game.getLastKeypress());
+  }
+
+  public static void resetGameView() {
+    gameViews.clear();
   }
 
   public static SinglePlayerGame getSinglePlayerGame() {
     return singlePlayerGame;
   }
 
+  /**
+   * Sets the game and publishes its first view. Must be called by the game loop, or before the
+   * game loop starts.
+   *
+   * @param newSinglePlayerGame The game.
+   */
   public static void setSinglePlayerGame(SinglePlayerGame newSinglePlayerGame) {
-    singlePlayerGame = newSinglePlayerGame;
+    if (singlePlayerGame != newSinglePlayerGame) {
+      singlePlayerGame = newSinglePlayerGame;
+      gameViews.publish();
+    }
   }
 
   public static void pushToBlockingDeque(Event event) {
-    System.out.println(event);
     blockingDeque.push(event);
   }
 
@@ -56,6 +96,21 @@ public class PacmanMessageBus {
     }
   }
 
+  /**
+   * Removes all pending events from the deque.
+   *
+   * @return The removed events, oldest first.
+   */
+  public static List<Event> drainBlockingDeque() {
+    final List<Event> events = new ArrayList<>();
+    Event event = blockingDeque.pollLast();
+    while (event != null) {
+      events.add(event);
+      event = blockingDeque.pollLast();
+    }
+    return events;
+  }
+
   public static void resestBlockingDeque() {
     blockingDeque.clear();
   }
@@ -0,0 +1,106 @@
+package jpacman.concurrent;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Publishes snapshots of the game state from the single thread that simulates the game to any
+ * number of readers (the UI, the actors).
+ *
+ * <p>
+ * Only the writer ever touches the live state. Readers get the most recently published snapshot
+ * and ask for a new one; at the end of its next write, see {@link #endWrite()}, the writer copies
+ * the live state into a new snapshot if any reader asked for one since the last, which is then
+ * shared by every reader. Versions that nobody reads cost nothing.
+ * </p>
+ *
+ * <p>
+ * Readers never block the writer and never wait for a snapshot: a reader that asks for the first
+ * time after a write that nobody asked for gets a snapshot that is complete but a version
+ * behind, until the next write.
+ * </p>
+ *
+ * @param <T> The type of the snapshots.
+ */
+public final class SnapshotChannel<T> {
+
+  /**
+   * Copies the live state into a new snapshot, or returns <code>null</code> if there is no state
+   * to copy yet. Only called by the writer.
+   */
+  private final Supplier<T> source;
+
+  /**
+   * Whether a reader asked for a snapshot since the last one was published.
+   */
+  private final AtomicBoolean wanted = new AtomicBoolean();
+
+  /**
+   * The number of completed writes, which is the version of the live state.
+   */
+  private volatile long version;
+
+  /**
+   * The most recently published snapshot, or <code>null</code> if none was published yet.
+   */
+  private final AtomicReference<T> latest = new AtomicReference<>();
+
+  /**
+   * Creates a new channel.
+   *
+   * @param source Copies the live state into a new snapshot, or returns <code>null</code> if
+   * there is no state to copy yet.
+   */
+  public SnapshotChannel(final Supplier<T> source) {
+    assert source != null;
+    this.source = source;
+  }
+
+  /**
+   * Marks the end of a mutation of the live state, starting a new version, and publishes a
+   * snapshot of it if a reader asked for one. Must only be called by the writer.
+   */
+  public void endWrite() {
+    this.version++;
+    if (this.wanted.getAndSet(false)) {
+      publish();
+    }
+  }
+
+  /**
+   * Copies the live state into a new snapshot and publishes it. Must only be called by the
+   * writer, or before the writer starts.
+   */
+  public void publish() {
+    this.wanted.set(false);
+    this.latest.set(this.source.get());
+  }
+
+  /**
+   * Returns the most recently published snapshot, and asks the writer for a new one at the end of
+   * its next write.
+   *
+   * @return The most recent snapshot, or <code>null</code> if none was published yet.
+   */
+  public T get() {
+    if (!this.wanted.get()) {
+      this.wanted.set(true);
+    }
+    return this.latest.get();
+  }
+
+  /**
+   * @return The version of the live state, which increases with every write.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Forgets the snapshot published so far.
+   */
+  public void clear() {
+    this.latest.set(null);
+  }
+}
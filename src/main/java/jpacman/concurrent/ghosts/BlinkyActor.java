@@ -1,14 +1,13 @@
 package jpacman.concurrent.ghosts;
 
-import java.util.ArrayList;
 import java.util.List;
-import jpacman.concurrent.PacmanMessageBus;
+import jpacman.concurrent.GameView;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
 import jpacman.engine.npc.ghost.Blinky;
 import jpacman.engine.npc.ghost.Ghost;
-import jpacman.engine.npc.ghost.Navigation;
+import jpacman.engine.npc.ghost.NearestUnits;
 
 /**
  * Created by mateus on 20/02/17.
@@ -32,15 +31,14 @@ public class BlinkyActor extends GhostActor {
    */
 
   @Override
-  public void nextMove() {
-    final Unit player = pmb.getSinglePlayerGame().getPlayer();
-    final Ghost me = pmb.getSinglePlayerGame().getLevel().getGhost(GHOST_TYPE);
+  public Direction nextMove(final GameView view, final NearestUnits players) {
+    final Ghost me = view.getLEVEL().getGhost(GHOST_TYPE);
+    final Unit player = nearestPlayer(view, me, players);
 
     final Square destination = player.getSquare();
-    final List<Square> toIgnore = new ArrayList<>(1);
 
-    final List<Direction> path = Navigation.shortestPath(me.getSquare(),
-        destination, me, toIgnore);
+    final List<Direction> path = getPathTracker().shortestPath(me.getSquare(),
+        destination, me);
     Direction newDirection;
     if (path != null && !path.isEmpty()) {
       newDirection = path.get(0);
@@ -48,7 +46,7 @@ public class BlinkyActor extends GhostActor {
       newDirection = player.getDirection();
     }
     newDirection = chooseAnotherDirectionIfImpassable(me, newDirection);
-    pmb.pushToBlockingDeque(new Event(this,newDirection));
+    return newDirection;
   }
 
 
@@ -1,13 +1,13 @@
 package jpacman.concurrent.ghosts;
 
 import java.util.List;
-import jpacman.concurrent.PacmanMessageBus;
+import jpacman.concurrent.GameView;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
-import jpacman.engine.level.Player;
+import jpacman.engine.board.Unit;
 import jpacman.engine.npc.ghost.Clyde;
 import jpacman.engine.npc.ghost.Ghost;
-import jpacman.engine.npc.ghost.Navigation;
+import jpacman.engine.npc.ghost.NearestUnits;
 
 /**
  * Created by mateus on 20/02/17.
@@ -64,24 +64,25 @@ public class ClydeActor extends GhostActor {
    * </p>
    */
   @Override
-  protected void nextMove() {
-    final Player player = pmb.getSinglePlayerGame().getPlayer();
-    final Ghost me = pmb.getSinglePlayerGame().getLevel().getGhost(GHOST_TYPE);
+  protected Direction nextMove(final GameView view, final NearestUnits players) {
+    final Ghost me = view.getLEVEL().getGhost(GHOST_TYPE);
+    final Unit player = nearestPlayer(view, me, players);
 
     final Square target = player.getSquare();
 
     Direction nextDirection = me.getDirection(); //default to last direction
-    final List<Direction> path = Navigation.shortestPath(me.getSquare(), target, me);
-    if (path != null && !path.isEmpty()) {
-      if (path.size() <= SHYNESS) {
+    final int distance = players.distanceTo(me.getSquare());
+    if (distance >= 0 && distance <= SHYNESS) {
+      if (!me.getSquare().equals(target)) {
         nextDirection = nextDirection.opposite();
-      } else {
+      }
+    } else {
+      final List<Direction> path = getPathTracker().shortestPath(me.getSquare(), target, me);
+      if (path != null && !path.isEmpty()) {
         nextDirection = path.get(0);
       }
     }
-    nextDirection = chooseAnotherDirectionIfImpassable(me, nextDirection);
-    PacmanMessageBus pmb = PacmanMessageBus.getInstance();
-    pmb.pushToBlockingDeque(new Event(this, nextDirection));
+    return chooseAnotherDirectionIfImpassable(me, nextDirection);
   }
 
   @Override
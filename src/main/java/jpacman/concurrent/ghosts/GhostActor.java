@@ -3,9 +3,14 @@ package jpacman.concurrent.ghosts;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import jpacman.concurrent.BaseCharActor;
+import jpacman.concurrent.GameView;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
+import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
 import jpacman.engine.npc.ghost.Ghost;
+import jpacman.engine.npc.ghost.NearestUnits;
+import jpacman.engine.npc.ghost.PathTracker;
 
 /**
  * Created by mateus on 20/02/17.
@@ -14,17 +19,66 @@ public abstract class GhostActor extends BaseCharActor {
 
   public static final int GHOST_SLEEP_INTERVAL = 250;
 
+  /**
+   * The path searches of this actor, kept between its decisions.
+   */
+  private final PathTracker paths = new PathTracker();
+
   public GhostActor() {
     super(GHOST_SLEEP_INTERVAL);
   }
 
   @Override
   protected void doAction() {
-    // TODO skeleton stub - remember that this extends BaseCharActor!
+    pmb.pushToBlockingDeque(new Event(this, nextMove(gameView)));
   }
 
-  // TODO is void really the best return type for this method?
-  protected abstract void nextMove();
+  /**
+   * Decides where the ghost goes next, searching for the nearest player on its own.
+   *
+   * @param view The state of the game to base the decision on.
+   * @return The direction the ghost wants to move in.
+   */
+  protected Direction nextMove(final GameView view) {
+    return nextMove(view, nearestPlayers(view, getGhostType()));
+  }
+
+  /**
+   * Decides where the ghost goes next. Only reads the given view, so the decisions of different
+   * ghosts can be made in parallel against the same view and share the same search for the
+   * players.
+   *
+   * @param view The state of the game to base the decision on.
+   * @param players The search for the players nearest to the squares of the view.
+   * @return The direction the ghost wants to move in.
+   */
+  protected abstract Direction nextMove(GameView view, NearestUnits players);
+
+  /**
+   * Starts a search for the players nearest to the squares of a view. All ghosts walk the same
+   * squares, so the search for one ghost serves all of them.
+   *
+   * @param view The state of the game to search.
+   * @param ghostType The type of a ghost on the view.
+   * @return The search.
+   */
+  static NearestUnits nearestPlayers(final GameView view,
+      final Class<? extends Ghost> ghostType) {
+    return new NearestUnits(view.getLEVEL().getUnits(), UnitKind.PLAYER,
+        view.getLEVEL().getGhost(ghostType));
+  }
+
+  /**
+   * @param view The state of the game.
+   * @param ghost The ghost looking for a player.
+   * @param players The search for the players nearest to the squares of the view.
+   * @return The player nearest to the ghost, or the player of the view if none can be reached.
+   */
+  protected Unit nearestPlayer(final GameView view, final Ghost ghost,
+      final NearestUnits players) {
+    final Unit player = players.nearestTo(ghost.getSquare());
+    return player == null ? view.getLEVEL().getPlayer() : player;
+  }
 
 
   protected Direction chooseAnotherDirectionIfImpassable(final Ghost ghost,
@@ -54,6 +108,13 @@ public abstract class GhostActor extends BaseCharActor {
 
   public abstract Class<? extends Ghost> getGhostType();
 
+  /**
+   * @return The path searches of this actor, which reuse what earlier searches learned.
+   */
+  protected PathTracker getPathTracker() {
+    return this.paths;
+  }
+
   @Override
   public String toString() {
     return getGhostType().toString();
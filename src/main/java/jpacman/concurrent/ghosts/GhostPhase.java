@@ -0,0 +1,84 @@
+package jpacman.concurrent.ghosts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import jpacman.concurrent.GameView;
+import jpacman.engine.npc.ghost.NearestUnits;
+
+/**
+ * The phase of a game tick in which all ghosts decide on their next move.
+ *
+ * <p>
+ * Every ghost decides in parallel on a shared {@link ForkJoinPool}, against the same view of the
+ * game, so a tick waits for the slowest ghost instead of for all of them in turn.
+ * </p>
+ */
+public class GhostPhase {
+
+  /**
+   * The ghosts taking part in this phase.
+   */
+  private final List<GhostActor> actors;
+
+  /**
+   * The pool the decisions are made on.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a phase running on the common pool.
+   *
+   * @param actors The ghosts taking part in this phase.
+   */
+  public GhostPhase(final List<GhostActor> actors) {
+    this(actors, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a phase.
+   *
+   * @param actors The ghosts taking part in this phase.
+   * @param pool The pool to make the decisions on.
+   */
+  public GhostPhase(final List<GhostActor> actors, final ForkJoinPool pool) {
+    assert actors != null;
+    assert pool != null;
+    this.actors = new ArrayList<>(actors);
+    this.pool = pool;
+  }
+
+  /**
+   * Lets every ghost decide on its next move and waits for all of them. The ghosts share one
+   * search for the nearest players, see {@link NearestUnits}.
+   *
+   * @param view The state of the game all ghosts base their decision on.
+   * @return The intents of the ghosts, in the order of the actors.
+   */
+  public List<Event> decide(final GameView view) {
+    assert view != null;
+
+    if (this.actors.isEmpty()) {
+      return new ArrayList<>();
+    }
+    final NearestUnits players = GhostActor.nearestPlayers(view,
+        this.actors.get(0).getGhostType());
+    final List<ForkJoinTask<Event>> decisions = new ArrayList<>(this.actors.size());
+    for (final GhostActor actor : this.actors) {
+      decisions.add(this.pool.submit(() -> new Event(actor, actor.nextMove(view, players))));
+    }
+    final List<Event> intents = new ArrayList<>(decisions.size());
+    for (final ForkJoinTask<Event> decision : decisions) {
+      intents.add(decision.join());
+    }
+    return intents;
+  }
+
+  /**
+   * @return The ghosts taking part in this phase.
+   */
+  public List<GhostActor> getActors() {
+    return this.actors;
+  }
+}
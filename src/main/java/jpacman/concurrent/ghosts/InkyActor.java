@@ -1,7 +1,8 @@
 package jpacman.concurrent.ghosts;
 
 import java.util.List;
-import jpacman.concurrent.PacmanMessageBus;
+import jpacman.concurrent.GameView;
+import jpacman.engine.board.Board;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
@@ -9,6 +10,7 @@ import jpacman.engine.npc.ghost.Blinky;
 import jpacman.engine.npc.ghost.Ghost;
 import jpacman.engine.npc.ghost.Inky;
 import jpacman.engine.npc.ghost.Navigation;
+import jpacman.engine.npc.ghost.NearestUnits;
 
 /**
  * Created by mateus on 20/02/17.
@@ -68,45 +70,37 @@ public class InkyActor extends GhostActor {
    * </p>
    *
    * <p>
-   * <b>Implementation:</b> by lack of a coordinate system there is a
-   * workaround: first determine the square of Blinky (A) and the square 2
-   * squares away from Pac-Man (B). Then determine the shortest path from A to
-   * B regardless of terrain and walk that same path from B. This is the
-   * destination.
+   * <b>Implementation:</b> first determine the square of Blinky (A) and the
+   * square 2 squares away from Pac-Man (B). The destination lies as far from
+   * B as B lies from A, in the same direction, taking the shortest way
+   * around the edges of the board.
    * </p>
    */
   @Override
-  protected void nextMove() {
+  protected Direction nextMove(final GameView view, final NearestUnits players) {
 
-    final Unit blinky = pmb.getSinglePlayerGame().getLevel().getGhost(Blinky.class);
-    final Unit player = pmb.getSinglePlayerGame().getPlayer();
-    final Ghost me = pmb.getSinglePlayerGame().getLevel().getGhost(GHOST_TYPE);
+    final Unit blinky = view.getLEVEL().getGhost(Blinky.class);
+    final Ghost me = view.getLEVEL().getGhost(GHOST_TYPE);
+    final Unit player = nearestPlayer(view, me, players);
 
     final Direction targetDirection = player.getDirection();
-    Square playerDestination = player.getSquare();
-    for (int i = 0; i < SQUARES_AHEAD; i++) {
-      playerDestination = playerDestination.getSquareAt(targetDirection);
-    }
+    final Board board = player.getSquare().getBoard();
+    final Square playerDestination = board.squareAt(player.getSquare(),
+        targetDirection.getDeltaX() * SQUARES_AHEAD, targetDirection.getDeltaY() * SQUARES_AHEAD);
 
-    Square destination = playerDestination;
+    final Square blinkySquare = blinky.getSquare();
+    Square destination = board.squareAt(playerDestination,
+        board.offsetX(blinkySquare, playerDestination),
+        board.offsetY(blinkySquare, playerDestination));
     Direction nextDirection = me.getDirection(); //default to last direction
 
-    final List<Direction> firstHalf = Navigation.shortestPath(blinky.getSquare(),
-        playerDestination, null);
-    if (firstHalf != null) {
-      for (final Direction d : firstHalf) {
-        destination = playerDestination.getSquareAt(d);
-      }
-      final List<Direction> path = Navigation.shortestPath(me.getSquare(),
-          destination, me);
-      if (path != null && !path.isEmpty()) {
-        nextDirection = path.get(0);
-      }
+    final List<Direction> path = getPathTracker().shortestPath(me.getSquare(),
+        destination, me);
+    if (path != null && !path.isEmpty()) {
+      nextDirection = path.get(0);
     }
 
-    nextDirection = chooseAnotherDirectionIfImpassable(me, nextDirection);
-    PacmanMessageBus pmb = PacmanMessageBus.getInstance();
-    pmb.pushToBlockingDeque(new Event(this,nextDirection));
+    return chooseAnotherDirectionIfImpassable(me, nextDirection);
   }
 
   @Override
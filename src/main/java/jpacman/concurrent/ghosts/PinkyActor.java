@@ -3,12 +3,13 @@ package jpacman.concurrent.ghosts;
 
 import java.util.ArrayList;
 import java.util.List;
-import jpacman.concurrent.PacmanMessageBus;
+import jpacman.concurrent.GameView;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
 import jpacman.engine.npc.ghost.Ghost;
 import jpacman.engine.npc.ghost.Navigation;
+import jpacman.engine.npc.ghost.NearestUnits;
 import jpacman.engine.npc.ghost.Pinky;
 
 /**
@@ -71,15 +72,13 @@ public class PinkyActor extends GhostActor {
    * </p>
    */
   @Override
-  public void nextMove() {
-    final Unit player = pmb.getSinglePlayerGame().getPlayer();
-    final Ghost me = pmb.getSinglePlayerGame().getLevel().getGhost(GHOST_TYPE);
+  public Direction nextMove(final GameView view, final NearestUnits players) {
+    final Ghost me = view.getLEVEL().getGhost(GHOST_TYPE);
+    final Unit player = nearestPlayer(view, me, players);
     final Direction targetDirection = player.getDirection();
 
-    Square destination = player.getSquare();
-    for (int i = 0; i < SQUARES_AHEAD; i++) {
-      destination = destination.getSquareAt(targetDirection);
-    }
+    Square destination = player.getSquare().getBoard().squareAt(player.getSquare(),
+        targetDirection.getDeltaX() * SQUARES_AHEAD, targetDirection.getDeltaY() * SQUARES_AHEAD);
     final Direction facing = player.getDirection();
     final Square behind = player.getSquare().getSquareAt(facing.opposite());
     final List<Square> toIgnore = new ArrayList<>(1);
@@ -89,10 +88,11 @@ public class PinkyActor extends GhostActor {
         destination, me, toIgnore);
     if (path != null && !path.isEmpty()) {
       this.lastDirection = path.get(0);
+    } else if (this.lastDirection == null) {
+      this.lastDirection = me.getDirection();
     }
     this.lastDirection = chooseAnotherDirectionIfImpassable(me, this.lastDirection);
-    PacmanMessageBus pmb = PacmanMessageBus.getInstance();
-    pmb.pushToBlockingDeque(new Event(this, this.lastDirection));
+    return this.lastDirection;
   }
 
   @Override
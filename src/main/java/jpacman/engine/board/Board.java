@@ -12,6 +12,17 @@ public class Board {
    */
   private final Square[][] board;
 
+  /**
+   * The pellets kept as bits instead of units, or <code>null</code> if there are none.
+   */
+  private PelletLayer pellets;
+
+  /**
+   * The walls, components and junction graph shared with other boards, or <code>null</code> if
+   * this board has none.
+   */
+  private BoardTopology topology;
+
   /**
    * Creates a new board.
    *
@@ -21,9 +32,65 @@ public class Board {
     assert grid != null;
     this.board = grid;
     assert invariant() : "Initial grid cannot contain null squares";
+    for (int x = 0; x < grid.length; x++) {
+      for (int y = 0; y < grid[x].length; y++) {
+        grid[x][y].setPosition(this, x, y);
+      }
+    }
+  }
+
+  /**
+   * Creates a board without a grid, for boards that keep their squares elsewhere and override
+   * {@link #getWidth()}, {@link #getHeight()} and {@link #squareAt(int, int)}.
+   */
+  protected Board() {
+    this.board = null;
   }
 
 
+  /**
+   * @return The pellets kept as bits instead of units, or <code>null</code> if this board has no
+   * pellet layer.
+   */
+  public PelletLayer getPelletLayer() {
+    return this.pellets;
+  }
+
+  /**
+   * @return The walls, components and junction graph this board shares with other boards, or
+   * <code>null</code> if it has none.
+   */
+  public BoardTopology getTopology() {
+    return this.topology;
+  }
+
+  /**
+   * @param shared The topology of this board, of the same size and walls.
+   */
+  void setTopology(final BoardTopology shared) {
+    assert shared.getWidth() == getWidth() && shared.getHeight() == getHeight();
+    this.topology = shared;
+  }
+
+  /**
+   * Puts a pellet layer under the squares of this board. A board without a grid gives the layer
+   * to its squares when it creates them.
+   *
+   * @param layer The pellet layer, of the same size as this board.
+   */
+  void setPelletLayer(final PelletLayer layer) {
+    assert layer.getWidth() == getWidth() && layer.getHeight() == getHeight();
+    this.pellets = layer;
+    if (this.board == null) {
+      return;
+    }
+    for (int x = 0; x < getWidth(); x++) {
+      for (int y = 0; y < getHeight(); y++) {
+        squareAt(x, y).setPelletLayer(layer, layer.cell(x, y));
+      }
+    }
+  }
+
   /**
    * Whatever happens, the squares on the board can't be null.
    *
@@ -72,6 +139,61 @@ public class Board {
     return result;
   }
 
+  /**
+   * Returns the square a number of columns and rows away from another, wrapping around the edges
+   * of this board like stepping from a square to its neighbours does.
+   *
+   * @param from A square of this board.
+   * @param dx The number of columns to the east, or to the west if negative.
+   * @param dy The number of rows to the south, or to the north if negative.
+   * @return The square at that offset.
+   */
+  public Square squareAt(final Square from, final int dx, final int dy) {
+    return squareAt(Math.floorMod(from.getX() + dx, getWidth()),
+        Math.floorMod(from.getY() + dy, getHeight()));
+  }
+
+  /**
+   * @param from A square of this board.
+   * @param to Another square of this board.
+   * @return The shortest number of columns from one square to the other, wrapping around the
+   * edges of this board, negative if it lies to the west.
+   */
+  public int offsetX(final Square from, final Square to) {
+    return offset(to.getX() - from.getX(), getWidth());
+  }
+
+  /**
+   * @param from A square of this board.
+   * @param to Another square of this board.
+   * @return The shortest number of rows from one square to the other, wrapping around the edges
+   * of this board, negative if it lies to the north.
+   */
+  public int offsetY(final Square from, final Square to) {
+    return offset(to.getY() - from.getY(), getHeight());
+  }
+
+  /**
+   * @param from A square of this board.
+   * @param to Another square of this board.
+   * @return The number of steps between the squares regardless of walls, wrapping around the
+   * edges of this board.
+   */
+  public int manhattanDistance(final Square from, final Square to) {
+    return Math.abs(offsetX(from, to)) + Math.abs(offsetY(from, to));
+  }
+
+  /**
+   * @param difference The difference between two coordinates.
+   * @param size The number of coordinates, after which they wrap around.
+   * @return The difference of the shortest way, between <code>-size / 2</code> and
+   * <code>size / 2</code>.
+   */
+  private static int offset(final int difference, final int size) {
+    final int forward = Math.floorMod(difference, size);
+    return forward > size / 2 ? forward - size : forward;
+  }
+
   /**
    * Determines whether the given <code>x,y</code> position is on this board.
    *
@@ -1,9 +1,11 @@
 package jpacman.engine.board;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import jpacman.engine.level.Player;
 import jpacman.engine.npc.ghost.Ghost;
 import jpacman.engine.sprite.PacManSprites;
@@ -33,7 +35,10 @@ public class BoardFactory {
   }
 
   /**
-   * Creates a new board from a grid of cells and connects it.
+   * Creates a new board from a grid of cells. The squares are not linked, they find their
+   * neighbours by their position on the board. The board shares its {@link BoardTopology} with
+   * the boards created before with the same walls, so their components are labelled and their
+   * junction graph is derived once.
    *
    * @param grid The square grid of cells, in which grid[x][y] corresponds to the square at position
    * x,y.
@@ -41,23 +46,39 @@ public class BoardFactory {
    */
   public Board createBoard(final Square[][] grid) {
     assert grid != null;
-
     final Board board = new Board(grid);
+    BoardTopology.derive(board);
+    return board;
+  }
 
-    final int width = board.getWidth();
-    final int height = board.getHeight();
-    for (int x = 0; x < width; x++) {
-      for (int y = 0; y < height; y++) {
-        final Square square = grid[x][y];
-        for (final Direction dir : Direction.values()) {
-          final int dirX = (width + x + dir.getDeltaX()) % width;
-          final int dirY = (height + y + dir.getDeltaY()) % height;
-          final Square neighbour = grid[dirX][dirY];
-          square.link(neighbour, dir);
-        }
-      }
-    }
+  /**
+   * Creates a new board from a grid of cells with its pellets in a layer, and connects it.
+   *
+   * @param grid The square grid of cells, in which grid[x][y] corresponds to the square at position
+   * x,y.
+   * @param pellets The pellets of the board, of the same size as the grid.
+   * @return A new board, wrapping a grid of connected cells.
+   */
+  public Board createBoard(final Square[][] grid, final PelletLayer pellets) {
+    final Board board = createBoard(grid);
+    board.setPelletLayer(pellets);
+    return board;
+  }
 
+  /**
+   * Creates a new board on the state of a store of cells, creating its squares only when they
+   * are asked for, see {@link CellBoard}. Paths on the board are searched through a
+   * {@link PathHierarchy}, so the walls of the cells must be final.
+   *
+   * @param cells The state of the cells.
+   * @param pellets Creates the pellets of the cells holding one.
+   * @return A new board.
+   */
+  public Board createBoard(final CellStore cells, final Supplier<? extends Unit> pellets) {
+    assert cells != null;
+    final CellBoard board = new CellBoard(cells, this.sprites.getWallSprite(),
+        this.sprites.getGroundSprite(), pellets);
+    board.deriveHierarchy(PathHierarchy.CLUSTER_SIZE);
     return board;
   }
 
@@ -77,16 +98,32 @@ public class BoardFactory {
   private Set<Ghost> clonedGhosts;
   private List<Square> clonedStartSquares;
 
+  /**
+   * Copies a board with its units, which are cloned. A board with a topology is copied onto a
+   * {@link TopologyBoard}, which shares the topology and only creates the squares that hold a
+   * unit, so only the units and the pellet layer are copied. Other boards are copied square by
+   * square.
+   *
+   * @param toCopy The board to copy.
+   * @param startSquares The start squares of the board.
+   * @return The copy.
+   */
   public Board copyBoard(final Board toCopy, final Set<Square> startSquares) {
     assert toCopy != null;
     this.clonedPlayer = null;
     this.clonedGhosts = new HashSet<>();
     this.clonedStartSquares = new ArrayList<>();
+    if (toCopy instanceof CellBoard) {
+      return copyCellBoard((CellBoard) toCopy, startSquares);
+    }
+    if (toCopy.getTopology() != null) {
+      return copyTopologyBoard(toCopy, startSquares);
+    }
 
     final Square[][] grid = new Square[toCopy.getWidth()][toCopy.getHeight()];
     //copy square...
     for (int i = 0; i < grid.length; i++) {
-      for (int j = 0; j < grid[j].length; j++) {
+      for (int j = 0; j < grid[i].length; j++) {
         final Square currentSquare = toCopy.squareAt(i, j);
         final Square copy = copySquare(currentSquare);
         grid[i][j] = copy;
@@ -103,32 +140,127 @@ public class BoardFactory {
 
         //clone occupants, link them
         for (final Unit occupant : currentSquare.getOccupants()) {
-          try {
-            final Unit clone = (Unit) occupant.clone();
-            clone.leaveSquare();
-            clone.occupy(copy);
-
-            //store cloned players and ghosts
-            if (clone instanceof Player) {
-              if (this.clonedPlayer == null) {
-                this.clonedPlayer = (Player) clone;
-              } else {
-                throw new RuntimeException("Duplicated pacman!");
-              }
-            } else if (clone instanceof Ghost) {
-              if (!this.clonedGhosts.add((Ghost) clone)) {
-                throw new RuntimeException("Duplicated ghost!");
-              }
-            }
-          } catch (final CloneNotSupportedException e) {
-            throw new RuntimeException(e);
-          }
+          cloneOccupant(occupant, copy);
         }
       }
     }
 
-    //and link the squares
-    return createBoard(grid);
+    final Board copy = new Board(grid);
+    if (toCopy.getPelletLayer() != null) {
+      copy.setPelletLayer(new PelletLayer(toCopy.getPelletLayer()));
+    }
+    return copy;
+  }
+
+  /**
+   * Copies a board that has a topology: the pellet layer is copied as a whole, and only the units
+   * on the squares holding any are cloned.
+   *
+   * @param toCopy The board to copy.
+   * @param startSquares The start squares of the board.
+   * @return The copy.
+   */
+  private Board copyTopologyBoard(final Board toCopy, final Set<Square> startSquares) {
+    final TopologyBoard copy = new TopologyBoard(toCopy);
+    if (toCopy.getPelletLayer() != null) {
+      copy.setPelletLayer(new PelletLayer(toCopy.getPelletLayer()));
+    }
+    if (toCopy instanceof TopologyBoard) {
+      for (final Square square : ((TopologyBoard) toCopy).getMaterializedSquares()) {
+        cloneOccupants(square, copy);
+      }
+    } else {
+      for (int x = 0; x < toCopy.getWidth(); x++) {
+        for (int y = 0; y < toCopy.getHeight(); y++) {
+          cloneOccupants(toCopy.squareAt(x, y), copy);
+        }
+      }
+    }
+    cloneStartSquares(startSquares, copy);
+    return copy;
+  }
+
+  /**
+   * Copies a board that keeps its state in cells: the cells are copied as a whole, and only the
+   * units on the squares created so far are cloned, apart from the pellets of the cells.
+   *
+   * @param toCopy The board to copy.
+   * @param startSquares The start squares of the board.
+   * @return The copy.
+   */
+  private Board copyCellBoard(final CellBoard toCopy, final Set<Square> startSquares) {
+    final CellBoard copy = new CellBoard(toCopy);
+    for (final Square square : toCopy.getMaterializedSquares()) {
+      for (final Unit occupant : square.getOccupants()) {
+        if (!CellBoard.isCellPellet(square, occupant)) {
+          cloneOccupant(occupant, copy.squareAt(square.getX(), square.getY()));
+        }
+      }
+    }
+    cloneStartSquares(startSquares, copy);
+    return copy;
+  }
+
+  /**
+   * Clones the units on a square, if it holds any, onto the square at the same position of a
+   * copied board.
+   *
+   * @param square The square of the board to copy.
+   * @param copy The copied board.
+   */
+  private void cloneOccupants(final Square square, final Board copy) {
+    if (square.getKinds() == 0) {
+      return;
+    }
+    final Square target = copy.squareAt(square.getX(), square.getY());
+    for (final Unit occupant : square.getOccupants()) {
+      cloneOccupant(occupant, target);
+    }
+  }
+
+  /**
+   * Finds the start squares on a copied board that lie where the start squares of the original
+   * board lie.
+   *
+   * @param startSquares The start squares of the original board.
+   * @param copy The copied board.
+   */
+  private void cloneStartSquares(final Set<Square> startSquares, final Board copy) {
+    // in the order of boards copied square by square, column by column
+    final List<Square> starts = new ArrayList<>(startSquares);
+    starts.sort(Comparator.comparingInt(Square::getX).thenComparingInt(Square::getY));
+    for (final Square start : starts) {
+      this.clonedStartSquares.add(copy.squareAt(start.getX(), start.getY()));
+    }
+  }
+
+  /**
+   * Clones a unit onto a square of a copied board.
+   *
+   * @param occupant The unit to clone.
+   * @param copy The square of the copied board.
+   */
+  private void cloneOccupant(final Unit occupant, final Square copy) {
+    try {
+      final Unit clone = (Unit) occupant.clone();
+      clone.leaveSquare();
+      clone.occupy(copy);
+
+      //store cloned players and ghosts
+      if (clone instanceof Player) {
+        if (this.clonedPlayer == null) {
+          this.clonedPlayer = (Player) clone;
+        } else {
+          throw new RuntimeException("Duplicated pacman!");
+        }
+      } else if (clone instanceof Ghost) {
+        if (!this.clonedGhosts.add((Ghost) clone)) {
+          throw new RuntimeException("Duplicated ghost!");
+        }
+      }
+    } catch (final CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   public Square copySquare(final Square toCopy) {
@@ -142,6 +274,8 @@ public class BoardFactory {
     }
 
     //This will not return the correct linked occupants - use createBoard for that
+    copy.setComponent(toCopy.getComponent());
+    copy.setPlace(toCopy.getPlace());
 
     return copy;
   }
@@ -164,6 +298,17 @@ public class BoardFactory {
     return new Wall(this.sprites.getWallSprite());
   }
 
+  /**
+   * @param square A square created by a board factory.
+   * @return <code>true</code> iff the square is a wall, see {@link #createWall()}.
+   */
+  public static boolean isWall(final Square square) {
+    return square instanceof Wall
+        || square instanceof CellBoard.CellSquare && ((CellBoard.CellSquare) square).isWall()
+        || square instanceof TopologyBoard.TopologySquare
+        && ((TopologyBoard.TopologySquare) square).isWall();
+  }
+
   /**
    * A wall is a square that is inaccessible to anyone.
    *
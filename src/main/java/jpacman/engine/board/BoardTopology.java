@@ -0,0 +1,206 @@
+package jpacman.engine.board;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The parts of a grid board that never change while a game is played: its size, its walls, the
+ * connected components of its other squares and its {@link JunctionGraph}. A topology is
+ * immutable, so it is shared by all copies of a board, and by all boards with the same walls,
+ * which only have to label their components and derive their graph once.
+ *
+ * <p>
+ * The neighbours of the squares of a board are not stored at all; a square on a board looks them
+ * up by its position, see {@link Square#getSquareAt(Direction)}. The squares of a
+ * {@link TopologyBoard} do not store their walls, components and places either, they read them
+ * from the topology.
+ * </p>
+ */
+public final class BoardTopology {
+
+  /**
+   * The number of topologies kept for boards that are created later.
+   */
+  private static final int CACHE_SIZE = 16;
+
+  /**
+   * The topologies of the boards created last, by the hash of their walls. Looking one up is
+   * synchronized on the cache.
+   */
+  private static final Map<Integer, BoardTopology> CACHE =
+      new LinkedHashMap<Integer, BoardTopology>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, BoardTopology> eldest) {
+          return size() > CACHE_SIZE;
+        }
+      };
+
+  private final int width;
+  private final int height;
+
+  /**
+   * The walls, one bit per square, numbered row by row.
+   */
+  private final long[] walls;
+
+  /**
+   * The connected components of the squares, numbered row by row.
+   */
+  private final int[] components;
+
+  /**
+   * The places of the squares in the junction graph, numbered row by row.
+   */
+  private final JunctionGraph.Place[] places;
+
+  private final int componentCount;
+  private final JunctionGraph graph;
+
+  /**
+   * Creates the topology of a board of which the components are labelled and the junction graph
+   * is derived.
+   *
+   * @param board The board.
+   * @param walls The walls of the board.
+   * @param componentCount The number of components of the board.
+   * @param graph The junction graph of the board.
+   */
+  private BoardTopology(final Board board, final long[] walls, final int componentCount,
+      final JunctionGraph graph) {
+    this.width = board.getWidth();
+    this.height = board.getHeight();
+    this.walls = walls;
+    this.componentCount = componentCount;
+    this.graph = graph;
+    this.components = new int[this.width * this.height];
+    this.places = new JunctionGraph.Place[this.components.length];
+    for (int x = 0; x < this.width; x++) {
+      for (int y = 0; y < this.height; y++) {
+        final Square square = board.squareAt(x, y);
+        this.components[cell(x, y)] = square.getComponent();
+        this.places[cell(x, y)] = square.getPlace();
+      }
+    }
+  }
+
+  /**
+   * Gives a new board its topology: one with the same walls that was derived before, or else a
+   * new one, for which the components of the board are labelled and its junction graph derived.
+   * Either way the squares of the board get their component and place in the graph.
+   *
+   * @param board A new board of squares that have not been labelled.
+   * @return The topology of the board.
+   */
+  static BoardTopology derive(final Board board) {
+    final int width = board.getWidth();
+    final int height = board.getHeight();
+    final long[] walls = new long[(width * height + Long.SIZE - 1) / Long.SIZE];
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (BoardFactory.isWall(board.squareAt(x, y))) {
+          final int cell = y * width + x;
+          walls[cell / Long.SIZE] |= 1L << (cell % Long.SIZE);
+        }
+      }
+    }
+    final int key = (31 * width + height) * 31 + Arrays.hashCode(walls);
+
+    BoardTopology topology;
+    synchronized (CACHE) {
+      topology = CACHE.get(key);
+    }
+    if (topology != null && topology.width == width && topology.height == height
+        && Arrays.equals(topology.walls, walls)) {
+      topology.applyTo(board);
+    } else {
+      final int count = Components.labelSquares(board);
+      topology = new BoardTopology(board, walls, count, JunctionGraph.derive(board));
+      synchronized (CACHE) {
+        CACHE.put(key, topology);
+      }
+    }
+    board.setTopology(topology);
+    return topology;
+  }
+
+  /**
+   * @return The number of columns.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * @return The number of rows.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return <code>true</code> iff the square is a wall.
+   */
+  public boolean isWall(final int x, final int y) {
+    final int cell = cell(x, y);
+    return (this.walls[cell / Long.SIZE] & 1L << (cell % Long.SIZE)) != 0L;
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return The connected component of the square, see {@link Square#getComponent()}.
+   */
+  int getComponent(final int x, final int y) {
+    return this.components[cell(x, y)];
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return Where the square lies in the junction graph, or <code>null</code> if it is a wall.
+   */
+  JunctionGraph.Place getPlace(final int x, final int y) {
+    return this.places[cell(x, y)];
+  }
+
+  /**
+   * @return The number of connected components, see {@link Components}.
+   */
+  public int getComponentCount() {
+    return this.componentCount;
+  }
+
+  /**
+   * @return The junction graph of the boards with this topology.
+   */
+  public JunctionGraph getJunctionGraph() {
+    return this.graph;
+  }
+
+  /**
+   * Gives the squares of a board with this topology their component and place in the graph.
+   *
+   * @param board The board.
+   */
+  void applyTo(final Board board) {
+    for (int x = 0; x < this.width; x++) {
+      for (int y = 0; y < this.height; y++) {
+        final Square square = board.squareAt(x, y);
+        square.setComponent(this.components[cell(x, y)]);
+        square.setPlace(this.places[cell(x, y)]);
+      }
+    }
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return The number of the square.
+   */
+  private int cell(final int x, final int y) {
+    return y * this.width + x;
+  }
+}
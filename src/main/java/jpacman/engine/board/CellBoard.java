@@ -0,0 +1,290 @@
+package jpacman.engine.board;
+
+import java.util.List;
+import java.util.function.Supplier;
+import jpacman.engine.sprite.Sprite;
+
+/**
+ * A board that keeps the state of its cells in a {@link CellStore} instead of a grid of squares.
+ * A square is only created when it is first asked for, after which the board keeps returning the
+ * same square. A cell with a pellet gets its pellet unit at that moment too, and when the pellet
+ * leaves the square the cell is cleared.
+ *
+ * <p>
+ * The squares of this board do not store their neighbours, they look them up when asked, so
+ * walking from a square only creates the squares that are actually visited.
+ * </p>
+ *
+ * <p>
+ * Squares may be created by several threads reading the same board at once, such as the readers
+ * of a snapshot of the game, see {@link SquareChunks}.
+ * </p>
+ */
+public class CellBoard extends Board {
+
+  private final CellStore cells;
+  private final Sprite wallSprite;
+  private final Sprite groundSprite;
+  private final Supplier<? extends Unit> pellets;
+
+  /**
+   * The squares created so far.
+   */
+  private final SquareChunks squares;
+
+  /**
+   * The connected components of the cells, numbered row by row, or <code>null</code> if they have
+   * not been labelled. Copies share the labels, as walls never change.
+   */
+  private int[] components;
+
+  /**
+   * The hierarchical path finder of the cells, shared with copies.
+   */
+  private PathHierarchy hierarchy;
+
+  /**
+   * Creates a new board.
+   *
+   * @param cells The state of the cells.
+   * @param wallSprite The sprite of the walls.
+   * @param groundSprite The sprite of the other squares.
+   * @param pellets Creates the pellets of the cells holding one.
+   */
+  CellBoard(final CellStore cells, final Sprite wallSprite, final Sprite groundSprite,
+      final Supplier<? extends Unit> pellets) {
+    this.cells = cells;
+    this.wallSprite = wallSprite;
+    this.groundSprite = groundSprite;
+    this.pellets = pellets;
+    this.squares = new SquareChunks((long) cells.getWidth() * cells.getHeight());
+  }
+
+  /**
+   * Creates a board with the same sprites and pellets on a copy of the cells. None of the squares
+   * of the original board are copied.
+   *
+   * @param toCopy The board to copy.
+   */
+  CellBoard(final CellBoard toCopy) {
+    this(new CellStore(toCopy.cells), toCopy.wallSprite, toCopy.groundSprite, toCopy.pellets);
+    this.components = toCopy.components;
+    this.hierarchy = toCopy.hierarchy;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.cells.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return this.cells.getHeight();
+  }
+
+  @Override
+  public Square squareAt(final int x, final int y) {
+    assert withinBorders(x, y);
+    final long cell = (long) y * getWidth() + x;
+    final Square square = this.squares.get(cell);
+    return square != null ? square : this.squares.publish(cell, materialize(x, y));
+  }
+
+  /**
+   * @return The state of the cells of this board.
+   */
+  public CellStore getCells() {
+    return this.cells;
+  }
+
+  /**
+   * @return The number of pellets on this board, without creating any squares.
+   */
+  public int getRemainingPellets() {
+    return this.cells.getPelletCount();
+  }
+
+  /**
+   * @return The hierarchical path finder of the cells, or <code>null</code> if it has none.
+   */
+  public PathHierarchy getHierarchy() {
+    return this.hierarchy;
+  }
+
+  /**
+   * Divides the cells into clusters for the hierarchical path finder.
+   *
+   * @param clusterSize The width and height of a cluster.
+   */
+  void deriveHierarchy(final int clusterSize) {
+    this.hierarchy = new PathHierarchy(this.cells, clusterSize);
+  }
+
+  /**
+   * Labels the connected components of the cells, without creating any squares.
+   *
+   * @return The number of components.
+   * @see Components#label(Board)
+   */
+  int labelComponents() {
+    final int width = getWidth();
+    final int height = getHeight();
+    final int[] labels = new int[width * height];
+    final int[] queue = new int[labels.length];
+    int components = 0;
+    for (int start = 0; start < labels.length; start++) {
+      if (labels[start] != Components.NONE
+          || this.cells.is(start % width, start / width, CellStore.WALL)) {
+        continue;
+      }
+      components++;
+      labels[start] = components;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      while (head < tail) {
+        final int cell = queue[head++];
+        for (final Direction direction : Direction.values()) {
+          final int x = (width + cell % width + direction.getDeltaX()) % width;
+          final int y = (height + cell / width + direction.getDeltaY()) % height;
+          final int next = y * width + x;
+          if (labels[next] == Components.NONE && !this.cells.is(x, y, CellStore.WALL)) {
+            labels[next] = components;
+            queue[tail++] = next;
+          }
+        }
+      }
+    }
+    this.components = labels;
+    return components;
+  }
+
+  /**
+   * @return The squares created so far, which are the only squares that can hold units other than
+   * the pellets of the cells.
+   */
+  public List<Square> getMaterializedSquares() {
+    return this.squares.toList();
+  }
+
+  /**
+   * @param square A square of this board.
+   * @param unit A unit on the square.
+   * @return <code>true</code> iff the unit is the pellet of the cell, which is already part of
+   * the state of the cells.
+   */
+  static boolean isCellPellet(final Square square, final Unit unit) {
+    return square instanceof CellSquare && ((CellSquare) square).pellet == unit;
+  }
+
+  /**
+   * Creates the square of a cell, with its pellet. The square is not published yet, so its pellet
+   * occupies it without changing the cells.
+   *
+   * @param x The column of the cell.
+   * @param y The row of the cell.
+   * @return The new square.
+   */
+  private Square materialize(final int x, final int y) {
+    final CellSquare square = new CellSquare(this, x, y);
+    if (this.cells.is(x, y, CellStore.PELLET)) {
+      square.pellet = this.pellets.get();
+      square.pellet.occupy(square);
+    }
+    return square;
+  }
+
+  /**
+   * A square that keeps its state in the cells of its board.
+   */
+  static final class CellSquare extends Square {
+
+    private final CellBoard board;
+
+    /**
+     * The column of the square.
+     */
+    private final int x;
+
+    /**
+     * The row of the square.
+     */
+    private final int y;
+
+    /**
+     * The pellet of the cell, or <code>null</code> if it has none (left).
+     */
+    private Unit pellet;
+
+    /**
+     * Creates a new square.
+     *
+     * @param board The board of the square.
+     * @param x The column of the square.
+     * @param y The row of the square.
+     */
+    CellSquare(final CellBoard board, final int x, final int y) {
+      this.board = board;
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public CellBoard getBoard() {
+      return this.board;
+    }
+
+    @Override
+    public int getX() {
+      return this.x;
+    }
+
+    @Override
+    public int getY() {
+      return this.y;
+    }
+
+    @Override
+    public int getComponent() {
+      final int[] labels = this.board.components;
+      return labels == null ? Components.NONE : labels[getY() * this.board.getWidth() + getX()];
+    }
+
+    @Override
+    void put(final Unit occupant) {
+      super.put(occupant);
+      if (occupant != this.pellet) {
+        this.board.cells.set(getX(), getY(), CellStore.OCCUPIED, true);
+      }
+    }
+
+    @Override
+    void remove(final Unit occupant) {
+      super.remove(occupant);
+      if (occupant == this.pellet) {
+        this.pellet = null;
+        this.board.cells.set(getX(), getY(), CellStore.PELLET, false);
+      } else {
+        final int others = getOccupants().size() - (this.pellet == null ? 0 : 1);
+        this.board.cells.set(getX(), getY(), CellStore.OCCUPIED, others > 0);
+      }
+    }
+
+    @Override
+    public boolean isAccessibleTo(final Unit unit) {
+      return !isWall();
+    }
+
+    /**
+     * @return <code>true</code> iff this square is a wall.
+     */
+    boolean isWall() {
+      return this.board.cells.is(getX(), getY(), CellStore.WALL);
+    }
+
+    @Override
+    public Sprite getSprite() {
+      return isWall() ? this.board.wallSprite : this.board.groundSprite;
+    }
+  }
+}
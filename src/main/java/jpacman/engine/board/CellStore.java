@@ -0,0 +1,150 @@
+package jpacman.engine.board;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The state of the cells of a {@link CellBoard}, one byte per cell, stored outside of the heap in
+ * chunks of direct buffers. Cells are numbered row by row, <code>y * width + x</code>.
+ */
+public final class CellStore {
+
+  /**
+   * The flag of a cell that cannot be occupied by any unit.
+   */
+  public static final byte WALL = 1;
+
+  /**
+   * The flag of a cell that holds a pellet.
+   */
+  public static final byte PELLET = 2;
+
+  /**
+   * The flag of a cell that is occupied by a unit other than its pellet.
+   */
+  public static final byte OCCUPIED = 4;
+
+  /**
+   * The number of bits of a cell number addressing a cell within its chunk.
+   */
+  private static final int CHUNK_BITS = 16;
+
+  /**
+   * The number of cells in a chunk.
+   */
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  private final int width;
+  private final int height;
+  private final ByteBuffer[] chunks;
+  private int pellets;
+
+  /**
+   * Creates a store of empty cells.
+   *
+   * @param width The number of columns.
+   * @param height The number of rows.
+   */
+  public CellStore(final int width, final int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("A board needs at least one cell: " + width + "x"
+          + height);
+    }
+    this.width = width;
+    this.height = height;
+    final long cells = (long) width * height;
+    this.chunks = new ByteBuffer[(int) ((cells + CHUNK_SIZE - 1) >>> CHUNK_BITS)];
+    for (int i = 0; i < this.chunks.length; i++) {
+      this.chunks[i] = ByteBuffer.allocateDirect(
+          (int) Math.min(CHUNK_SIZE, cells - ((long) i << CHUNK_BITS)));
+    }
+  }
+
+  /**
+   * Creates a copy of a store.
+   *
+   * @param toCopy The store to copy.
+   */
+  public CellStore(final CellStore toCopy) {
+    this.width = toCopy.width;
+    this.height = toCopy.height;
+    this.pellets = toCopy.pellets;
+    this.chunks = new ByteBuffer[toCopy.chunks.length];
+    for (int i = 0; i < this.chunks.length; i++) {
+      final ByteBuffer source = toCopy.chunks[i].duplicate();
+      source.clear();
+      this.chunks[i] = ByteBuffer.allocateDirect(source.capacity());
+      this.chunks[i].put(source).clear();
+    }
+  }
+
+  /**
+   * @return The number of columns.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * @return The number of rows.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * @param x The column of the cell.
+   * @param y The row of the cell.
+   * @return The flags of the cell.
+   */
+  public byte get(final int x, final int y) {
+    final long cell = cell(x, y);
+    return this.chunks[(int) (cell >>> CHUNK_BITS)].get((int) (cell & (CHUNK_SIZE - 1)));
+  }
+
+  /**
+   * @param x The column of the cell.
+   * @param y The row of the cell.
+   * @param flag The flag to test.
+   * @return <code>true</code> iff the flag of the cell is set.
+   */
+  public boolean is(final int x, final int y, final byte flag) {
+    return (get(x, y) & flag) != 0;
+  }
+
+  /**
+   * Sets or clears a flag of a cell.
+   *
+   * @param x The column of the cell.
+   * @param y The row of the cell.
+   * @param flag The flag to change.
+   * @param value <code>true</code> to set the flag, <code>false</code> to clear it.
+   */
+  public void set(final int x, final int y, final byte flag, final boolean value) {
+    final long cell = cell(x, y);
+    final ByteBuffer chunk = this.chunks[(int) (cell >>> CHUNK_BITS)];
+    final int offset = (int) (cell & (CHUNK_SIZE - 1));
+    final byte old = chunk.get(offset);
+    final byte updated = (byte) (value ? old | flag : old & ~flag);
+    if ((flag & PELLET) != 0 && (old & PELLET) != (updated & PELLET)) {
+      this.pellets += value ? 1 : -1;
+    }
+    chunk.put(offset, updated);
+  }
+
+  /**
+   * @return The number of cells holding a pellet.
+   */
+  public int getPelletCount() {
+    return this.pellets;
+  }
+
+  /**
+   * @param x The column of the cell.
+   * @param y The row of the cell.
+   * @return The number of the cell.
+   */
+  private long cell(final int x, final int y) {
+    assert x >= 0 && x < this.width && y >= 0 && y < this.height;
+    return (long) y * this.width + x;
+  }
+}
@@ -0,0 +1,81 @@
+package jpacman.engine.board;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Labels the connected components of a board: two squares that are not walls have the same label
+ * iff one can be reached from the other without crossing a wall. Walls are not labelled.
+ */
+public final class Components {
+
+  /**
+   * The label of walls and of the squares of boards that have not been labelled.
+   */
+  public static final int NONE = 0;
+
+  private Components() {
+  }
+
+  /**
+   * Labels the connected components of a board, see {@link Square#getComponent()}. A board with
+   * a {@link BoardTopology} has been labelled when it was created.
+   *
+   * @param board The board to label.
+   * @return The number of components.
+   */
+  public static int label(final Board board) {
+    if (board instanceof CellBoard) {
+      return ((CellBoard) board).labelComponents();
+    }
+    if (board.getTopology() != null) {
+      return board.getTopology().getComponentCount();
+    }
+    return labelSquares(board);
+  }
+
+  /**
+   * Labels the connected components of a board by walking its squares.
+   *
+   * @param board The board to label, of which no square has been labelled.
+   * @return The number of components.
+   */
+  static int labelSquares(final Board board) {
+    int components = 0;
+    final Deque<Square> queue = new ArrayDeque<>();
+    for (int x = 0; x < board.getWidth(); x++) {
+      for (int y = 0; y < board.getHeight(); y++) {
+        final Square start = board.squareAt(x, y);
+        if (start.getComponent() != NONE || BoardFactory.isWall(start)) {
+          continue;
+        }
+        components++;
+        start.setComponent(components);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+          final Square square = queue.remove();
+          for (final Direction direction : Direction.values()) {
+            final Square next = square.getSquareAt(direction);
+            if (next.getComponent() == NONE && !BoardFactory.isWall(next)) {
+              next.setComponent(components);
+              queue.add(next);
+            }
+          }
+        }
+      }
+    }
+    return components;
+  }
+
+  /**
+   * @param from A square.
+   * @param to Another square.
+   * @return <code>false</code> iff both squares are labelled and lie in different components, so
+   * that no path between them exists. Unlabelled squares may or may not be connected.
+   */
+  public static boolean mayConnect(final Square from, final Square to) {
+    final int a = from.getComponent();
+    final int b = to.getComponent();
+    return a == NONE || b == NONE || a == b;
+  }
+}
@@ -0,0 +1,651 @@
+package jpacman.engine.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The junctions of a board and the corridors between them. Junctions are the squares with more
+ * or fewer than two neighbours that are not walls, which are the intersections and the dead ends.
+ * Every other square lies in a corridor, which leads from one junction to another without any
+ * choice on the way. Searching the junctions instead of the squares skips the corridors, which
+ * make up most of a maze.
+ *
+ * <p>
+ * The graph does not refer to any squares, it only knows the directions of the corridors, so
+ * copies of a board share the graph of the original. A corridor that loops back without any
+ * junction gets one of its squares as an extra junction.
+ * </p>
+ */
+public final class JunctionGraph {
+
+  /**
+   * The corridors leaving each junction.
+   */
+  private final List<List<Corridor>> junctions = new ArrayList<>();
+
+  /**
+   * The squares of the junctions, while deriving the graph.
+   */
+  private final List<Square> squares = new ArrayList<>();
+
+  private JunctionGraph() {
+  }
+
+  /**
+   * Derives the junction graph of a board and links the squares that are not walls to it.
+   *
+   * @param board The board.
+   * @return The graph.
+   */
+  static JunctionGraph derive(final Board board) {
+    final JunctionGraph graph = new JunctionGraph();
+    final Map<Square, Integer> nodes = new IdentityHashMap<>();
+    for (int x = 0; x < board.getWidth(); x++) {
+      for (int y = 0; y < board.getHeight(); y++) {
+        final Square square = board.squareAt(x, y);
+        if (!BoardFactory.isWall(square) && exits(square) != 2) {
+          graph.addJunction(square, nodes);
+        }
+      }
+    }
+    for (int node = 0; node < graph.junctions.size(); node++) {
+      graph.addCorridors(node, nodes);
+    }
+
+    // the squares left over lie on loops without any junction
+    for (int x = 0; x < board.getWidth(); x++) {
+      for (int y = 0; y < board.getHeight(); y++) {
+        final Square square = board.squareAt(x, y);
+        if (!BoardFactory.isWall(square) && square.getPlace() == null) {
+          graph.addCorridors(graph.addJunction(square, nodes), nodes);
+        }
+      }
+    }
+    graph.squares.clear();
+    return graph;
+  }
+
+  /**
+   * @param square A square.
+   * @return The junction graph the square is linked to, or <code>null</code> if it has none.
+   */
+  public static JunctionGraph of(final Square square) {
+    final Place place = square.getPlace();
+    return place == null ? null : place.graph;
+  }
+
+  /**
+   * @return The number of junctions.
+   */
+  public int size() {
+    return this.junctions.size();
+  }
+
+  /**
+   * Calculates a shortest path between two squares that are not walls, searching from junction
+   * to junction. The path may start and end in the middle of a corridor.
+   *
+   * @param from The starting square, linked to this graph.
+   * @param to The destination, linked to this graph.
+   * @return The shortest path, or <code>null</code> if the destination cannot be reached.
+   */
+  public List<Direction> shortestPath(final Square from, final Square to) {
+    return search(from, to, null);
+  }
+
+  /**
+   * Calculates the first step of a shortest path between two squares that are not walls, like
+   * {@link #shortestPath(Square, Square)}, without building the path. The search keeps the first
+   * step along with the distance of every junction and stops as soon as no shorter path is left.
+   *
+   * @param from The starting square, linked to this graph.
+   * @param to The destination, linked to this graph.
+   * @return The first step towards the destination, or <code>null</code> if it cannot be reached
+   * or is the starting square.
+   */
+  public Direction firstStep(final Square from, final Square to) {
+    final Place start = from.getPlace();
+    final Place end = to.getPlace();
+    assert start != null && start.graph == this && end != null && end.graph == this;
+    if (start == end) {
+      return null;
+    }
+
+    int best = Integer.MAX_VALUE;
+    Direction bestStep = null;
+    if (start.corridor != null && start.corridor == end.corridor) {
+      best = Math.abs(end.index - start.index);
+      bestStep = start.corridor.step(start.index, end.index);
+    }
+
+    final int size = this.junctions.size();
+    final int[] distance = new int[size];
+    final Direction[] first = new Direction[size];
+    Arrays.fill(distance, Integer.MAX_VALUE);
+    final PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    if (start.corridor == null) {
+      distance[start.index] = 0;
+      queue.add(new long[] {0L, start.index});
+    } else {
+      final Corridor corridor = start.corridor;
+      final int at = start.index;
+      reach(queue, distance, first, corridor.from, at, corridor.step(at, 0));
+      reach(queue, distance, first, corridor.to, corridor.length() - at,
+          corridor.step(at, corridor.length()));
+    }
+
+    while (!queue.isEmpty()) {
+      final long[] head = queue.poll();
+      final int node = (int) head[1];
+      final int cost = distance[node];
+      if (head[0] != cost) {
+        continue;
+      }
+      if (cost >= best) {
+        break;
+      }
+      if (end.corridor == null) {
+        if (node == end.index) {
+          best = cost;
+          bestStep = first[node];
+        }
+      } else {
+        final Corridor corridor = end.corridor;
+        if (node == corridor.from && cost + end.index < best) {
+          best = cost + end.index;
+          bestStep = first[node] == null ? corridor.step(0, end.index) : first[node];
+        }
+        if (node == corridor.to && cost + corridor.length() - end.index < best) {
+          best = cost + corridor.length() - end.index;
+          bestStep = first[node] == null ? corridor.step(corridor.length(), end.index)
+              : first[node];
+        }
+      }
+      for (final Corridor corridor : this.junctions.get(node)) {
+        reach(queue, distance, first, corridor.to, cost + corridor.length(),
+            first[node] == null ? corridor.steps[0] : first[node]);
+      }
+    }
+    return bestStep;
+  }
+
+  /**
+   * Lets the search of {@link #firstStep(Square, Square)} reach a junction, unless it was
+   * reached on a shorter way before.
+   *
+   * @param queue The junctions to expand, by distance.
+   * @param distance The shortest distances found so far.
+   * @param first The first steps of the shortest ways found so far.
+   * @param node The junction reached.
+   * @param cost The distance of the junction on this way.
+   * @param step The first step of this way.
+   */
+  private static void reach(final PriorityQueue<long[]> queue, final int[] distance,
+      final Direction[] first, final int node, final int cost, final Direction step) {
+    if (cost < distance[node]) {
+      distance[node] = cost;
+      first[node] = step;
+      queue.add(new long[] {cost, node});
+    }
+  }
+
+  /**
+   * @return A new search that learns from its earlier searches, see {@link Tracker}.
+   */
+  public Tracker newTracker() {
+    return new Tracker();
+  }
+
+  /**
+   * Searches a shortest path, with an A* search if a tracker provides estimates of the distances
+   * to the destination.
+   *
+   * @param from The starting square, linked to this graph.
+   * @param to The destination, linked to this graph.
+   * @param tracker The tracker of the search, or <code>null</code> to search without estimates.
+   * @return The shortest path, or <code>null</code> if the destination cannot be reached.
+   */
+  private List<Direction> search(final Square from, final Square to, final Tracker tracker) {
+    final Place start = from.getPlace();
+    final Place end = to.getPlace();
+    assert start != null && start.graph == this && end != null && end.graph == this;
+
+    final List<Leg> sources = legs(start, true);
+    final List<Leg> targets = legs(end, false);
+    if (tracker != null) {
+      tracker.begin(end, targets);
+    }
+
+    int best = Integer.MAX_VALUE;
+    List<Direction> bestPath = null;
+    if (start.corridor != null && start.corridor == end.corridor) {
+      best = Math.abs(end.index - start.index);
+      bestPath = start.corridor.walk(start.index, end.index);
+    }
+
+    final int size = this.junctions.size();
+    final int[] distance = new int[size];
+    final Corridor[] via = new Corridor[size];
+    final Leg[] entry = new Leg[size];
+    final List<Integer> expanded = new ArrayList<>();
+    Arrays.fill(distance, Integer.MAX_VALUE);
+    final PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    for (final Leg source : sources) {
+      if (source.cost < distance[source.node]) {
+        distance[source.node] = source.cost;
+        entry[source.node] = source;
+        queue.add(new long[] {source.cost + estimate(tracker, source.node), source.node});
+      }
+    }
+
+    int reached = -1;
+    Leg exit = null;
+    while (!queue.isEmpty()) {
+      final long[] head = queue.poll();
+      final int node = (int) head[1];
+      final int cost = distance[node];
+      if (head[0] != cost + estimate(tracker, node)) {
+        continue;
+      }
+      if (head[0] >= best) {
+        break;
+      }
+      expanded.add(node);
+      for (final Leg target : targets) {
+        if (target.node == node && cost + target.cost < best) {
+          best = cost + target.cost;
+          reached = node;
+          exit = target;
+        }
+      }
+      for (final Corridor corridor : this.junctions.get(node)) {
+        final int next = cost + corridor.length();
+        if (next < distance[corridor.to]) {
+          distance[corridor.to] = next;
+          via[corridor.to] = corridor;
+          entry[corridor.to] = null;
+          queue.add(new long[] {next + estimate(tracker, corridor.to), corridor.to});
+        }
+      }
+    }
+
+    if (tracker != null && best != Integer.MAX_VALUE) {
+      tracker.learn(expanded, distance, best);
+    }
+    if (reached < 0) {
+      return bestPath;
+    }
+    final List<List<Direction>> parts = new ArrayList<>();
+    parts.add(exit.directions);
+    int node = reached;
+    while (entry[node] == null) {
+      parts.add(via[node].walk(0, via[node].length()));
+      node = via[node].from;
+    }
+    parts.add(entry[node].directions);
+    final List<Direction> path = new ArrayList<>(best);
+    for (int i = parts.size() - 1; i >= 0; i--) {
+      path.addAll(parts.get(i));
+    }
+    return path;
+  }
+
+  /**
+   * @param tracker The tracker of the search, or <code>null</code>.
+   * @param node A junction.
+   * @return The estimated distance from the junction to the destination of the search.
+   */
+  private static int estimate(final Tracker tracker, final int node) {
+    return tracker == null ? 0 : tracker.estimate(node);
+  }
+
+  /**
+   * @param place The place of a square.
+   * @param leaving <code>true</code> for the ways from the square to the junctions,
+   * <code>false</code> for the ways from the junctions to the square.
+   * @return The ways between the square and the nearest junctions.
+   */
+  private static List<Leg> legs(final Place place, final boolean leaving) {
+    final List<Leg> legs = new ArrayList<>(2);
+    if (place.corridor == null) {
+      legs.add(new Leg(place.index, 0, new ArrayList<Direction>()));
+      return legs;
+    }
+    final Corridor corridor = place.corridor;
+    final int at = place.index;
+    final int length = corridor.length();
+    if (leaving) {
+      legs.add(new Leg(corridor.from, at, corridor.walk(at, 0)));
+      legs.add(new Leg(corridor.to, length - at, corridor.walk(at, length)));
+    } else {
+      legs.add(new Leg(corridor.from, at, corridor.walk(0, at)));
+      legs.add(new Leg(corridor.to, length - at, corridor.walk(length, at)));
+    }
+    return legs;
+  }
+
+  /**
+   * @param square A square that is not a wall.
+   * @return The number of neighbours of the square that are not walls.
+   */
+  private static int exits(final Square square) {
+    int exits = 0;
+    for (final Direction direction : Direction.values()) {
+      if (!BoardFactory.isWall(square.getSquareAt(direction))) {
+        exits++;
+      }
+    }
+    return exits;
+  }
+
+  /**
+   * @param square The square of the new junction.
+   * @param nodes The junctions so far.
+   * @return The number of the new junction.
+   */
+  private int addJunction(final Square square, final Map<Square, Integer> nodes) {
+    final int node = this.junctions.size();
+    this.junctions.add(new ArrayList<Corridor>());
+    this.squares.add(square);
+    nodes.put(square, node);
+    square.setPlace(new Place(this, null, node));
+    return node;
+  }
+
+  /**
+   * Follows the corridors leaving a junction, linking the squares on the way to them.
+   *
+   * @param node The junction.
+   * @param nodes All junctions.
+   */
+  private void addCorridors(final int node, final Map<Square, Integer> nodes) {
+    final Square junction = this.squares.get(node);
+    for (final Direction first : Direction.values()) {
+      final List<Direction> directions = new ArrayList<>();
+      final List<Square> squares = new ArrayList<>();
+      Direction direction = first;
+      Square square = junction.getSquareAt(direction);
+      while (!BoardFactory.isWall(square) && !nodes.containsKey(square)) {
+        directions.add(direction);
+        squares.add(square);
+        direction = onwards(square, direction);
+        square = square.getSquareAt(direction);
+      }
+      if (BoardFactory.isWall(square)) {
+        continue;
+      }
+      directions.add(direction);
+
+      final Corridor corridor = new Corridor(node, nodes.get(square),
+          directions.toArray(new Direction[directions.size()]));
+      this.junctions.get(node).add(corridor);
+      for (int i = 0; i < squares.size(); i++) {
+        if (squares.get(i).getPlace() == null) {
+          squares.get(i).setPlace(new Place(this, corridor, i + 1));
+        }
+      }
+    }
+  }
+
+  /**
+   * @param square A square in a corridor.
+   * @param arrival The direction in which the square was entered.
+   * @return The direction in which the corridor continues.
+   */
+  private static Direction onwards(final Square square, final Direction arrival) {
+    for (final Direction direction : Direction.values()) {
+      if (direction != arrival.opposite()
+          && !BoardFactory.isWall(square.getSquareAt(direction))) {
+        return direction;
+      }
+    }
+    throw new IllegalStateException("A corridor square has two ways out.");
+  }
+
+  /**
+   * A search that keeps what it learned about the distances to its destination between calls,
+   * after Generalized Adaptive A*. After every search, each junction it expanded learns its exact
+   * distance to the destination, which guides the next search. When the destination moves, all
+   * estimates are lowered just enough to stay consistent, so a target that only moves a little
+   * keeps most of them useful. Searching from a new start needs no repair at all.
+   *
+   * <p>
+   * A tracker only depends on the graph, so it can be reused for copies of a board. It is not
+   * thread-safe; give every searcher its own.
+   * </p>
+   */
+  public final class Tracker {
+
+    /**
+     * The estimated distances of the junctions to the destination, valid as of the search in
+     * {@link #updated}.
+     */
+    private final int[] estimates = new int[JunctionGraph.this.junctions.size()];
+
+    /**
+     * The search in which each estimate was last updated, or 0 if it never was.
+     */
+    private final int[] updated = new int[this.estimates.length];
+
+    /**
+     * The sum of the corrections for moving destinations, for each search.
+     */
+    private int[] corrections = new int[] {0, 0};
+
+    private int searches;
+    private Place destination;
+
+    /**
+     * The last path found, or <code>null</code>.
+     */
+    private List<Direction> lastPath;
+
+    /**
+     * The places of the squares along the last path, from its start to its destination.
+     */
+    private final List<Place> lastPlaces = new ArrayList<>();
+
+    private Tracker() {
+    }
+
+    /**
+     * Calculates a shortest path, reusing what earlier searches of this tracker learned. When the
+     * destination is the same as the last time and the start lies on the last path, for instance
+     * because the searcher followed it, the rest of that path is returned without searching.
+     *
+     * @param from The starting square, linked to the graph.
+     * @param to The destination, linked to the graph.
+     * @return The shortest path, or <code>null</code> if the destination cannot be reached.
+     */
+    public List<Direction> shortestPath(final Square from, final Square to) {
+      final Place start = from.getPlace();
+      if (this.lastPath != null && to.getPlace() == this.destination) {
+        final int index = this.lastPlaces.indexOf(start);
+        if (index >= 0) {
+          return new ArrayList<>(this.lastPath.subList(index, this.lastPath.size()));
+        }
+      }
+
+      final List<Direction> path = search(from, to, this);
+      this.lastPath = path;
+      this.lastPlaces.clear();
+      if (path != null) {
+        Square square = from;
+        this.lastPlaces.add(start);
+        for (final Direction direction : path) {
+          square = square.getSquareAt(direction);
+          this.lastPlaces.add(square.getPlace());
+        }
+        this.lastPath = new ArrayList<>(path);
+      }
+      return path;
+    }
+
+    /**
+     * Starts a new search, correcting the estimates if the destination moved.
+     *
+     * @param end The destination.
+     * @param targets The ways from the junctions to the destination.
+     */
+    private void begin(final Place end, final List<Leg> targets) {
+      int correction = 0;
+      if (this.destination != null && this.destination != end) {
+        // every estimate drops by as much as the new destination may be closer to a junction
+        for (final Leg target : targets) {
+          correction = Math.max(correction, estimate(target.node) - target.cost);
+        }
+      }
+      this.searches++;
+      if (this.searches + 1 > this.corrections.length) {
+        this.corrections = Arrays.copyOf(this.corrections, 2 * this.corrections.length);
+      }
+      this.corrections[this.searches] = this.corrections[this.searches - 1] + correction;
+      this.destination = end;
+    }
+
+    /**
+     * @param node A junction.
+     * @return The estimated distance of the junction to the destination of the current search.
+     */
+    private int estimate(final int node) {
+      final int last = this.updated[node];
+      if (last == 0) {
+        return 0;
+      }
+      if (last != this.searches) {
+        this.estimates[node] = Math.max(0, this.estimates[node]
+            - (this.corrections[this.searches] - this.corrections[last]));
+        this.updated[node] = this.searches;
+      }
+      return this.estimates[node];
+    }
+
+    /**
+     * Learns the distances to the destination from a finished search.
+     *
+     * @param expanded The junctions that were expanded.
+     * @param distances The distances of the junctions from the start.
+     * @param length The length of the shortest path.
+     */
+    private void learn(final List<Integer> expanded, final int[] distances, final int length) {
+      for (final int node : expanded) {
+        this.estimates[node] = length - distances[node];
+        this.updated[node] = this.searches;
+      }
+    }
+  }
+
+  /**
+   * Where a square that is not a wall lies in the graph.
+   */
+  static final class Place {
+
+    private final JunctionGraph graph;
+
+    /**
+     * The corridor of the square, or <code>null</code> if the square is a junction.
+     */
+    private final Corridor corridor;
+
+    /**
+     * The number of steps from the start of the corridor, or the number of the junction.
+     */
+    private final int index;
+
+    /**
+     * @param graph The graph.
+     * @param corridor The corridor of the square, or <code>null</code> for a junction.
+     * @param index The steps from the start of the corridor, or the number of the junction.
+     */
+    Place(final JunctionGraph graph, final Corridor corridor, final int index) {
+      this.graph = graph;
+      this.corridor = corridor;
+      this.index = index;
+    }
+  }
+
+  /**
+   * A way from one junction to the next.
+   */
+  private static final class Corridor {
+
+    private final int from;
+    private final int to;
+
+    /**
+     * The steps from the first junction to the second.
+     */
+    private final Direction[] steps;
+
+    /**
+     * @param from The first junction.
+     * @param to The second junction.
+     * @param steps The steps from the first junction to the second.
+     */
+    Corridor(final int from, final int to, final Direction[] steps) {
+      this.from = from;
+      this.to = to;
+      this.steps = steps;
+    }
+
+    /**
+     * @return The number of steps from one junction to the other.
+     */
+    int length() {
+      return this.steps.length;
+    }
+
+    /**
+     * @param start The position to start from, in steps from the first junction.
+     * @param end The position to go to, in steps from the first junction.
+     * @return The steps from the start to the end, which go back if the end comes first.
+     */
+    List<Direction> walk(final int start, final int end) {
+      final List<Direction> path = new ArrayList<>(Math.abs(end - start));
+      for (int i = start; i < end; i++) {
+        path.add(this.steps[i]);
+      }
+      for (int i = start - 1; i >= end; i--) {
+        path.add(this.steps[i].opposite());
+      }
+      return path;
+    }
+
+    /**
+     * @param start The position to start from, in steps from the first junction.
+     * @param end Another position to go to, in steps from the first junction.
+     * @return The first step of {@link #walk(int, int)}.
+     */
+    Direction step(final int start, final int end) {
+      if (end > start) {
+        return this.steps[start];
+      }
+      return this.steps[start - 1].opposite();
+    }
+  }
+
+  /**
+   * A way between a square and a junction.
+   */
+  private static final class Leg {
+
+    private final int node;
+    private final int cost;
+    private final List<Direction> directions;
+
+    /**
+     * @param node The junction.
+     * @param cost The number of steps.
+     * @param directions The steps.
+     */
+    Leg(final int node, final int cost, final List<Direction> directions) {
+      this.node = node;
+      this.cost = cost;
+      this.directions = directions;
+    }
+  }
+}
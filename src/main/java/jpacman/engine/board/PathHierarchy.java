@@ -0,0 +1,526 @@
+package jpacman.engine.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A hierarchical path finder for the cells of a {@link CellBoard}, after HPA*. The board is cut
+ * into square clusters. Where a corridor crosses the border of two clusters, a pair of entrances
+ * is placed, and the distances between the entrances of each cluster are computed up front. A
+ * search then only looks at the cells of the clusters of its start and destination, and at the
+ * entrances in between, so its cost hardly depends on the size of the board.
+ *
+ * <p>
+ * The paths found are close to, but not always exactly, the shortest ones: a path always passes
+ * the entrances, which lie in the middle of their stretch of border. Only the leg of the path
+ * within a cluster that is actually needed is worked out square by square, see
+ * {@link #firstStep(Square, Square)}.
+ * </p>
+ */
+public final class PathHierarchy {
+
+  /**
+   * The default width and height of a cluster, in cells.
+   */
+  public static final int CLUSTER_SIZE = 16;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final CellStore cells;
+  private final int width;
+  private final int height;
+  private final int clusterSize;
+  private final int columns;
+
+  /**
+   * The entrances, by cell number.
+   */
+  private final Map<Integer, Entrance> entrances = new HashMap<>();
+
+  /**
+   * The entrances of each cluster, or <code>null</code> for clusters without any.
+   */
+  private final List<List<Entrance>> clusters;
+
+  /**
+   * Creates the hierarchy of a store of cells.
+   *
+   * @param cells The cells, of which the walls must not change anymore.
+   * @param clusterSize The width and height of a cluster, in cells.
+   */
+  PathHierarchy(final CellStore cells, final int clusterSize) {
+    this.cells = cells;
+    this.width = cells.getWidth();
+    this.height = cells.getHeight();
+    this.clusterSize = clusterSize;
+    this.columns = (this.width + clusterSize - 1) / clusterSize;
+    final int rows = (this.height + clusterSize - 1) / clusterSize;
+    this.clusters = new ArrayList<>(
+        Collections.nCopies(this.columns * rows, (List<Entrance>) null));
+
+    for (int k = 1; k < this.columns; k++) {
+      addEntrances(k * clusterSize - 1, true);
+    }
+    if (this.columns > 1) {
+      addEntrances(this.width - 1, true);
+    }
+    for (int k = 1; k < rows; k++) {
+      addEntrances(k * clusterSize - 1, false);
+    }
+    if (rows > 1) {
+      addEntrances(this.height - 1, false);
+    }
+
+    for (final List<Entrance> cluster : this.clusters) {
+      if (cluster == null) {
+        continue;
+      }
+      for (final Entrance entrance : cluster) {
+        final Search search = new Search(entrance.cell);
+        for (final Entrance other : cluster) {
+          final int distance = search.distance(other.cell);
+          if (other != entrance && distance >= 0) {
+            entrance.link(other, distance);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @param square A square.
+   * @return The hierarchy of the board of the square, or <code>null</code> if it has none.
+   */
+  public static PathHierarchy of(final Square square) {
+    if (square instanceof CellBoard.CellSquare) {
+      return ((CellBoard.CellSquare) square).getBoard().getHierarchy();
+    }
+    return null;
+  }
+
+  /**
+   * @return The number of entrances between the clusters.
+   */
+  public int size() {
+    return this.entrances.size();
+  }
+
+  /**
+   * Calculates a path between two squares of the board.
+   *
+   * @param from The starting square.
+   * @param to The destination.
+   * @return A short path to the destination, or <code>null</code> if it cannot be reached.
+   */
+  public List<Direction> shortestPath(final Square from, final Square to) {
+    final List<Integer> route = route(cell(from), cell(to));
+    if (route == null) {
+      return null;
+    }
+    final List<Direction> path = new ArrayList<>();
+    for (int i = 1; i < route.size(); i++) {
+      path.addAll(refine(route.get(i - 1), route.get(i)));
+    }
+    return path;
+  }
+
+  /**
+   * Calculates the first step of a path between two squares, working out only the first leg of
+   * the path square by square.
+   *
+   * @param from The starting square.
+   * @param to The destination.
+   * @return The first step towards the destination, or <code>null</code> if it cannot be reached
+   * or is the starting square.
+   */
+  public Direction firstStep(final Square from, final Square to) {
+    final List<Integer> route = route(cell(from), cell(to));
+    if (route == null) {
+      return null;
+    }
+    for (int i = 1; i < route.size(); i++) {
+      final List<Direction> leg = refine(route.get(i - 1), route.get(i));
+      if (!leg.isEmpty()) {
+        return leg.get(0);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Searches the entrances for a route between two cells.
+   *
+   * @param from The starting cell.
+   * @param to The destination cell.
+   * @return The cells of the route, starting with the start and ending with the destination, of
+   * which every two subsequent cells are neighbours or lie in the same cluster, or
+   * <code>null</code> if there is no route.
+   */
+  private List<Integer> route(final int from, final int to) {
+    final Search start = new Search(from);
+    if (from == to || start.distance(to) >= 0) {
+      return Arrays.asList(from, to);
+    }
+    final Search goal = new Search(to);
+    final List<Entrance> exits = entrancesOf(cluster(to));
+
+    final int[] cost = new int[this.entrances.size()];
+    final Entrance[] previous = new Entrance[cost.length];
+    Arrays.fill(cost, Integer.MAX_VALUE);
+    final PriorityQueue<Step> queue = new PriorityQueue<>();
+    for (final Entrance entrance : entrancesOf(cluster(from))) {
+      final int distance = start.distance(entrance.cell);
+      if (distance >= 0) {
+        cost[entrance.id] = distance;
+        queue.add(new Step(entrance, distance, distance + estimate(entrance.cell, to)));
+      }
+    }
+
+    while (!queue.isEmpty()) {
+      final Step step = queue.poll();
+      if (step.entrance == null) {
+        return trace(from, to, step.previous, previous);
+      }
+      if (step.cost != cost[step.entrance.id]) {
+        continue;
+      }
+      if (exits.contains(step.entrance)) {
+        final int distance = goal.distance(step.entrance.cell);
+        if (distance >= 0) {
+          final Step last = new Step(null, step.cost + distance, step.cost + distance);
+          last.previous = step.entrance;
+          queue.add(last);
+        }
+      }
+      final Entrance entrance = step.entrance;
+      for (int i = 0; i < entrance.degree; i++) {
+        final Entrance other = entrance.targets[i];
+        final int next = step.cost + entrance.lengths[i];
+        if (next < cost[other.id]) {
+          cost[other.id] = next;
+          previous[other.id] = entrance;
+          queue.add(new Step(other, next, next + estimate(other.cell, to)));
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param from The starting cell.
+   * @param to The destination cell.
+   * @param last The last entrance before the destination.
+   * @param previous The entrance before each entrance on the route.
+   * @return The cells of the route.
+   */
+  private static List<Integer> trace(final int from, final int to, final Entrance last,
+      final Entrance[] previous) {
+    final List<Integer> route = new ArrayList<>();
+    route.add(to);
+    for (Entrance e = last; e != null; e = previous[e.id]) {
+      route.add(e.cell);
+    }
+    route.add(from);
+    Collections.reverse(route);
+    return route;
+  }
+
+  /**
+   * @param from A cell.
+   * @param to A neighbouring cell, or a cell in the same cluster.
+   * @return The steps from the first cell to the second.
+   */
+  private List<Direction> refine(final int from, final int to) {
+    if (from == to) {
+      return new ArrayList<>();
+    }
+    if (cluster(from) != cluster(to)) {
+      for (final Direction direction : DIRECTIONS) {
+        if (neighbour(from, direction) == to) {
+          return new ArrayList<>(Collections.singletonList(direction));
+        }
+      }
+      throw new IllegalStateException("Entrances must be neighbours.");
+    }
+    return new Search(from).path(to);
+  }
+
+  /**
+   * Adds the entrances across the border between a column or row of cells and the next one. An
+   * entrance is placed in the middle of every stretch of open cells on both sides that lies
+   * within one pair of clusters.
+   *
+   * @param line The column or row before the border.
+   * @param vertical <code>true</code> for a border between columns.
+   */
+  private void addEntrances(final int line, final boolean vertical) {
+    final int length = vertical ? this.height : this.width;
+    final int next = (line + 1) % (vertical ? this.width : this.height);
+    int start = -1;
+    for (int i = 0; i <= length; i++) {
+      final boolean open = i < length && isOpen(vertical, line, i) && isOpen(vertical, next, i);
+      if (start >= 0 && (!open || i % this.clusterSize == 0)) {
+        final int middle = (start + i - 1) / 2;
+        connect(vertical ? index(line, middle) : index(middle, line),
+            vertical ? index(next, middle) : index(middle, next));
+        start = -1;
+      }
+      if (open && start < 0) {
+        start = i;
+      }
+    }
+  }
+
+  /**
+   * @param vertical <code>true</code> if the line is a column.
+   * @param line The column or row.
+   * @param i The position along the line.
+   * @return <code>true</code> iff the cell is not a wall.
+   */
+  private boolean isOpen(final boolean vertical, final int line, final int i) {
+    return vertical ? !this.cells.is(line, i, CellStore.WALL)
+        : !this.cells.is(i, line, CellStore.WALL);
+  }
+
+  /**
+   * Adds a pair of entrances on either side of a border.
+   *
+   * @param a A cell on one side.
+   * @param b Its neighbour on the other side.
+   */
+  private void connect(final int a, final int b) {
+    final Entrance first = entrance(a);
+    final Entrance second = entrance(b);
+    first.link(second, 1);
+    second.link(first, 1);
+  }
+
+  /**
+   * @param cell A cell.
+   * @return The entrance at the cell, which is added if it did not exist yet.
+   */
+  private Entrance entrance(final int cell) {
+    Entrance entrance = this.entrances.get(cell);
+    if (entrance == null) {
+      entrance = new Entrance(this.entrances.size(), cell);
+      this.entrances.put(cell, entrance);
+      final int cluster = cluster(cell);
+      if (this.clusters.get(cluster) == null) {
+        this.clusters.set(cluster, new ArrayList<Entrance>());
+      }
+      this.clusters.get(cluster).add(entrance);
+    }
+    return entrance;
+  }
+
+  /**
+   * @param cluster A cluster.
+   * @return The entrances of the cluster.
+   */
+  private List<Entrance> entrancesOf(final int cluster) {
+    final List<Entrance> result = this.clusters.get(cluster);
+    return result == null ? Collections.<Entrance>emptyList() : result;
+  }
+
+  /**
+   * @param from A cell.
+   * @param to Another cell.
+   * @return The number of steps between the cells if there were no walls.
+   */
+  private int estimate(final int from, final int to) {
+    final int dx = Math.abs(from % this.width - to % this.width);
+    final int dy = Math.abs(from / this.width - to / this.width);
+    return Math.min(dx, this.width - dx) + Math.min(dy, this.height - dy);
+  }
+
+  /**
+   * @param square A square of the board.
+   * @return The number of its cell.
+   */
+  private int cell(final Square square) {
+    final CellBoard.CellSquare cell = (CellBoard.CellSquare) square;
+    return index(cell.getX(), cell.getY());
+  }
+
+  /**
+   * @param x A column.
+   * @param y A row.
+   * @return The number of the cell.
+   */
+  private int index(final int x, final int y) {
+    return y * this.width + x;
+  }
+
+  /**
+   * @param cell A cell.
+   * @return The number of the cluster of the cell.
+   */
+  private int cluster(final int cell) {
+    return cell / this.width / this.clusterSize * this.columns
+        + cell % this.width / this.clusterSize;
+  }
+
+  /**
+   * @param cell A cell.
+   * @param direction A direction.
+   * @return The neighbouring cell in the direction, wrapping around the edges of the board.
+   */
+  private int neighbour(final int cell, final Direction direction) {
+    final int x = (this.width + cell % this.width + direction.getDeltaX()) % this.width;
+    final int y = (this.height + cell / this.width + direction.getDeltaY()) % this.height;
+    return index(x, y);
+  }
+
+  /**
+   * A breadth first search of the open cells of one cluster.
+   */
+  private final class Search {
+
+    private final int cluster;
+    private final int originX;
+    private final int originY;
+    private final int[] distances;
+    private final byte[] arrivals;
+
+    /**
+     * Searches the cluster of a cell, starting at that cell.
+     *
+     * @param start The cell to start from.
+     */
+    Search(final int start) {
+      this.cluster = cluster(start);
+      final int size = PathHierarchy.this.clusterSize;
+      this.originX = start % PathHierarchy.this.width / size * size;
+      this.originY = start / PathHierarchy.this.width / size * size;
+      this.distances = new int[size * size];
+      this.arrivals = new byte[size * size];
+      Arrays.fill(this.distances, -1);
+
+      final int[] queue = new int[size * size];
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      this.distances[local(start)] = 0;
+      while (head < tail) {
+        final int cell = queue[head++];
+        for (final Direction direction : DIRECTIONS) {
+          final int next = neighbour(cell, direction);
+          if (cluster(next) == this.cluster && this.distances[local(next)] < 0
+              && !PathHierarchy.this.cells.is(next % PathHierarchy.this.width,
+                  next / PathHierarchy.this.width, CellStore.WALL)) {
+            this.distances[local(next)] = this.distances[local(cell)] + 1;
+            this.arrivals[local(next)] = (byte) direction.ordinal();
+            queue[tail++] = next;
+          }
+        }
+      }
+    }
+
+    /**
+     * @param cell A cell.
+     * @return The number of steps from the start to the cell within the cluster, or -1 if it
+     * cannot be reached that way.
+     */
+    int distance(final int cell) {
+      return cluster(cell) == this.cluster ? this.distances[local(cell)] : -1;
+    }
+
+    /**
+     * @param cell A cell that can be reached.
+     * @return The steps from the start to the cell.
+     */
+    List<Direction> path(final int cell) {
+      final Direction[] steps = new Direction[distance(cell)];
+      int current = cell;
+      for (int i = steps.length - 1; i >= 0; i--) {
+        steps[i] = DIRECTIONS[this.arrivals[local(current)]];
+        current = neighbour(current, steps[i].opposite());
+      }
+      return new ArrayList<>(Arrays.asList(steps));
+    }
+
+    /**
+     * @param cell A cell of the cluster.
+     * @return The index of the cell within the cluster.
+     */
+    private int local(final int cell) {
+      return (cell / PathHierarchy.this.width - this.originY) * PathHierarchy.this.clusterSize
+          + cell % PathHierarchy.this.width - this.originX;
+    }
+  }
+
+  /**
+   * A cell next to the border of its cluster, through which paths leave the cluster.
+   */
+  private static final class Entrance {
+
+    private final int id;
+    private final int cell;
+
+    /**
+     * The entrances that can be reached, with their distances in {@link #lengths}.
+     */
+    private Entrance[] targets = new Entrance[2];
+    private int[] lengths = new int[2];
+    private int degree;
+
+    /**
+     * @param id The number of the entrance.
+     * @param cell The cell of the entrance.
+     */
+    Entrance(final int id, final int cell) {
+      this.id = id;
+      this.cell = cell;
+    }
+
+    /**
+     * @param other An entrance that can be reached.
+     * @param distance The distance to it.
+     */
+    void link(final Entrance other, final int distance) {
+      if (this.degree == this.targets.length) {
+        this.targets = Arrays.copyOf(this.targets, 2 * this.degree);
+        this.lengths = Arrays.copyOf(this.lengths, 2 * this.degree);
+      }
+      this.targets[this.degree] = other;
+      this.lengths[this.degree] = distance;
+      this.degree++;
+    }
+  }
+
+  /**
+   * An entrance in the queue of a search, or the destination if it has no entrance.
+   */
+  private static final class Step implements Comparable<Step> {
+
+    private final Entrance entrance;
+    private final int cost;
+    private final int estimate;
+
+    /**
+     * The last entrance before the destination.
+     */
+    private Entrance previous;
+
+    /**
+     * @param entrance The entrance, or <code>null</code> for the destination.
+     * @param cost The length of the route to it.
+     * @param estimate The estimated length of the route through it.
+     */
+    Step(final Entrance entrance, final int cost, final int estimate) {
+      this.entrance = entrance;
+      this.cost = cost;
+      this.estimate = estimate;
+    }
+
+    @Override
+    public int compareTo(final Step other) {
+      return Integer.compare(this.estimate, other.estimate);
+    }
+  }
+}
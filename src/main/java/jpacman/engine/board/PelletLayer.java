@@ -0,0 +1,144 @@
+package jpacman.engine.board;
+
+import jpacman.engine.sprite.Sprite;
+
+/**
+ * The pellets of a {@link Board}, kept as one bit per square instead of a pellet unit on every
+ * square. Squares are numbered row by row, <code>y * width + x</code>. All pellets of a layer are
+ * worth the same number of points and look the same.
+ *
+ * <p>
+ * The pellets of a layer are not occupants of their squares; ask a square with
+ * {@link Square#hasPellet()} instead.
+ * </p>
+ */
+public final class PelletLayer {
+
+  private final int width;
+  private final int height;
+  private final long[] bits;
+  private final int value;
+  private final Sprite sprite;
+  private int count;
+
+  /**
+   * Creates a layer without any pellets.
+   *
+   * @param width The number of columns.
+   * @param height The number of rows.
+   * @param value The points a pellet is worth.
+   * @param sprite The sprite of a pellet.
+   */
+  public PelletLayer(final int width, final int height, final int value, final Sprite sprite) {
+    this.width = width;
+    this.height = height;
+    this.bits = new long[(int) (((long) width * height + Long.SIZE - 1) / Long.SIZE)];
+    this.value = value;
+    this.sprite = sprite;
+  }
+
+  /**
+   * Creates a copy of a layer.
+   *
+   * @param toCopy The layer to copy.
+   */
+  public PelletLayer(final PelletLayer toCopy) {
+    this.width = toCopy.width;
+    this.height = toCopy.height;
+    this.bits = toCopy.bits.clone();
+    this.value = toCopy.value;
+    this.sprite = toCopy.sprite;
+    this.count = toCopy.count;
+  }
+
+  /**
+   * @return The number of columns.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * @return The number of rows.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * @return The points a pellet is worth.
+   */
+  public int getValue() {
+    return this.value;
+  }
+
+  /**
+   * @return The sprite of a pellet.
+   */
+  public Sprite getSprite() {
+    return this.sprite;
+  }
+
+  /**
+   * @return The number of pellets left.
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return <code>true</code> iff the square holds a pellet.
+   */
+  public boolean has(final int x, final int y) {
+    return has(cell(x, y));
+  }
+
+  /**
+   * Puts a pellet on a square.
+   *
+   * @param x The column.
+   * @param y The row.
+   */
+  public void put(final int x, final int y) {
+    final int cell = cell(x, y);
+    if (!has(cell)) {
+      this.bits[cell / Long.SIZE] |= 1L << (cell % Long.SIZE);
+      this.count++;
+    }
+  }
+
+  /**
+   * @param cell The number of the square.
+   * @return <code>true</code> iff the square holds a pellet.
+   */
+  boolean has(final int cell) {
+    return (this.bits[cell / Long.SIZE] & 1L << (cell % Long.SIZE)) != 0L;
+  }
+
+  /**
+   * Takes the pellet off a square.
+   *
+   * @param cell The number of the square.
+   * @return <code>true</code> iff the square held a pellet.
+   */
+  boolean take(final int cell) {
+    if (!has(cell)) {
+      return false;
+    }
+    this.bits[cell / Long.SIZE] &= ~(1L << (cell % Long.SIZE));
+    this.count--;
+    return true;
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return The number of the square.
+   */
+  int cell(final int x, final int y) {
+    assert x >= 0 && x < this.width && y >= 0 && y < this.height;
+    return y * this.width + x;
+  }
+}
@@ -2,9 +2,7 @@ package jpacman.engine.board;
 
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 import jpacman.engine.sprite.Sprite;
 
 /**
@@ -21,44 +19,135 @@ public abstract class Square {
   private final List<Unit> occupants;
 
   /**
-   * The collection of squares adjacent to this square.
+   * The board this square lies on, or <code>null</code> if it is not on a board yet.
    */
-  private final Map<Direction, Square> neighbours;
+  private Board board;
+
+  /**
+   * The column of this square on its board.
+   */
+  private int x;
+
+  /**
+   * The row of this square on its board.
+   */
+  private int y;
+
+  /**
+   * The connected component of this square, see {@link Components}.
+   */
+  private int component = Components.NONE;
+
+  /**
+   * Where this square lies in the junction graph of its board, see {@link JunctionGraph}.
+   */
+  private JunctionGraph.Place place;
+
+  /**
+   * The pellet layer of the board of this square, or <code>null</code> if it has none.
+   */
+  private PelletLayer pellets;
+
+  /**
+   * The number of this square in its pellet layer.
+   */
+  private int pelletCell;
+
+  /**
+   * The bits of the kinds of the occupants, see {@link UnitKind#getBit()}.
+   */
+  private int kinds;
 
   /**
    * Creates a new, empty square.
    */
   protected Square() {
     this.occupants = new ArrayList<>();
-    this.neighbours = new EnumMap<>(Direction.class);
     assert invariant();
   }
 
   protected Square(final Square toCopy) {
     this.occupants = new ArrayList(toCopy.getOccupants());
-    this.neighbours = new EnumMap<>(toCopy.neighbours);
+    this.component = toCopy.component;
+    this.place = toCopy.place;
+    this.kinds = toCopy.kinds;
   }
 
   /**
-   * Returns the square adjacent to this square.
+   * Returns the square adjacent to this square on its board, wrapping around the edges.
    *
    * @param direction The direction of the adjacent square.
-   * @return The adjacent square in the given direction.
+   * @return The adjacent square in the given direction, or <code>null</code> if this square is not
+   * on a board.
    */
   public Square getSquareAt(final Direction direction) {
-    return this.neighbours.get(direction);
+    final Board onBoard = getBoard();
+    if (onBoard == null) {
+      return null;
+    }
+    return onBoard.squareAt(this, direction.getDeltaX(), direction.getDeltaY());
   }
 
   /**
-   * Links this square to a neighbour in the given direction. Note that this
-   * is a one-way connection.
-   *
-   * @param neighbour The neighbour to link.
-   * @param direction The direction the new neighbour is in, as seen from this cell.
+   * @return The board this square lies on, or <code>null</code> if it is not on a board yet.
    */
-  public void link(final Square neighbour, final Direction direction) {
-    this.neighbours.put(direction, neighbour);
-    assert invariant();
+  public Board getBoard() {
+    return this.board;
+  }
+
+  /**
+   * @return The column of this square on its board.
+   */
+  public int getX() {
+    return this.x;
+  }
+
+  /**
+   * @return The row of this square on its board.
+   */
+  public int getY() {
+    return this.y;
+  }
+
+  /**
+   * @param onBoard The board this square lies on.
+   * @param column The column of this square on the board.
+   * @param row The row of this square on the board.
+   */
+  void setPosition(final Board onBoard, final int column, final int row) {
+    this.board = onBoard;
+    this.x = column;
+    this.y = row;
+  }
+
+  /**
+   * @return The connected component of this square, or {@link Components#NONE} if it is a wall or
+   * its board has not been labelled.
+   */
+  public int getComponent() {
+    return this.component;
+  }
+
+  /**
+   * @param label The connected component of this square.
+   */
+  void setComponent(final int label) {
+    this.component = label;
+  }
+
+  /**
+   * @return Where this square lies in the junction graph of its board, or <code>null</code> if
+   * it is a wall or its board has no graph.
+   */
+  JunctionGraph.Place getPlace() {
+    return this.place;
+  }
+
+  /**
+   * @param place Where this square lies in the junction graph of its board.
+   */
+  void setPlace(final JunctionGraph.Place place) {
+    this.place = place;
   }
 
   /**
@@ -72,6 +161,89 @@ public abstract class Square {
     return ImmutableList.copyOf(this.occupants);
   }
 
+  /**
+   * @return The bits of the kinds of units occupying this square, see {@link UnitKind#getBit()},
+   * which is 0 iff this square has no occupants.
+   */
+  public int getKinds() {
+    return this.kinds;
+  }
+
+  /**
+   * @param kind A kind of unit.
+   * @return <code>true</code> iff a unit of that kind occupies this square.
+   */
+  public boolean holds(final UnitKind kind) {
+    return (this.kinds & kind.getBit()) != 0;
+  }
+
+  /**
+   * @return <code>true</code> iff the pellet layer of the board holds a pellet on this square.
+   * Pellets of a layer are not occupants of the square.
+   */
+  public boolean hasPellet() {
+    return this.pellets != null && this.pellets.has(this.pelletCell);
+  }
+
+  /**
+   * Takes the pellet of the pellet layer off this square.
+   *
+   * @return The points the pellet was worth, or 0 if this square held no pellet.
+   */
+  public int takePellet() {
+    if (this.pellets != null && this.pellets.take(this.pelletCell)) {
+      return this.pellets.getValue();
+    }
+    return 0;
+  }
+
+  /**
+   * @return The pellet layer of the board of this square, or <code>null</code> if it has none.
+   */
+  public PelletLayer getPelletLayer() {
+    return this.pellets;
+  }
+
+  /**
+   * @param layer The pellet layer of the board of this square.
+   * @param cell The number of this square in the layer.
+   */
+  void setPelletLayer(final PelletLayer layer, final int cell) {
+    this.pellets = layer;
+    this.pelletCell = cell;
+  }
+
+  /**
+   * Finds an occupant of a certain type, without copying the list of occupants.
+   *
+   * @param type The type to search for.
+   * @return The oldest occupant of the type, or <code>null</code> if none occupies this square.
+   */
+  public Unit findOccupant(final Class<? extends Unit> type) {
+    return findOccupant(type, null);
+  }
+
+  /**
+   * Finds an occupant of a certain type, without copying the list of occupants. Squares without
+   * an occupant of the kind of the type are skipped without looking at their occupants.
+   *
+   * @param type The type to search for.
+   * @param kind The kind all units of the type belong to, or <code>null</code> if the type covers
+   * more than one kind.
+   * @return The oldest occupant of the type, or <code>null</code> if none occupies this square.
+   */
+  public Unit findOccupant(final Class<? extends Unit> type, final UnitKind kind) {
+    if (kind == null ? this.kinds == 0 : !holds(kind)) {
+      return null;
+    }
+    for (final Unit occupant : this.occupants) {
+      if (type.isInstance(occupant)) {
+        return occupant;
+      }
+    }
+    return null;
+  }
+
   /**
    * Adds a new occupant to this square.
    *
@@ -82,6 +254,7 @@ public abstract class Square {
     assert !this.occupants.contains(occupant);
 
     this.occupants.add(occupant);
+    this.kinds |= UnitKind.of(occupant).getBit();
   }
 
   /**
@@ -91,7 +264,15 @@ public abstract class Square {
    */
   void remove(final Unit occupant) {
     assert occupant != null;
-    this.occupants.remove(occupant);
+    if (this.occupants.remove(occupant)) {
+      final UnitKind kind = UnitKind.of(occupant);
+      for (final Unit other : this.occupants) {
+        if (UnitKind.of(other) == kind) {
+          return;
+        }
+      }
+      this.kinds &= ~kind.getBit();
+    }
   }
 
   /**
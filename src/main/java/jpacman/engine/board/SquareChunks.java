@@ -0,0 +1,90 @@
+package jpacman.engine.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The squares a board has created so far, for boards that only create a square when it is first
+ * asked for. The squares are kept in chunks that are allocated when the first of their squares is
+ * created, so a board of which few squares are used takes little memory.
+ *
+ * <p>
+ * Squares may be created by several threads reading the same board at once: every cell is
+ * published once, and a thread that loses the race for a cell drops its square and gets the one
+ * published first.
+ * </p>
+ */
+final class SquareChunks {
+
+  /**
+   * The number of bits of a cell number addressing a square within its chunk.
+   */
+  private static final int CHUNK_BITS = 12;
+
+  /**
+   * The number of squares in a chunk.
+   */
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<Square>> chunks;
+
+  /**
+   * Creates a store without any squares.
+   *
+   * @param count The number of cells.
+   */
+  SquareChunks(final long count) {
+    this.chunks = new AtomicReferenceArray<>((int) ((count + CHUNK_SIZE - 1) >>> CHUNK_BITS));
+  }
+
+  /**
+   * @param cell The number of a cell.
+   * @return The square of the cell, or <code>null</code> if it has not been created.
+   */
+  Square get(final long cell) {
+    final AtomicReferenceArray<Square> chunk = this.chunks.get((int) (cell >>> CHUNK_BITS));
+    return chunk == null ? null : chunk.get((int) (cell & (CHUNK_SIZE - 1)));
+  }
+
+  /**
+   * Publishes the square of a cell, unless another square was published for it first.
+   *
+   * @param cell The number of a cell.
+   * @param created A new square for the cell.
+   * @return The square of the cell, which is the new square iff none was published before.
+   */
+  Square publish(final long cell, final Square created) {
+    final int index = (int) (cell >>> CHUNK_BITS);
+    final int offset = (int) (cell & (CHUNK_SIZE - 1));
+    AtomicReferenceArray<Square> chunk = this.chunks.get(index);
+    if (chunk == null) {
+      this.chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+      chunk = this.chunks.get(index);
+    }
+    if (chunk.compareAndSet(offset, null, created)) {
+      return created;
+    }
+    return chunk.get(offset);
+  }
+
+  /**
+   * @return The squares created so far.
+   */
+  List<Square> toList() {
+    final List<Square> result = new ArrayList<>();
+    for (int index = 0; index < this.chunks.length(); index++) {
+      final AtomicReferenceArray<Square> chunk = this.chunks.get(index);
+      if (chunk == null) {
+        continue;
+      }
+      for (int offset = 0; offset < CHUNK_SIZE; offset++) {
+        final Square square = chunk.get(offset);
+        if (square != null) {
+          result.add(square);
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,155 @@
+package jpacman.engine.board;
+
+import java.util.List;
+import jpacman.engine.sprite.Sprite;
+
+/**
+ * A copy of a board that keeps only what changes while a game is played: the units on its
+ * squares and its pellet layer. Its walls, components and junction graph are read from the
+ * {@link BoardTopology} it shares with the board it was copied from, and the sprites of its
+ * squares from the grid of squares of the first board in the line of copies.
+ *
+ * <p>
+ * A square is only created when it is first asked for, after which the board keeps returning the
+ * same square, so copying a board only creates the squares holding a unit, see
+ * {@link BoardFactory#copyBoard(Board, java.util.Set)}.
+ * </p>
+ */
+public class TopologyBoard extends Board {
+
+  /**
+   * The board of which the squares have the sprites of the squares of this board.
+   */
+  private final Board template;
+
+  /**
+   * The squares created so far.
+   */
+  private final SquareChunks squares;
+
+  /**
+   * Creates a board with the topology and the sprites of another board, without any units.
+   *
+   * @param toCopy The board to copy, which has a topology.
+   */
+  TopologyBoard(final Board toCopy) {
+    assert toCopy.getTopology() != null;
+    this.template = toCopy instanceof TopologyBoard ? ((TopologyBoard) toCopy).template : toCopy;
+    this.squares = new SquareChunks((long) toCopy.getWidth() * toCopy.getHeight());
+    setTopology(toCopy.getTopology());
+  }
+
+  @Override
+  public int getWidth() {
+    return this.template.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return this.template.getHeight();
+  }
+
+  @Override
+  public Square squareAt(final int x, final int y) {
+    assert withinBorders(x, y);
+    final long cell = (long) y * getWidth() + x;
+    final Square square = this.squares.get(cell);
+    return square != null ? square : this.squares.publish(cell, materialize(x, y));
+  }
+
+  /**
+   * @return The squares created so far, which are the only squares that can hold units.
+   */
+  public List<Square> getMaterializedSquares() {
+    return this.squares.toList();
+  }
+
+  /**
+   * Creates the square of a cell, on the pellet layer of this board if it has one.
+   *
+   * @param x The column of the cell.
+   * @param y The row of the cell.
+   * @return The new square.
+   */
+  private Square materialize(final int x, final int y) {
+    final TopologySquare square = new TopologySquare(this, x, y);
+    final PelletLayer layer = getPelletLayer();
+    if (layer != null) {
+      square.setPelletLayer(layer, layer.cell(x, y));
+    }
+    return square;
+  }
+
+  /**
+   * A square that reads whatever never changes about it from the topology of its board.
+   */
+  static final class TopologySquare extends Square {
+
+    private final TopologyBoard board;
+
+    /**
+     * The column of the square.
+     */
+    private final int x;
+
+    /**
+     * The row of the square.
+     */
+    private final int y;
+
+    /**
+     * Creates a new square.
+     *
+     * @param board The board of the square.
+     * @param x The column of the square.
+     * @param y The row of the square.
+     */
+    TopologySquare(final TopologyBoard board, final int x, final int y) {
+      this.board = board;
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public TopologyBoard getBoard() {
+      return this.board;
+    }
+
+    @Override
+    public int getX() {
+      return this.x;
+    }
+
+    @Override
+    public int getY() {
+      return this.y;
+    }
+
+    @Override
+    public int getComponent() {
+      return this.board.getTopology().getComponent(getX(), getY());
+    }
+
+    @Override
+    JunctionGraph.Place getPlace() {
+      return this.board.getTopology().getPlace(getX(), getY());
+    }
+
+    @Override
+    public boolean isAccessibleTo(final Unit unit) {
+      return !isWall();
+    }
+
+    /**
+     * @return <code>true</code> iff this square is a wall.
+     */
+    boolean isWall() {
+      return this.board.getTopology().isWall(getX(), getY());
+    }
+
+    @Override
+    public Sprite getSprite() {
+      return this.board.template.squareAt(getX(), getY()).getSprite();
+    }
+  }
+}
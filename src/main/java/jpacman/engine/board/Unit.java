@@ -19,6 +19,11 @@ public abstract class Unit implements Cloneable {
    */
   private Direction direction;
 
+  /**
+   * The registry keeping track of this unit, or <code>null</code> if it is not registered.
+   */
+  private UnitRegistry registry;
+
   /**
    * Creates a unit that is facing east.
    */
@@ -69,6 +74,9 @@ public abstract class Unit implements Cloneable {
     }
     this.square = target;
     target.put(this);
+    if (this.registry != null) {
+      this.registry.occupied(this);
+    }
     assert invariant();
   }
 
@@ -79,10 +87,28 @@ public abstract class Unit implements Cloneable {
     if (this.square != null) {
       this.square.remove(this);
       this.square = null;
+      if (this.registry != null) {
+        this.registry.left(this);
+      }
     }
     assert invariant();
   }
 
+  /**
+   * @return The registry keeping track of this unit, or <code>null</code> if it is not
+   * registered.
+   */
+  public UnitRegistry getRegistry() {
+    return this.registry;
+  }
+
+  /**
+   * @param registry The registry keeping track of this unit from now on.
+   */
+  void setRegistry(final UnitRegistry registry) {
+    this.registry = registry;
+  }
+
   /**
    * Tests whether the square this unit is occupying has this unit listed as
    * one of its occupiers.
@@ -94,6 +120,16 @@ public abstract class Unit implements Cloneable {
     return this.square == null || this.square.getOccupants().contains(this);
   }
 
+  /**
+   * Returns the kind of this unit, which a square keeps track of while this unit occupies it.
+   * The kind of a unit never changes.
+   *
+   * @return The kind of this unit.
+   */
+  public UnitKind getKind() {
+    return UnitKind.OTHER;
+  }
+
   /**
    * Returns the sprite of this unit.
    *
@@ -0,0 +1,47 @@
+package jpacman.engine.board;
+
+/**
+ * The kinds of units a {@link Square} keeps track of, so that it can tell what is on it without
+ * looking at its occupants.
+ */
+public enum UnitKind {
+
+  /**
+   * A pellet.
+   */
+  PELLET,
+
+  /**
+   * A player.
+   */
+  PLAYER,
+
+  /**
+   * A ghost.
+   */
+  GHOST,
+
+  /**
+   * Any other unit.
+   */
+  OTHER;
+
+  /**
+   * @return The bit of this kind in the mask of a square, see {@link Square#getKinds()}.
+   */
+  public int getBit() {
+    return 1 << ordinal();
+  }
+
+  /**
+   * @param unit A unit.
+   * @return The kind of the unit, or {@link #OTHER} if it does not tell.
+   */
+  public static UnitKind of(final Unit unit) {
+    final UnitKind kind = unit.getKind();
+    if (kind == null) {
+      return OTHER;
+    }
+    return kind;
+  }
+}
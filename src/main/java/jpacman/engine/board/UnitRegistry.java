@@ -0,0 +1,96 @@
+package jpacman.engine.board;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of a number of units by kind and by type. The units tell the registry when they
+ * occupy or leave a square, so it always knows which of them are on the board, and finding all
+ * units of a kind takes as long as there are such units, not as long as the board is big.
+ *
+ * <p>
+ * A unit belongs to at most one registry, the last one it was registered with.
+ * </p>
+ */
+public final class UnitRegistry {
+
+  /**
+   * The registered units that are on a square, by kind, in order of registration.
+   */
+  private final Map<UnitKind, Set<Unit>> onBoard = new EnumMap<>(UnitKind.class);
+
+  /**
+   * The first unit registered of each type.
+   */
+  private final Map<Class<?>, Unit> byType = new HashMap<>();
+
+  /**
+   * Creates an empty registry.
+   */
+  public UnitRegistry() {
+    for (final UnitKind kind : UnitKind.values()) {
+      this.onBoard.put(kind, new LinkedHashSet<>());
+    }
+  }
+
+  /**
+   * Registers a unit, which is kept track of from now on.
+   *
+   * @param unit The unit to register.
+   */
+  public void register(final Unit unit) {
+    unit.setRegistry(this);
+    this.byType.putIfAbsent(unit.getClass(), unit);
+    if (unit.getSquare() != null) {
+      occupied(unit);
+    }
+  }
+
+  /**
+   * @param type The exact type of the unit.
+   * @param <T> The type of the unit.
+   * @return The first unit registered of that type, on the board or not, or <code>null</code> if
+   * none was registered.
+   */
+  public <T extends Unit> T find(final Class<T> type) {
+    return type.cast(this.byType.get(type));
+  }
+
+  /**
+   * @param kind A kind of unit.
+   * @return The registered units of the kind that are on a square, as a live view.
+   */
+  public Set<Unit> getUnits(final UnitKind kind) {
+    return Collections.unmodifiableSet(this.onBoard.get(kind));
+  }
+
+  /**
+   * @param kind A kind of unit.
+   * @return The number of registered units of the kind that are on a square.
+   */
+  public int count(final UnitKind kind) {
+    return this.onBoard.get(kind).size();
+  }
+
+  /**
+   * Notes that a unit is on a square.
+   *
+   * @param unit The unit that occupied a square.
+   */
+  void occupied(final Unit unit) {
+    this.onBoard.get(UnitKind.of(unit)).add(unit);
+  }
+
+  /**
+   * Notes that a unit is no longer on the board.
+   *
+   * @param unit The unit that left its square.
+   */
+  void left(final Unit unit) {
+    this.onBoard.get(UnitKind.of(unit)).remove(unit);
+  }
+}
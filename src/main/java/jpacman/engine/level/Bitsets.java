@@ -0,0 +1,61 @@
+package jpacman.engine.level;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Helpers for the bitsets over the squares of a board used by the binary formats of this package.
+ * Bit <code>i</code> is bit <code>i % 64</code> of word <code>i / 64</code>.
+ */
+final class Bitsets {
+
+  private Bitsets() {
+  }
+
+  /**
+   * @param bits The number of bits.
+   * @return The number of words of a bitset with that many bits.
+   */
+  static int words(final int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * @param bitset The bitset.
+   * @param index The bit to set.
+   */
+  static void set(final long[] bitset, final int index) {
+    bitset[index / Long.SIZE] |= 1L << (index % Long.SIZE);
+  }
+
+  /**
+   * @param bitset The bitset.
+   * @param index The bit to test.
+   * @return <code>true</code> iff the bit is set.
+   */
+  static boolean isSet(final long[] bitset, final int index) {
+    return (bitset[index / Long.SIZE] & 1L << (index % Long.SIZE)) != 0L;
+  }
+
+  /**
+   * @param buffer The buffer to write to.
+   * @param bitset The bitset to write.
+   */
+  static void put(final ByteBuffer buffer, final long[] bitset) {
+    for (final long word : bitset) {
+      buffer.putLong(word);
+    }
+  }
+
+  /**
+   * @param buffer The buffer to read from.
+   * @param words The number of words of the bitset.
+   * @return The bitset.
+   */
+  static long[] get(final ByteBuffer buffer, final int words) {
+    final long[] bitset = new long[words];
+    for (int i = 0; i < words; i++) {
+      bitset[i] = buffer.getLong();
+    }
+    return bitset;
+  }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
 
 /**
@@ -22,11 +23,31 @@ public class CollisionInteractionMap implements CollisionMap {
       Map<Class<? extends Unit>, CollisionHandler<?, ?>>
       > handlers;
 
+  /**
+   * The handlers of units entering a square with a pellet of the pellet layer, by the type of
+   * the unit.
+   */
+  private final Map<Class<? extends Unit>, PelletHandler<?>> pelletHandlers;
+
   /**
    * Creates a new, empty collision map.
    */
   public CollisionInteractionMap() {
     this.handlers = new HashMap<>();
+    this.pelletHandlers = new HashMap<>();
+  }
+
+  /**
+   * Adds the handler of units of a type entering a square with a pellet of the pellet layer of
+   * its board.
+   *
+   * @param <C> The collider type.
+   * @param collider The collider type.
+   * @param handler The handler that handles the collision.
+   */
+  public <C extends Unit> void onPelletCollision(final Class<C> collider,
+      final PelletHandler<C> handler) {
+    this.pelletHandlers.put(collider, handler);
   }
 
   /**
@@ -121,6 +142,26 @@ public class CollisionInteractionMap implements CollisionMap {
     collisionHandler.handleCollision(collider, collidee);
   }
 
+  /**
+   * Handles a unit entering a square with a pellet of the pellet layer with the listed handler.
+   * Without a suitable handler the pellet collides as a pellet unit, see
+   * {@link CollisionMap#collideWithPellet(Unit, Square)}.
+   *
+   * @param collider The unit that entered the square.
+   * @param square The square holding the pellet.
+   */
+  @Override
+  public void collideWithPellet(final Unit collider, final Square square) {
+    final Class<? extends Unit> colliderKey = getMostSpecificClass(this.pelletHandlers,
+        collider.getClass());
+    if (colliderKey == null) {
+      CollisionMap.super.collideWithPellet(collider, square);
+      return;
+    }
+    final PelletHandler<Unit> handler = (PelletHandler<Unit>) this.pelletHandlers.get(colliderKey);
+    handler.handlePellet(collider, square);
+  }
+
   /**
    * Figures out the most specific class that is listed in the map. I.e. if A
    * extends B and B is listed while requesting A, then B will be returned.
@@ -187,6 +228,22 @@ public class CollisionInteractionMap implements CollisionMap {
     void handleCollision(C1 collider, C2 collidee);
   }
 
+  /**
+   * Handles a unit entering a square with a pellet of the pellet layer of its board.
+   *
+   * @param <C> The collider type.
+   */
+  public interface PelletHandler<C extends Unit> {
+
+    /**
+     * Handles a unit entering a square with a pellet.
+     *
+     * @param collider The unit that entered the square.
+     * @param square The square holding the pellet, see {@link Square#takePellet()}.
+     */
+    void handlePellet(C collider, Square square);
+  }
+
   /**
    * An symmetrical copy of a collision hander.
    *
@@ -1,5 +1,7 @@
 package jpacman.engine.level;
 
+import jpacman.engine.board.PelletLayer;
+import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
 
 /**
@@ -22,4 +24,30 @@ public interface CollisionMap {
    */
   <C1 extends Unit, C2 extends Unit> void collide(C1 collider, C2 collidee);
 
+  /**
+   * Handles a unit entering a square that holds a pellet of the pellet layer of its board, see
+   * {@link Square#hasPellet()}, which may be nothing at all.
+   *
+   * <p>
+   * By default the pellet is put on the square as a {@link Pellet} unit for the duration of the
+   * collision and handled by {@link #collide(Unit, Unit)}, so collision maps written for pellet
+   * units need not know about pellet layers. The pellet is taken off the layer iff the collision
+   * removed it from the square.
+   * </p>
+   *
+   * @param collider The unit that entered the square.
+   * @param square The square holding the pellet.
+   */
+  default void collideWithPellet(final Unit collider, final Square square) {
+    final PelletLayer layer = square.getPelletLayer();
+    final Pellet pellet = new Pellet(layer.getValue(), layer.getSprite());
+    pellet.occupy(square);
+    collide(collider, pellet);
+    if (pellet.getSquare() == null) {
+      square.takePellet();
+    } else {
+      pellet.leaveSquare();
+    }
+  }
+
 }
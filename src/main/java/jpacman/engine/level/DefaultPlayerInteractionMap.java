@@ -1,7 +1,9 @@
 package jpacman.engine.level;
 
+import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
 import jpacman.engine.level.CollisionInteractionMap.CollisionHandler;
+import jpacman.engine.level.CollisionInteractionMap.PelletHandler;
 import jpacman.engine.npc.ghost.Ghost;
 
 /**
@@ -16,7 +18,7 @@ import jpacman.engine.npc.ghost.Ghost;
  */
 public class DefaultPlayerInteractionMap implements CollisionMap {
 
-  private final CollisionMap collisions = defaultCollisions();
+  private final CollisionInteractionMap collisions = defaultCollisions();
 
   /**
    * Creates the default collisions Player-Ghost and Player-Pellet.
@@ -44,6 +46,14 @@ public class DefaultPlayerInteractionMap implements CollisionMap {
             player.addPoints(pellet.getValue());
           }
         });
+
+    collisionMap.onPelletCollision(Player.class, new PelletHandler<Player>() {
+
+      @Override
+      public void handlePellet(final Player player, final Square square) {
+        player.addPoints(square.takePellet());
+      }
+    });
     return collisionMap;
   }
 
@@ -51,4 +61,9 @@ public class DefaultPlayerInteractionMap implements CollisionMap {
   public void collide(final Unit mover, final Unit movedInto) {
     this.collisions.collide(mover, movedInto);
   }
+
+  @Override
+  public void collideWithPellet(final Unit collider, final Square square) {
+    this.collisions.collideWithPellet(collider, square);
+  }
 }
@@ -3,15 +3,20 @@ package jpacman.engine.level;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import jpacman.engine.board.Board;
 import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.CellBoard;
 import jpacman.engine.board.Direction;
+import jpacman.engine.board.PelletLayer;
 import jpacman.engine.board.Square;
+import jpacman.engine.board.TopologyBoard;
 import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.board.UnitRegistry;
 import jpacman.engine.npc.NPC;
 import jpacman.engine.npc.ghost.Ghost;
 
@@ -55,6 +60,11 @@ public class Level {
    */
   private int startSquareIndex;
 
+  /**
+   * The players, ghosts and pellets of this level, by kind and type.
+   */
+  private final UnitRegistry units = new UnitRegistry();
+
 
   /**
    * Creates a new level for the board.
@@ -77,6 +87,7 @@ public class Level {
     this.players = new ArrayList<>();
     this.collisions = collisionMap;
     this.observers = new HashSet<>();
+    registerUnits();
   }
 
   /**
@@ -95,6 +106,49 @@ public class Level {
     this.players = Lists.newArrayList(bf.getClonedPlayer());
     this.collisions = level.collisions;
     this.observers = new HashSet<>();
+    registerUnits();
+  }
+
+  /**
+   * Registers the ghosts, the players and, unless the board keeps them in its cells, the pellets
+   * of this level.
+   */
+  private void registerUnits() {
+    for (final NPC ghost : this.ghosts) {
+      this.units.register(ghost);
+    }
+    for (final Player player : this.players) {
+      this.units.register(player);
+    }
+    if (this.board instanceof CellBoard) {
+      return;
+    }
+    if (this.board instanceof TopologyBoard) {
+      for (final Square square : ((TopologyBoard) this.board).getMaterializedSquares()) {
+        registerPellets(square);
+      }
+      return;
+    }
+    for (int x = 0; x < this.board.getWidth(); x++) {
+      for (int y = 0; y < this.board.getHeight(); y++) {
+        registerPellets(this.board.squareAt(x, y));
+      }
+    }
+  }
+
+  /**
+   * Registers the pellets on a square.
+   *
+   * @param square The square.
+   */
+  private void registerPellets(final Square square) {
+    if (square.holds(UnitKind.PELLET)) {
+      for (final Unit unit : square.getOccupants()) {
+        if (unit.getKind() == UnitKind.PELLET) {
+          this.units.register(unit);
+        }
+      }
+    }
   }
 
   /**
@@ -130,6 +184,7 @@ public class Level {
       return;
     }
     this.players.add(p);
+    this.units.register(p);
     final Square square = this.startSquares.get(this.startSquareIndex);
     p.occupy(square);
     this.startSquareIndex++;
@@ -153,6 +208,36 @@ public class Level {
    * @param direction The direction to move the unit in.
    */
   public void move(final Unit unit, final Direction direction) {
+    applyMove(unit, direction);
+    updateObservers();
+  }
+
+  /**
+   * Moves a batch of units, e.g. all moves of a single game tick. The moves
+   * are applied strictly in the order of the list, so collisions are
+   * resolved in that order as well: a unit moving onto a square sees the
+   * occupants left there by the moves before it. The observers are only
+   * updated once, after the last move has been applied.
+   *
+   * @param moves The moves to apply, in order.
+   */
+  public void moveAll(final List<Move> moves) {
+    assert moves != null;
+
+    for (final Move m : moves) {
+      applyMove(m.getUnit(), m.getDirection());
+    }
+    updateObservers();
+  }
+
+  /**
+   * Moves the unit into the given direction if possible and handles all
+   * collisions, without notifying the observers.
+   *
+   * @param unit The unit to move.
+   * @param direction The direction to move the unit in.
+   */
+  private void applyMove(final Unit unit, final Direction direction) {
     assert unit != null;
     assert direction != null;
 
@@ -161,14 +246,16 @@ public class Level {
     final Square destination = location.getSquareAt(direction);
 
     if (destination.isAccessibleTo(unit)) {
-      final List<Unit> occupants = destination.getOccupants();
+      final List<Unit> occupants = destination.getKinds() == 0 ? Collections.emptyList()
+          : destination.getOccupants();
       unit.occupy(destination);
       for (final Unit occupant : occupants) {
         this.collisions.collide(unit, occupant);
       }
+      if (destination.hasPellet()) {
+        this.collisions.collideWithPellet(unit, destination);
+      }
     }
-    updateObservers();
-
   }
 
   /**
@@ -209,18 +296,18 @@ public class Level {
    */
   public int remainingPellets() {
     final Board b = getBoard();
-    int pellets = 0;
-    for (int x = 0; x < b.getWidth(); x++) {
-      for (int y = 0; y < b.getHeight(); y++) {
-        for (final Unit u : b.squareAt(x, y).getOccupants()) {
-          if (u instanceof Pellet) {
-            pellets++;
-          }
-        }
-      }
+    if (b instanceof CellBoard) {
+      return ((CellBoard) b).getRemainingPellets();
     }
-    assert pellets >= 0;
-    return pellets;
+    final PelletLayer layer = b.getPelletLayer();
+    return this.units.count(UnitKind.PELLET) + (layer == null ? 0 : layer.getCount());
+  }
+
+  /**
+   * @return The squares from which players can start this game.
+   */
+  List<Square> getStartSquares() {
+    return this.startSquares;
   }
 
   public List<Player> getPlayers() {
@@ -232,17 +319,74 @@ public class Level {
   }
 
   public Ghost getGhost(final Class<? extends Ghost> clazz) {
-    final Level level = this;
-    final Optional<NPC> result = level.getGhosts().stream()
-        .filter(ghost -> ghost.getClass().equals(clazz)
-        ).findFirst();
-    return (Ghost) result.orElseThrow(() -> new RuntimeException("Missing ghost: " + clazz));
+    final Ghost ghost = this.units.find(clazz);
+    if (ghost == null) {
+      throw new RuntimeException("Missing ghost: " + clazz);
+    }
+    return ghost;
+  }
+
+  /**
+   * @return The players, ghosts and pellets of this level, by kind and type. The pellets of a
+   * {@link CellBoard} are kept in its cells instead.
+   */
+  public UnitRegistry getUnits() {
+    return this.units;
   }
 
   public Player getPlayer() {
     return getPlayers().get(0);
   }
 
+  /**
+   * A single move of a unit in a given direction, as applied by
+   * {@link #moveAll(List)}.
+   */
+  public static final class Move {
+
+    /**
+     * The unit to move.
+     */
+    private final Unit unit;
+
+    /**
+     * The direction to move the unit in.
+     */
+    private final Direction direction;
+
+    /**
+     * Creates a new move.
+     *
+     * @param unit The unit to move.
+     * @param direction The direction to move the unit in.
+     */
+    public Move(final Unit unit, final Direction direction) {
+      assert unit != null;
+      assert direction != null;
+      this.unit = unit;
+      this.direction = direction;
+    }
+
+    /**
+     * @return The unit to move.
+     */
+    public Unit getUnit() {
+      return this.unit;
+    }
+
+    /**
+     * @return The direction to move the unit in.
+     */
+    public Direction getDirection() {
+      return this.direction;
+    }
+
+    @Override
+    public String toString() {
+      return this.unit + " " + this.direction;
+    }
+  }
+
   /**
    * An observer that will be notified when the level is won or lost.
    *
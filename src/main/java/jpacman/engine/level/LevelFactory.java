@@ -4,11 +4,13 @@ import java.util.List;
 import java.util.Map;
 import jpacman.engine.board.Board;
 import jpacman.engine.board.Direction;
+import jpacman.engine.board.PelletLayer;
 import jpacman.engine.board.Square;
 import jpacman.engine.npc.NPC;
 import jpacman.engine.npc.ghost.Ghost;
 import jpacman.engine.npc.ghost.GhostColor;
 import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.npc.ghost.NearestUnits;
 import jpacman.engine.sprite.PacManSprites;
 import jpacman.engine.sprite.Sprite;
 
@@ -90,7 +92,8 @@ public class LevelFactory {
       case CLYDE:
         return this.ghostFact.createClyde();
       default:
-        return new RandomGhost(this.sprites.getGhostSprite(GhostColor.RED));
+        return new RandomGhost(this.sprites.getGhostSprite(GhostColor.RED),
+            this.ghostFact.nextStreamSeed());
     }
   }
 
@@ -103,6 +106,17 @@ public class LevelFactory {
     return new Pellet(PELLET_VALUE, this.sprites.getPelletSprite());
   }
 
+  /**
+   * Creates a layer for the pellets of a board, without any pellets yet.
+   *
+   * @param width The width of the board.
+   * @param height The height of the board.
+   * @return The new pellet layer.
+   */
+  public PelletLayer createPelletLayer(final int width, final int height) {
+    return new PelletLayer(width, height, PELLET_VALUE, this.sprites.getPelletSprite());
+  }
+
   /**
    * Implementation of an NPC that wanders around randomly.
    *
@@ -119,19 +133,20 @@ public class LevelFactory {
      * Creates a new random ghost.
      *
      * @param ghostSprite The sprite for the ghost.
+     * @param seed The seed of the random stream of the ghost.
      */
-    RandomGhost(final Map<Direction, Sprite> ghostSprite) {
-      super(ghostSprite, (int) DELAY, 0);
+    RandomGhost(final Map<Direction, Sprite> ghostSprite, final long seed) {
+      super(ghostSprite, (int) DELAY, 0, seed);
     }
 
     @Override
-    public Direction nextMove() {
+    public Direction nextMove(final NearestUnits players) {
       return randomMove();
     }
 
     @Override
     protected Object clone() throws CloneNotSupportedException {
-      return new RandomGhost(super.sprites);
+      return continueStream(new RandomGhost(super.sprites, getSeed()));
     }
   }
 }
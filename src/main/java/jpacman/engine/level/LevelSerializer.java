@@ -0,0 +1,361 @@
+package jpacman.engine.level;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jpacman.PacmanConfigurationException;
+import jpacman.engine.board.Board;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.CellBoard;
+import jpacman.engine.board.CellStore;
+import jpacman.engine.board.Components;
+import jpacman.engine.board.Direction;
+import jpacman.engine.board.PelletLayer;
+import jpacman.engine.board.Square;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.npc.NPC;
+import jpacman.engine.npc.ghost.Blinky;
+import jpacman.engine.npc.ghost.Clyde;
+import jpacman.engine.npc.ghost.Ghost;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.npc.ghost.Inky;
+import jpacman.engine.npc.ghost.Pinky;
+
+/**
+ * Writes the state of a {@link Level} to a compact, versioned binary snapshot and reads it back.
+ *
+ * <p>
+ * A snapshot starts with the magic number and the format version, followed by the width and
+ * height of the board, a byte of flags telling how the board keeps its squares and pellets (not
+ * present in version 1), a bitset of the walls, a bitset of the squares holding a pellet, the start
+ * squares, the square, direction, score and state of every player and the type, square and
+ * direction of every ghost, in the order of {@link Level#getGhosts()}. Squares are numbered column
+ * by column, <code>x * height + y</code>. All numbers are big-endian.
+ * </p>
+ *
+ * <p>
+ * Writing only needs the level, reading creates the squares and units of the new level with the
+ * factories of this serializer. Writing a {@link CellBoard} reads its walls and pellets from its
+ * cells, so it does not create any squares.
+ * </p>
+ */
+public class LevelSerializer {
+
+  /**
+   * The first four bytes of every snapshot, "PMLV".
+   */
+  public static final int MAGIC = 0x504D4C56;
+
+  /**
+   * The version of the format written by {@link #write(Level, ByteBuffer)}.
+   */
+  public static final short VERSION = 2;
+
+  /**
+   * The flag of boards that keep their pellets in a {@link PelletLayer} instead of as units.
+   */
+  private static final byte PELLET_LAYER = 1;
+
+  /**
+   * The flag of boards that keep their state in a {@link CellStore}, see {@link CellBoard}.
+   */
+  private static final byte CELLS = 2;
+
+  /**
+   * The ghost types a snapshot can hold, by their code.
+   */
+  private static final List<Class<? extends Ghost>> GHOST_TYPES = Arrays.asList(
+      Blinky.class, Pinky.class, Inky.class, Clyde.class);
+
+  /**
+   * The directions by ordinal.
+   */
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  /**
+   * The factory creating the level and its pellets.
+   */
+  private final LevelFactory levels;
+
+  /**
+   * The factory creating the ghosts.
+   */
+  private final GhostFactory ghosts;
+
+  /**
+   * The factory creating the board and its squares.
+   */
+  private final BoardFactory boards;
+
+  /**
+   * The factory creating the players.
+   */
+  private final PlayerFactory players;
+
+  /**
+   * Creates a new serializer.
+   *
+   * @param levelFactory The factory creating the level and its pellets.
+   * @param ghostFactory The factory creating the ghosts.
+   * @param boardFactory The factory creating the board and its squares.
+   * @param playerFactory The factory creating the players.
+   */
+  public LevelSerializer(final LevelFactory levelFactory, final GhostFactory ghostFactory,
+      final BoardFactory boardFactory, final PlayerFactory playerFactory) {
+    this.levels = levelFactory;
+    this.ghosts = ghostFactory;
+    this.boards = boardFactory;
+    this.players = playerFactory;
+  }
+
+  /**
+   * @param level The level.
+   * @return The size of the snapshot of the level in bytes.
+   */
+  public static int sizeOf(final Level level) {
+    final Board board = level.getBoard();
+    final int words = Bitsets.words(board.getWidth() * board.getHeight());
+    return 4 + 2 + 4 + 4 + 1 + 2 * words * 8
+        + 4 + level.getStartSquares().size() * 4
+        + 4 + level.getPlayers().size() * (4 + 1 + 4 + 1)
+        + 4 + level.getGhosts().size() * (1 + 4 + 1);
+  }
+
+  /**
+   * Writes a snapshot of a level.
+   *
+   * @param level The level.
+   * @return The snapshot.
+   */
+  public static byte[] toBytes(final Level level) {
+    final ByteBuffer buffer = ByteBuffer.allocate(sizeOf(level));
+    write(level, buffer);
+    return buffer.array();
+  }
+
+  /**
+   * Writes a snapshot of a level at the position of the buffer, which must have at least
+   * {@link #sizeOf(Level)} bytes remaining.
+   *
+   * @param level The level.
+   * @param buffer The buffer to write to.
+   */
+  public static void write(final Level level, final ByteBuffer buffer) {
+    final Board board = level.getBoard();
+    final int width = board.getWidth();
+    final int height = board.getHeight();
+    final long[] walls = new long[Bitsets.words(width * height)];
+    final long[] pellets = new long[walls.length];
+
+    byte flags = 0;
+    if (board instanceof CellBoard) {
+      flags = CELLS;
+      final CellStore cells = ((CellBoard) board).getCells();
+      for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
+          if (cells.is(x, y, CellStore.WALL)) {
+            Bitsets.set(walls, x * height + y);
+          }
+          if (cells.is(x, y, CellStore.PELLET)) {
+            Bitsets.set(pellets, x * height + y);
+          }
+        }
+      }
+    } else {
+      if (board.getPelletLayer() != null) {
+        flags = PELLET_LAYER;
+      }
+      for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
+          final Square square = board.squareAt(x, y);
+          if (BoardFactory.isWall(square)) {
+            Bitsets.set(walls, x * height + y);
+          }
+          if (square.holds(UnitKind.PELLET) || square.hasPellet()) {
+            Bitsets.set(pellets, x * height + y);
+          }
+        }
+      }
+    }
+
+    buffer.putInt(MAGIC).putShort(VERSION).putInt(width).putInt(height).put(flags);
+    Bitsets.put(buffer, walls);
+    Bitsets.put(buffer, pellets);
+
+    buffer.putInt(level.getStartSquares().size());
+    for (final Square start : level.getStartSquares()) {
+      buffer.putInt(indexOf(start, height));
+    }
+
+    buffer.putInt(level.getPlayers().size());
+    for (final Player player : level.getPlayers()) {
+      buffer.putInt(indexOf(player.getSquare(), height))
+          .put((byte) player.getDirection().ordinal())
+          .putInt(player.getScore())
+          .put((byte) (player.isAlive() ? 1 : 0));
+    }
+
+    buffer.putInt(level.getGhosts().size());
+    for (final NPC ghost : level.getGhosts()) {
+      final int type = GHOST_TYPES.indexOf(ghost.getClass());
+      if (type < 0) {
+        throw new IllegalArgumentException("Cannot write ghost: " + ghost.getClass());
+      }
+      buffer.put((byte) type)
+          .putInt(indexOf(ghost.getSquare(), height))
+          .put((byte) ghost.getDirection().ordinal());
+    }
+  }
+
+  /**
+   * Reads a snapshot into a new level.
+   *
+   * @param buffer The buffer holding the snapshot at its position.
+   * @return The level in the state of the snapshot.
+   * @throws PacmanConfigurationException When the buffer does not hold a snapshot this serializer
+   * understands.
+   */
+  public Level read(final ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC) {
+      throw new PacmanConfigurationException("Not a level snapshot.");
+    }
+    final short version = buffer.getShort();
+    if (version < 1 || version > VERSION) {
+      throw new PacmanConfigurationException("Unsupported level snapshot version: " + version);
+    }
+
+    final int width = buffer.getInt();
+    final int height = buffer.getInt();
+    final byte flags = version == 1 ? 0 : buffer.get();
+    if ((flags & ~(PELLET_LAYER | CELLS)) != 0) {
+      throw new PacmanConfigurationException("Invalid level snapshot flags: " + flags);
+    }
+    final PelletLayer layer = (flags & PELLET_LAYER) == 0 ? null
+        : this.levels.createPelletLayer(width, height);
+    final long[] walls = Bitsets.get(buffer, Bitsets.words(width * height));
+    final long[] pellets = Bitsets.get(buffer, walls.length);
+    final Board board;
+    if ((flags & CELLS) == 0) {
+      board = readGrid(width, height, walls, pellets, layer);
+    } else {
+      final CellStore cells = new CellStore(width, height);
+      for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
+          cells.set(x, y, CellStore.WALL, Bitsets.isSet(walls, x * height + y));
+          cells.set(x, y, CellStore.PELLET, Bitsets.isSet(pellets, x * height + y));
+        }
+      }
+      board = this.boards.createBoard(cells, this.levels::createPellet);
+    }
+    Components.label(board);
+
+    final List<Square> starts = new ArrayList<>();
+    final int startCount = buffer.getInt();
+    for (int i = 0; i < startCount; i++) {
+      starts.add(squareAt(board, buffer.getInt()));
+    }
+
+    final int playerCount = buffer.getInt();
+    final List<Player> playerList = new ArrayList<>(playerCount);
+    final int[] playerSquares = new int[playerCount];
+    for (int i = 0; i < playerCount; i++) {
+      final Player player = this.players.createPacMan();
+      playerSquares[i] = buffer.getInt();
+      player.setDirection(DIRECTIONS[buffer.get()]);
+      player.addPoints(buffer.getInt());
+      player.setAlive(buffer.get() != 0);
+      playerList.add(player);
+    }
+
+    final int ghostCount = buffer.getInt();
+    final List<NPC> ghostList = new ArrayList<>(ghostCount);
+    for (int i = 0; i < ghostCount; i++) {
+      final Ghost ghost = createGhost(buffer.get());
+      ghost.occupy(squareAt(board, buffer.getInt()));
+      ghost.setDirection(DIRECTIONS[buffer.get()]);
+      ghostList.add(ghost);
+    }
+
+    final Level level = this.levels.createLevel(board, ghostList, starts);
+    for (int i = 0; i < playerCount; i++) {
+      final Player player = playerList.get(i);
+      level.registerPlayer(player);
+      player.occupy(squareAt(board, playerSquares[i]));
+    }
+    return level;
+  }
+
+  /**
+   * Creates a board of squares, with its pellets as units or in a pellet layer.
+   *
+   * @param width The width of the board.
+   * @param height The height of the board.
+   * @param walls The bitset of the walls.
+   * @param pellets The bitset of the squares holding a pellet.
+   * @param layer The empty pellet layer of the board, or <code>null</code> to create pellet units.
+   * @return The board.
+   */
+  private Board readGrid(final int width, final int height, final long[] walls,
+      final long[] pellets, final PelletLayer layer) {
+    final Square[][] grid = new Square[width][height];
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        final int index = x * height + y;
+        if (Bitsets.isSet(walls, index)) {
+          grid[x][y] = this.boards.createWall();
+        } else {
+          grid[x][y] = this.boards.createGround();
+        }
+        if (Bitsets.isSet(pellets, index)) {
+          if (layer == null) {
+            this.levels.createPellet().occupy(grid[x][y]);
+          } else {
+            layer.put(x, y);
+          }
+        }
+      }
+    }
+    if (layer == null) {
+      return this.boards.createBoard(grid);
+    }
+    return this.boards.createBoard(grid, layer);
+  }
+
+  /**
+   * @param square A square.
+   * @param height The height of its board.
+   * @return The number of the square in a snapshot.
+   */
+  private static int indexOf(final Square square, final int height) {
+    return square.getX() * height + square.getY();
+  }
+
+  /**
+   * @param board A board.
+   * @param index The number of a square in a snapshot.
+   * @return The square.
+   */
+  private static Square squareAt(final Board board, final int index) {
+    return board.squareAt(index / board.getHeight(), index % board.getHeight());
+  }
+
+  /**
+   * @param type The code of a ghost type.
+   * @return A new ghost of the type.
+   */
+  private Ghost createGhost(final int type) {
+    switch (type) {
+      case 0:
+        return this.ghosts.createBlinky();
+      case 1:
+        return this.ghosts.createPinky();
+      case 2:
+        return this.ghosts.createInky();
+      case 3:
+        return this.ghosts.createClyde();
+      default:
+        throw new PacmanConfigurationException("Invalid ghost type: " + type);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package jpacman.engine.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import jpacman.PacmanConfigurationException;
+
+/**
+ * Compiles the text representation of a map, see {@link MapParser#parseMap(char[][])}, into a
+ * binary map that {@link MapParser#parseMap(ByteBuffer)} loads without parsing any text.
+ *
+ * <p>
+ * A compiled map starts with the magic number, the format version, a set of flags and the width
+ * and height of the board. It is followed by a bitset of the walls, a bitset of the squares with
+ * a pellet, the squares of the ghosts and the start squares of the players. Squares are numbered
+ * column by column, <code>x * height + y</code>, and the ghosts and start squares are listed in
+ * that order, which is the order in which the text parser creates them. No flags are defined yet,
+ * they are reserved for optional sections such as precomputed distances. All numbers are
+ * big-endian.
+ * </p>
+ */
+public final class MapCompiler {
+
+  /**
+   * The first four bytes of every compiled map, "PMMP".
+   */
+  public static final int MAGIC = 0x504D4D50;
+
+  /**
+   * The version of the format written by this compiler.
+   */
+  public static final short VERSION = 1;
+
+  /**
+   * The extension of compiled map files.
+   */
+  public static final String EXTENSION = ".pmap";
+
+  private MapCompiler() {
+  }
+
+  /**
+   * Compiles a text map file.
+   *
+   * @param args The text map to read and the compiled map to write.
+   * @throws IOException When a file could not be read or written.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: MapCompiler <map.txt> <map" + EXTENSION + ">");
+      return;
+    }
+    final List<String> text = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+    Files.write(Paths.get(args[1]), compile(text));
+  }
+
+  /**
+   * @param map The first bytes of a map.
+   * @return <code>true</code> iff the map is a compiled map. The position of the buffer is not
+   * changed.
+   */
+  public static boolean isCompiled(final ByteBuffer map) {
+    return map.remaining() >= Integer.BYTES && map.getInt(map.position()) == MAGIC;
+  }
+
+  /**
+   * Compiles the text representation of a map.
+   *
+   * @param text The plain text, with every entry in the list being a equally sized row of squares
+   * on the board and the first element being the top row.
+   * @return The compiled map.
+   * @throws PacmanConfigurationException If text lines are not properly formatted.
+   */
+  public static byte[] compile(final List<String> text) {
+    MapParser.checkMapFormat(text);
+
+    final int width = text.get(0).length();
+    final int height = text.size();
+    final long[] walls = new long[Bitsets.words(width * height)];
+    final long[] pellets = new long[walls.length];
+    final List<Integer> ghosts = new ArrayList<>();
+    final List<Integer> starts = new ArrayList<>();
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        final int index = x * height + y;
+        final char c = text.get(y).charAt(x);
+        switch (c) {
+          case ' ':
+            break;
+          case '#':
+            Bitsets.set(walls, index);
+            break;
+          case '.':
+            Bitsets.set(pellets, index);
+            break;
+          case 'G':
+            ghosts.add(index);
+            break;
+          case 'P':
+            starts.add(index);
+            break;
+          default:
+            throw new PacmanConfigurationException("Invalid character at "
+                + x + "," + y + ": " + c);
+        }
+      }
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 2 + 2 + 4 + 4
+        + 2 * walls.length * 8 + 4 + ghosts.size() * 4 + 4 + starts.size() * 4);
+    buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(width).putInt(height);
+    Bitsets.put(buffer, walls);
+    Bitsets.put(buffer, pellets);
+    putSquares(buffer, ghosts);
+    putSquares(buffer, starts);
+    return buffer.array();
+  }
+
+  /**
+   * @param buffer The buffer to write to.
+   * @param squares The numbers of the squares to write.
+   */
+  private static void putSquares(final ByteBuffer buffer, final List<Integer> squares) {
+    buffer.putInt(squares.size());
+    for (final int square : squares) {
+      buffer.putInt(square);
+    }
+  }
+}
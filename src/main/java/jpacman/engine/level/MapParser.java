@@ -1,14 +1,20 @@
 package jpacman.engine.level;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import jpacman.PacmanConfigurationException;
 import jpacman.engine.board.Board;
 import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Components;
+import jpacman.engine.board.CellStore;
+import jpacman.engine.board.PelletLayer;
 import jpacman.engine.board.Square;
 import jpacman.engine.npc.NPC;
 
@@ -19,6 +25,11 @@ import jpacman.engine.npc.NPC;
  */
 public class MapParser {
 
+  /**
+   * The size of the buffer a map is streamed through.
+   */
+  private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
   /**
    * The factory that creates the levels.
    */
@@ -29,6 +40,11 @@ public class MapParser {
    */
   private final BoardFactory boardCreator;
 
+  /**
+   * Whether the pellets of text maps are kept in a {@link PelletLayer} instead of as units.
+   */
+  private boolean pelletLayer;
+
   /**
    * Creates a new map parser.
    *
@@ -40,6 +56,18 @@ public class MapParser {
     this.boardCreator = boardFactory;
   }
 
+  /**
+   * Keeps the pellets of the text maps parsed from now on as bits in a {@link PelletLayer} of
+   * the board instead of as a unit on every square, which takes far less memory and makes copies
+   * of the board cheaper. Compiled maps keep their pellets in their cells anyway.
+   *
+   * @return This parser.
+   */
+  public MapParser withPelletLayer() {
+    this.pelletLayer = true;
+    return this;
+  }
+
   /**
    * Parses the text representation of the board into an actual level.
    *
@@ -67,7 +95,21 @@ public class MapParser {
 
     makeGrid(map, width, height, grid, ghosts, startPositions);
 
-    final Board board = this.boardCreator.createBoard(grid);
+    final Board board;
+    if (this.pelletLayer) {
+      final PelletLayer pellets = this.levelCreator.createPelletLayer(width, height);
+      for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
+          if (map[x][y] == '.') {
+            pellets.put(x, y);
+          }
+        }
+      }
+      board = this.boardCreator.createBoard(grid, pellets);
+    } else {
+      board = this.boardCreator.createBoard(grid);
+    }
+    Components.label(board);
     return this.levelCreator.createLevel(board, ghosts, startPositions);
   }
 
@@ -83,39 +125,39 @@ public class MapParser {
 
   private void addSquare(final Square[][] grid, final List<NPC> ghosts,
       final List<Square> startPositions, final int x, final int y, final char c) {
+    final Square square = makeSquare(x, y, c);
+    grid[x][y] = square;
+    if (c == 'G') {
+      addGhost(ghosts, square);
+    } else if (c == 'P') {
+      startPositions.add(square);
+    }
+  }
+
+  private Square makeSquare(final int x, final int y, final char c) {
     switch (c) {
       case ' ':
-        grid[x][y] = this.boardCreator.createGround();
-        break;
+      case 'G':
+      case 'P':
+        return this.boardCreator.createGround();
       case '#':
-        grid[x][y] = this.boardCreator.createWall();
-        break;
+        return this.boardCreator.createWall();
       case '.':
         final Square pelletSquare = this.boardCreator.createGround();
-        grid[x][y] = pelletSquare;
-        this.levelCreator.createPellet().occupy(pelletSquare);
-        break;
-      case 'G':
-        final Square ghostSquare = makeGhostSquare(ghosts);
-        grid[x][y] = ghostSquare;
-        break;
-      case 'P':
-        final Square playerSquare = this.boardCreator.createGround();
-        grid[x][y] = playerSquare;
-        startPositions.add(playerSquare);
-        break;
+        if (!this.pelletLayer) {
+          this.levelCreator.createPellet().occupy(pelletSquare);
+        }
+        return pelletSquare;
       default:
         throw new PacmanConfigurationException("Invalid character at "
             + x + "," + y + ": " + c);
     }
   }
 
-  private Square makeGhostSquare(final List<NPC> ghosts) {
-    final Square ghostSquare = this.boardCreator.createGround();
+  private void addGhost(final List<NPC> ghosts, final Square ghostSquare) {
     final NPC ghost = this.levelCreator.createGhost();
     ghosts.add(ghost);
     ghost.occupy(ghostSquare);
-    return ghostSquare;
   }
 
   /**
@@ -149,7 +191,7 @@ public class MapParser {
    * @param text Map to be checked
    * @throws PacmanConfigurationException if map is not OK.
    */
-  private void checkMapFormat(final List<String> text) {
+  static void checkMapFormat(final List<String> text) {
     if (text == null) {
       throw new PacmanConfigurationException(
           "Input text cannot be null.");
@@ -177,20 +219,249 @@ public class MapParser {
 
   /**
    * Parses the provided input stream as a character stream and passes it
-   * result to {@link #parseMap(List)}.
+   * on to {@link #parseMap(ReadableByteChannel)}.
    *
    * @param source The input stream that will be read.
    * @return The parsed level as represented by the text on the input stream.
    * @throws IOException when the source could not be read.
    */
   public Level parseMap(final InputStream source) throws IOException {
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-        source, "UTF-8"))) {
-      final List<String> lines = new ArrayList<>();
-      while (reader.ready()) {
-        lines.add(reader.readLine());
+    try (ReadableByteChannel channel = Channels.newChannel(source)) {
+      return parseMap(channel);
+    }
+  }
+
+  /**
+   * Parses the text representation of a board while it is read, see {@link #parseMap(char[][])}.
+   * Every row is turned into squares as soon as it is read and checked against the width of the
+   * first row, so the text itself is never held in memory. Rows end with a line feed, a carriage
+   * return or both. The ghosts and start squares are created afterwards in the same order as by
+   * {@link #parseMap(char[][])}.
+   *
+   * @param source The channel that will be read.
+   * @return The parsed level as represented by the text on the channel.
+   * @throws IOException when the source could not be read.
+   * @throws PacmanConfigurationException If text lines are not properly formatted.
+   */
+  public Level parseMap(final ReadableByteChannel source) throws IOException {
+    final StreamedMap map = new StreamedMap();
+    final ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+    boolean afterCarriageReturn = false;
+    while (source.read(buffer) >= 0) {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        final char c = (char) (buffer.get() & 0xFF);
+        if (c == '\r') {
+          map.endRow();
+        } else if (c == '\n') {
+          if (!afterCarriageReturn) {
+            map.endRow();
+          }
+        } else {
+          map.addCell(c);
+        }
+        afterCarriageReturn = c == '\r';
+      }
+      buffer.clear();
+    }
+    if (map.hasCells()) {
+      map.endRow();
+    }
+    return map.toLevel();
+  }
+
+  /**
+   * Loads a compiled map, see {@link MapCompiler}. The level is built straight from the bitsets and
+   * square lists of the compiled map, in the same order as from its text representation. Its board
+   * keeps the cells off the heap and only creates the squares that are used, see
+   * {@link jpacman.engine.board.CellBoard}.
+   *
+   * @param compiled The compiled map, read from its position.
+   * @return The level as represented by the compiled map.
+   * @throws PacmanConfigurationException When the buffer does not hold a compiled map this parser
+   * understands.
+   */
+  public Level parseMap(final ByteBuffer compiled) {
+    if (!MapCompiler.isCompiled(compiled)) {
+      throw new PacmanConfigurationException("Not a compiled map.");
+    }
+    compiled.getInt();
+    final short version = compiled.getShort();
+    if (version != MapCompiler.VERSION) {
+      throw new PacmanConfigurationException("Unsupported compiled map version: " + version);
+    }
+    compiled.getShort();
+
+    final int width = compiled.getInt();
+    final int height = compiled.getInt();
+    final long[] walls = Bitsets.get(compiled, Bitsets.words(width * height));
+    final long[] pellets = Bitsets.get(compiled, walls.length);
+
+    final CellStore cells = new CellStore(width, height);
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        final int index = x * height + y;
+        if (Bitsets.isSet(walls, index)) {
+          cells.set(x, y, CellStore.WALL, true);
+        }
+        if (Bitsets.isSet(pellets, index)) {
+          cells.set(x, y, CellStore.PELLET, true);
+        }
       }
-      return parseMap(lines);
+    }
+    final Board board = this.boardCreator.createBoard(cells, this.levelCreator::createPellet);
+    Components.label(board);
+
+    final List<NPC> ghosts = new ArrayList<>();
+    final int ghostCount = compiled.getInt();
+    for (int i = 0; i < ghostCount; i++) {
+      final int index = compiled.getInt();
+      final NPC ghost = this.levelCreator.createGhost();
+      ghost.occupy(board.squareAt(index / height, index % height));
+      ghosts.add(ghost);
+    }
+
+    final List<Square> startPositions = new ArrayList<>();
+    final int startCount = compiled.getInt();
+    for (int i = 0; i < startCount; i++) {
+      final int index = compiled.getInt();
+      startPositions.add(board.squareAt(index / height, index % height));
+    }
+
+    return this.levelCreator.createLevel(board, ghosts, startPositions);
+  }
+
+  /**
+   * The rows of squares read so far by {@link #parseMap(ReadableByteChannel)}.
+   */
+  private final class StreamedMap {
+
+    /**
+     * The completed rows.
+     */
+    private final List<Square[]> rows = new ArrayList<>();
+
+    /**
+     * The squares of the row being read.
+     */
+    private final List<Square> row = new ArrayList<>();
+
+    /**
+     * The positions of the ghosts, as x in the high and y in the low half.
+     */
+    private final List<Long> ghostPositions = new ArrayList<>();
+
+    /**
+     * The positions of the start squares, as x in the high and y in the low half.
+     */
+    private final List<Long> startPositions = new ArrayList<>();
+
+    /**
+     * The squares with a pellet when they go into a pellet layer, numbered row by row.
+     */
+    private final BitSet pellets = new BitSet();
+
+    /**
+     * The width of the first row, or -1 if it was not read yet.
+     */
+    private int width = -1;
+
+    /**
+     * Turns the next character of the current row into a square.
+     *
+     * @param c The character.
+     */
+    void addCell(final char c) {
+      final int x = this.row.size();
+      final int y = this.rows.size();
+      if (this.width >= 0 && x >= this.width) {
+        throw new PacmanConfigurationException("Input text lines are not of equal width.");
+      }
+      this.row.add(makeSquare(x, y, c));
+      if (c == 'G') {
+        this.ghostPositions.add(position(x, y));
+      } else if (c == 'P') {
+        this.startPositions.add(position(x, y));
+      } else if (c == '.' && MapParser.this.pelletLayer) {
+        this.pellets.set(y * this.width + x);
+      }
+    }
+
+    /**
+     * @return <code>true</code> iff the current row has squares.
+     */
+    boolean hasCells() {
+      return !this.row.isEmpty();
+    }
+
+    /**
+     * Completes the current row.
+     */
+    void endRow() {
+      if (this.width < 0) {
+        if (this.row.isEmpty()) {
+          throw new PacmanConfigurationException("Input text lines cannot be empty.");
+        }
+        this.width = this.row.size();
+      } else if (this.row.size() != this.width) {
+        throw new PacmanConfigurationException("Input text lines are not of equal width.");
+      }
+      this.rows.add(this.row.toArray(new Square[this.width]));
+      this.row.clear();
+    }
+
+    /**
+     * @return The level made of the rows read.
+     */
+    Level toLevel() {
+      if (this.rows.isEmpty()) {
+        throw new PacmanConfigurationException(
+            "Input text must consist of at least 1 row.");
+      }
+      final int height = this.rows.size();
+      final Square[][] grid = new Square[this.width][height];
+      for (int y = 0; y < height; y++) {
+        final Square[] cells = this.rows.get(y);
+        for (int x = 0; x < this.width; x++) {
+          grid[x][y] = cells[x];
+        }
+        this.rows.set(y, null);
+      }
+
+      final List<NPC> ghosts = new ArrayList<>();
+      Collections.sort(this.ghostPositions);
+      for (final long ghost : this.ghostPositions) {
+        addGhost(ghosts, grid[(int) (ghost >>> Integer.SIZE)][(int) ghost]);
+      }
+      final List<Square> starts = new ArrayList<>();
+      Collections.sort(this.startPositions);
+      for (final long start : this.startPositions) {
+        starts.add(grid[(int) (start >>> Integer.SIZE)][(int) start]);
+      }
+
+      final Board board;
+      if (MapParser.this.pelletLayer) {
+        final PelletLayer layer = MapParser.this.levelCreator.createPelletLayer(this.width,
+            height);
+        for (int cell = this.pellets.nextSetBit(0); cell >= 0;
+            cell = this.pellets.nextSetBit(cell + 1)) {
+          layer.put(cell % this.width, cell / this.width);
+        }
+        board = MapParser.this.boardCreator.createBoard(grid, layer);
+      } else {
+        board = MapParser.this.boardCreator.createBoard(grid);
+      }
+      Components.label(board);
+      return MapParser.this.levelCreator.createLevel(board, ghosts, starts);
+    }
+
+    /**
+     * @param x The column.
+     * @param y The row.
+     * @return The position, ordered column by column.
+     */
+    private long position(final int x, final int y) {
+      return (long) x << Integer.SIZE | y;
     }
   }
 }
@@ -0,0 +1,324 @@
+package jpacman.engine.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates random maps in the text format of {@link MapParser}, to create large workloads. The
+ * same settings and seed always generate the same map.
+ *
+ * <p>
+ * The maze is carved out of a solid block of walls by a depth first search over the squares with
+ * odd coordinates, which connects every square of the maze. Some of the remaining inner walls are
+ * then removed to create loops, and the outer walls of some rows are opened to create tunnels that
+ * wrap around the board. Finally the open squares are filled with pellets, ghosts and start
+ * squares.
+ * </p>
+ */
+public class MazeGenerator {
+
+  /**
+   * The smallest width and height of a maze.
+   */
+  private static final int MIN_SIZE = 5;
+
+  private static final byte WALL = '#';
+  private static final byte GROUND = ' ';
+  private static final byte PELLET = '.';
+  private static final byte GHOST = 'G';
+  private static final byte PLAYER = 'P';
+
+  /**
+   * The offsets of the neighbouring squares of a square of the maze, two squares away.
+   */
+  private static final int[][] STEPS = {{0, -2}, {2, 0}, {0, 2}, {-2, 0}};
+
+  private final int width;
+  private final int height;
+  private final long seed;
+  private double loopDensity = 0.1;
+  private double pelletDensity = 0.9;
+  private int tunnels;
+  private int ghosts = 4;
+  private int players = 1;
+
+  /**
+   * Creates a new generator.
+   *
+   * @param width The width of the generated maps, at least 5.
+   * @param height The height of the generated maps, at least 5.
+   * @param seed The seed of the generated maps.
+   */
+  public MazeGenerator(final int width, final int height, final long seed) {
+    if (width < MIN_SIZE || height < MIN_SIZE) {
+      throw new IllegalArgumentException("A maze must be at least " + MIN_SIZE + " squares wide "
+          + "and high: " + width + "x" + height);
+    }
+    this.width = width;
+    this.height = height;
+    this.seed = seed;
+  }
+
+  /**
+   * @param density The chance that an inner wall between two corridors is removed, creating a
+   * loop.
+   * @return This generator.
+   */
+  public MazeGenerator withLoopDensity(final double density) {
+    this.loopDensity = density;
+    return this;
+  }
+
+  /**
+   * @param density The chance that an open square holds a pellet.
+   * @return This generator.
+   */
+  public MazeGenerator withPelletDensity(final double density) {
+    this.pelletDensity = density;
+    return this;
+  }
+
+  /**
+   * @param count The number of rows that wrap around from the left to the right edge.
+   * @return This generator.
+   */
+  public MazeGenerator withTunnels(final int count) {
+    this.tunnels = count;
+    return this;
+  }
+
+  /**
+   * @param count The number of ghosts.
+   * @return This generator.
+   */
+  public MazeGenerator withGhosts(final int count) {
+    this.ghosts = count;
+    return this;
+  }
+
+  /**
+   * @param count The number of start squares for players.
+   * @return This generator.
+   */
+  public MazeGenerator withPlayers(final int count) {
+    this.players = count;
+    return this;
+  }
+
+  /**
+   * Generates a map.
+   *
+   * @return The rows of the map, the first element being the top row.
+   */
+  public List<String> generate() {
+    final byte[][] rows = generateRows();
+    final List<String> text = new ArrayList<>(this.height);
+    for (final byte[] row : rows) {
+      text.add(new String(row, StandardCharsets.US_ASCII));
+    }
+    return text;
+  }
+
+  /**
+   * Generates a map and writes it to a channel, one line per row, e.g. to feed
+   * {@link MapParser#parseMap(java.nio.channels.ReadableByteChannel)}.
+   *
+   * @param target The channel to write to.
+   * @throws IOException When the map could not be written.
+   */
+  public void writeTo(final WritableByteChannel target) throws IOException {
+    final ByteBuffer line = ByteBuffer.allocate(this.width + 1);
+    for (final byte[] row : generateRows()) {
+      line.clear();
+      line.put(row).put((byte) '\n').flip();
+      while (line.hasRemaining()) {
+        target.write(line);
+      }
+    }
+  }
+
+  /**
+   * @return The rows of a new map.
+   */
+  private byte[][] generateRows() {
+    final SplittableRandom random = new SplittableRandom(this.seed);
+    final byte[][] map = new byte[this.height][this.width];
+    for (final byte[] row : map) {
+      Arrays.fill(row, WALL);
+    }
+
+    carve(map, random);
+    addLoops(map, random);
+    addTunnels(map, random);
+    fill(map, random);
+    return map;
+  }
+
+  /**
+   * @return The number of columns with squares of the maze, which have odd x coordinates.
+   */
+  private int cellColumns() {
+    return (this.width - 1) / 2;
+  }
+
+  /**
+   * @return The number of rows with squares of the maze, which have odd y coordinates.
+   */
+  private int cellRows() {
+    return (this.height - 1) / 2;
+  }
+
+  /**
+   * Carves a maze connecting all squares with odd coordinates.
+   *
+   * @param map The map.
+   * @param random The source of randomness.
+   */
+  private void carve(final byte[][] map, final SplittableRandom random) {
+    final int[] stack = new int[cellColumns() * cellRows()];
+    final int[] candidates = new int[STEPS.length];
+    int size = 0;
+    stack[size++] = encode(1, 1);
+    map[1][1] = GROUND;
+
+    while (size > 0) {
+      final int top = stack[size - 1];
+      final int x = top % this.width;
+      final int y = top / this.width;
+
+      int found = 0;
+      for (int i = 0; i < STEPS.length; i++) {
+        final int nx = x + STEPS[i][0];
+        final int ny = y + STEPS[i][1];
+        if (isCell(nx, ny) && map[ny][nx] == WALL) {
+          candidates[found++] = i;
+        }
+      }
+      if (found == 0) {
+        size--;
+        continue;
+      }
+
+      final int[] step = STEPS[candidates[random.nextInt(found)]];
+      final int nx = x + step[0];
+      final int ny = y + step[1];
+      map[y + step[1] / 2][x + step[0] / 2] = GROUND;
+      map[ny][nx] = GROUND;
+      stack[size++] = encode(nx, ny);
+    }
+  }
+
+  /**
+   * Removes some of the inner walls between two squares of the maze.
+   *
+   * @param map The map.
+   * @param random The source of randomness.
+   */
+  private void addLoops(final byte[][] map, final SplittableRandom random) {
+    for (int y = 1; y < this.height - 1; y++) {
+      for (int x = 1; x < this.width - 1; x++) {
+        if (map[y][x] != WALL || (x + y) % 2 == 0) {
+          continue;
+        }
+        final boolean horizontal = isCell(x - 1, y) && isCell(x + 1, y);
+        final boolean vertical = isCell(x, y - 1) && isCell(x, y + 1);
+        if ((horizontal || vertical) && random.nextDouble() < this.loopDensity) {
+          map[y][x] = GROUND;
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens the outer walls of some rows of the maze.
+   *
+   * @param map The map.
+   * @param random The source of randomness.
+   */
+  private void addTunnels(final byte[][] map, final SplittableRandom random) {
+    final int count = Math.min(this.tunnels, cellRows());
+    final Set<Integer> opened = new HashSet<>();
+    while (opened.size() < count) {
+      final int y = 1 + 2 * random.nextInt(cellRows());
+      if (opened.add(y)) {
+        for (int x = 2 * cellColumns(); x < this.width; x++) {
+          map[y][x] = GROUND;
+        }
+        map[y][0] = GROUND;
+      }
+    }
+  }
+
+  /**
+   * Places the pellets, ghosts and start squares on the open squares.
+   *
+   * @param map The map.
+   * @param random The source of randomness.
+   */
+  private void fill(final byte[][] map, final SplittableRandom random) {
+    for (final byte[] row : map) {
+      for (int x = 0; x < row.length; x++) {
+        if (row[x] == GROUND && random.nextDouble() < this.pelletDensity) {
+          row[x] = PELLET;
+        }
+      }
+    }
+
+    final int cells = cellColumns() * cellRows();
+    if (this.ghosts + this.players > cells) {
+      throw new IllegalArgumentException("A maze of " + this.width + "x" + this.height
+          + " has no room for " + this.ghosts + " ghosts and " + this.players + " players.");
+    }
+    final Set<Integer> taken = new HashSet<>();
+    place(map, random, taken, PLAYER, this.players);
+    place(map, random, taken, GHOST, this.ghosts);
+  }
+
+  /**
+   * Places units on distinct random squares of the maze.
+   *
+   * @param map The map.
+   * @param random The source of randomness.
+   * @param taken The squares that already hold a unit.
+   * @param unit The character of the unit.
+   * @param count The number of units to place.
+   */
+  private void place(final byte[][] map, final SplittableRandom random, final Set<Integer> taken,
+      final byte unit, final int count) {
+    int placed = 0;
+    while (placed < count) {
+      final int x = 1 + 2 * random.nextInt(cellColumns());
+      final int y = 1 + 2 * random.nextInt(cellRows());
+      if (taken.add(encode(x, y))) {
+        map[y][x] = unit;
+        placed++;
+      }
+    }
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return <code>true</code> iff the position is a square of the maze.
+   */
+  private boolean isCell(final int x, final int y) {
+    return x % 2 == 1 && y % 2 == 1 && x < 2 * cellColumns() && y < 2 * cellRows();
+  }
+
+  /**
+   * @param x The column.
+   * @param y The row.
+   * @return The position as a single number.
+   */
+  private int encode(final int x, final int y) {
+    return y * this.width + x;
+  }
+}
@@ -1,6 +1,7 @@
 package jpacman.engine.level;
 
 import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
 import jpacman.engine.sprite.Sprite;
 
 /**
@@ -40,6 +41,11 @@ public final class Pellet extends Unit {
     return this.value;
   }
 
+  @Override
+  public UnitKind getKind() {
+    return UnitKind.PELLET;
+  }
+
   @Override
   public Sprite getSprite() {
     return this.image;
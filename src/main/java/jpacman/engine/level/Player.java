@@ -3,6 +3,7 @@ package jpacman.engine.level;
 import java.util.Map;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
 import jpacman.engine.sprite.AnimatedSprite;
 import jpacman.engine.sprite.Sprite;
 
@@ -77,6 +78,11 @@ public class Player extends Unit {
     return this.score;
   }
 
+  @Override
+  public UnitKind getKind() {
+    return UnitKind.PLAYER;
+  }
+
   @Override
   public Sprite getSprite() {
     if (isAlive()) {
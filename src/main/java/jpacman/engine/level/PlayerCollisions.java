@@ -1,6 +1,8 @@
 package jpacman.engine.level;
 
+import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
 import jpacman.engine.npc.ghost.Ghost;
 
 /**
@@ -9,6 +11,9 @@ import jpacman.engine.npc.ghost.Ghost;
  * It uses a number of instanceof checks to implement the multiple dispatch for the
  * collisionmap. For more realistic collision maps, this approach will not scale,
  * and the recommended approach is to use a {@link CollisionInteractionMap}.
+ * <p>
+ * Every collision it handles involves a player, so collisions of units that do not report
+ * themselves as a player, see {@link UnitKind}, are rejected without any checks.
  *
  * @author Arie van Deursen, 2014
  */
@@ -17,6 +22,9 @@ public class PlayerCollisions implements CollisionMap {
 
   @Override
   public void collide(final Unit mover, final Unit collidedOn) {
+    if (UnitKind.of(mover) != UnitKind.PLAYER && UnitKind.of(collidedOn) != UnitKind.PLAYER) {
+      return;
+    }
 
     if (mover instanceof Player) {
       playerColliding((Player) mover, collidedOn);
@@ -27,6 +35,13 @@ public class PlayerCollisions implements CollisionMap {
     }
   }
 
+  @Override
+  public void collideWithPellet(final Unit collider, final Square square) {
+    if (collider instanceof Player) {
+      ((Player) collider).addPoints(square.takePellet());
+    }
+  }
+
   private void playerColliding(final Player player, final Unit collidedOn) {
     if (collidedOn instanceof Ghost) {
       playerVersusGhost(player, (Ghost) collidedOn);
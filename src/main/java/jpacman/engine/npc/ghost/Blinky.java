@@ -4,7 +4,7 @@ import java.util.List;
 import java.util.Map;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
-import jpacman.engine.level.Player;
+import jpacman.engine.board.Unit;
 import jpacman.engine.sprite.Sprite;
 
 /**
@@ -52,11 +52,12 @@ public class Blinky extends Ghost {
    * Creates a new "Blinky", a.k.a. "Shadow".
    *
    * @param spriteMap The sprites for this ghost.
+   * @param seed The seed of the random stream of this ghost.
    */
   // TODO Blinky should speed up when there are a few pellets left, but he
   // has no way to find out how many there are.
-  public Blinky(final Map<Direction, Sprite> spriteMap) {
-    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION);
+  public Blinky(final Map<Direction, Sprite> spriteMap, final long seed) {
+    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION, seed);
   }
 
   /**
@@ -73,17 +74,20 @@ public class Blinky extends Ghost {
    * </p>
    */
   @Override
-  public Direction nextMove() {
+  public Direction nextMove(final NearestUnits players) {
     // TODO Blinky should patrol his corner every once in a while
     // TODO Implement his actual behaviour instead of simply chasing.
-    final Square target = Navigation.findNearest(Player.class, getSquare())
-        .getSquare();
+    final Unit player = findNearestPlayer(players);
+    if (player == null) {
+      return randomMove();
+    }
+    final Square target = player.getSquare();
 
     if (target == null) {
       return randomMove();
     }
 
-    final List<Direction> path = Navigation.shortestPath(getSquare(), target,
+    final List<Direction> path = getPathTracker().shortestPath(getSquare(), target,
         this);
     if (path != null && !path.isEmpty()) {
       return path.get(0);
@@ -93,6 +97,6 @@ public class Blinky extends Ghost {
 
   @Override
   protected Object clone() throws CloneNotSupportedException {
-    return new Blinky(super.sprites);
+    return continueStream(new Blinky(super.sprites, getSeed()));
   }
 }
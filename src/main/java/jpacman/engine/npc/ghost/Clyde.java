@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Map;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
-import jpacman.engine.level.Player;
+import jpacman.engine.board.Unit;
 import jpacman.engine.sprite.Sprite;
 
 /**
@@ -71,9 +71,10 @@ public final class Clyde extends Ghost {
    * Creates a new "Clyde", a.k.a. "Pokey".
    *
    * @param spriteMap The sprites for this ghost.
+   * @param seed The seed of the random stream of this ghost.
    */
-  public Clyde(final Map<Direction, Sprite> spriteMap) {
-    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION);
+  public Clyde(final Map<Direction, Sprite> spriteMap, final long seed) {
+    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION, seed);
   }
 
   /**
@@ -94,27 +95,34 @@ public final class Clyde extends Ghost {
    * </p>
    */
   @Override
-  public Direction nextMove() {
-    final Square target = Navigation.findNearest(Player.class, getSquare())
-        .getSquare();
+  public Direction nextMove(final NearestUnits players) {
+    final Unit player = findNearestPlayer(players);
+    if (player == null) {
+      return randomMove();
+    }
+    final Square target = player.getSquare();
     if (target == null) {
       return randomMove();
     }
 
-    final List<Direction> path = Navigation.shortestPath(getSquare(), target,
-        this);
-    if (path != null && !path.isEmpty()) {
-      final Direction d = path.get(0);
-      if (path.size() <= SHYNESS) {
+    if (Navigation.isWithin(getSquare(), target, SHYNESS, this)) {
+      final Direction d = Navigation.firstStep(getSquare(), target, this);
+      if (d != null) {
         return OPPOSITES.get(d);
       }
-      return d;
+      return randomMove();
+    }
+
+    final List<Direction> path = getPathTracker().shortestPath(getSquare(), target,
+        this);
+    if (path != null && !path.isEmpty()) {
+      return path.get(0);
     }
     return randomMove();
   }
 
   @Override
   protected Object clone() throws CloneNotSupportedException {
-    return new Clyde(super.sprites);
+    return continueStream(new Clyde(super.sprites, getSeed()));
   }
 }
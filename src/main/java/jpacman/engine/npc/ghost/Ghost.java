@@ -3,9 +3,12 @@ package jpacman.engine.npc.ghost;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
+import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.board.UnitRegistry;
+import jpacman.engine.level.Player;
 import jpacman.engine.npc.NPC;
 import jpacman.engine.sprite.Sprite;
 
@@ -31,18 +34,114 @@ public abstract class Ghost extends NPC {
    */
   private final int intervalVariation;
 
+  /**
+   * The seed of the random stream of this ghost.
+   */
+  private final long seed;
+
+  /**
+   * The random stream of this ghost, used for its intervals and random moves.
+   */
+  private final RandomStream random;
+
+  /**
+   * The path searches of this ghost.
+   */
+  private final PathTracker paths = new PathTracker();
+
   /**
    * Creates a new ghost.
    *
    * @param spriteMap The sprites for every direction.
    * @param moveInterval The base interval of movement.
    * @param intervalVariation The variation of the interval.
+   * @param seed The seed of the random stream of this ghost.
    */
   protected Ghost(final Map<Direction, Sprite> spriteMap, final int moveInterval,
-      final int intervalVariation) {
+      final int intervalVariation, final long seed) {
     this.sprites = spriteMap;
     this.intervalVariation = intervalVariation;
     this.moveInterval = moveInterval;
+    this.seed = seed;
+    this.random = new RandomStream(seed);
+  }
+
+  /**
+   * Returns the seed of the random stream of this ghost. A copy of a ghost is created with the
+   * same seed and then continued to where this ghost is in the stream, see
+   * {@link #continueStream(Ghost)}.
+   *
+   * @return The seed of the random stream of this ghost.
+   */
+  protected long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Moves the random stream of a copy of this ghost to where the stream of this ghost is, so the
+   * copy draws the same values this ghost will draw next. The stream of this ghost is not
+   * disturbed.
+   *
+   * @param copy A copy of this ghost, created with the seed of this ghost.
+   * @param <G> The type of the copy.
+   * @return The copy.
+   */
+  protected <G extends Ghost> G continueStream(final G copy) {
+    final Ghost target = copy;
+    assert target.seed == this.seed;
+    target.random.continueFrom(this.random);
+    return copy;
+  }
+
+  /**
+   * @return The path searches of this ghost, which reuse what earlier searches learned.
+   */
+  protected PathTracker getPathTracker() {
+    return this.paths;
+  }
+
+  /**
+   * Calculates the next move of this ghost, searching for the nearest player on its own, see
+   * {@link #nextMove(NearestUnits)}.
+   *
+   * @return The direction to move in, or <code>null</code> if no move could be devised.
+   */
+  @Override
+  public Direction nextMove() {
+    final UnitRegistry registry = getRegistry();
+    if (registry == null) {
+      return nextMove(null);
+    }
+    return nextMove(new NearestUnits(registry, UnitKind.PLAYER, this));
+  }
+
+  /**
+   * Calculates the next move of this ghost. Ghosts that decide in the same state of the game can
+   * share one search for the nearest players, so the search is only done once for all of them.
+   *
+   * @param players The search for the players nearest to the squares of the board, or
+   * <code>null</code> to search the board around this ghost.
+   * @return The direction to move in, or <code>null</code> if no move could be devised.
+   */
+  public abstract Direction nextMove(NearestUnits players);
+
+  /**
+   * Finds the player nearest to this ghost that it can walk to.
+   *
+   * @param players The search for the players nearest to the squares of the board, or
+   * <code>null</code> to search the board around this ghost.
+   * @return The nearest player, or <code>null</code> if none can be reached.
+   */
+  protected Unit findNearestPlayer(final NearestUnits players) {
+    if (players == null) {
+      return Navigation.findNearest(Player.class, getSquare(), this);
+    }
+    return players.nearestTo(getSquare());
+  }
+
+  @Override
+  public UnitKind getKind() {
+    return UnitKind.GHOST;
   }
 
   @Override
@@ -52,7 +151,10 @@ public abstract class Ghost extends NPC {
 
   @Override
   public long getInterval() {
-    return this.moveInterval + new Random().nextInt(this.intervalVariation);
+    if (this.intervalVariation == 0) {
+      return this.moveInterval;
+    }
+    return this.moveInterval + this.random.nextInt(this.intervalVariation);
   }
 
   /**
@@ -72,7 +174,7 @@ public abstract class Ghost extends NPC {
     if (directions.isEmpty()) {
       return null;
     }
-    final int i = new Random().nextInt(directions.size());
+    final int i = this.random.nextInt(directions.size());
     return directions.get(i);
   }
 }
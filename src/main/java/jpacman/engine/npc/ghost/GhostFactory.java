@@ -1,5 +1,6 @@
 package jpacman.engine.npc.ghost;
 
+import java.util.SplittableRandom;
 import jpacman.engine.sprite.PacManSprites;
 
 /**
@@ -15,12 +16,51 @@ public class GhostFactory {
   private final PacManSprites sprites;
 
   /**
-   * Creates a new ghost factory.
+   * The seed of the game, from which the streams of all ghosts are derived.
+   */
+  private final long seed;
+
+  /**
+   * The root of the random streams, handing out the seed of every new ghost.
+   */
+  private final SplittableRandom streams;
+
+  /**
+   * Creates a new ghost factory with a random seed.
    *
    * @param spriteStore The sprite provider.
    */
   public GhostFactory(final PacManSprites spriteStore) {
+    this(spriteStore, new SplittableRandom().nextLong());
+  }
+
+  /**
+   * Creates a new ghost factory. Factories with the same seed create ghosts with the same
+   * random streams, in the order in which they are created.
+   *
+   * @param spriteStore The sprite provider.
+   * @param seed The seed of the game.
+   */
+  public GhostFactory(final PacManSprites spriteStore, final long seed) {
     this.sprites = spriteStore;
+    this.seed = seed;
+    this.streams = new SplittableRandom(seed);
+  }
+
+  /**
+   * @return The seed of the game.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Derives the seed of the random stream of the next ghost from the seed of the game.
+   *
+   * @return The seed of a new, independent random stream.
+   */
+  public long nextStreamSeed() {
+    return this.streams.split().nextLong();
   }
 
   /**
@@ -30,7 +70,8 @@ public class GhostFactory {
    * @see Blinky
    */
   public Ghost createBlinky() {
-    return new Blinky(this.sprites.getGhostSprite(GhostColor.RED));
+    return new Blinky(this.sprites.getGhostSprite(GhostColor.RED),
+        nextStreamSeed());
   }
 
   /**
@@ -40,7 +81,8 @@ public class GhostFactory {
    * @see Pinky
    */
   public Ghost createPinky() {
-    return new Pinky(this.sprites.getGhostSprite(GhostColor.PINK));
+    return new Pinky(this.sprites.getGhostSprite(GhostColor.PINK),
+        nextStreamSeed());
   }
 
   /**
@@ -50,7 +92,8 @@ public class GhostFactory {
    * @see Inky
    */
   public Ghost createInky() {
-    return new Inky(this.sprites.getGhostSprite(GhostColor.CYAN));
+    return new Inky(this.sprites.getGhostSprite(GhostColor.CYAN),
+        nextStreamSeed());
   }
 
   /**
@@ -60,6 +103,7 @@ public class GhostFactory {
    * @see Clyde
    */
   public Ghost createClyde() {
-    return new Clyde(this.sprites.getGhostSprite(GhostColor.ORANGE));
+    return new Clyde(this.sprites.getGhostSprite(GhostColor.ORANGE),
+        nextStreamSeed());
   }
 }
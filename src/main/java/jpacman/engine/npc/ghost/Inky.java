@@ -2,10 +2,10 @@ package jpacman.engine.npc.ghost;
 
 import java.util.List;
 import java.util.Map;
+import jpacman.engine.board.Board;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
-import jpacman.engine.level.Player;
 import jpacman.engine.sprite.Sprite;
 
 /**
@@ -57,9 +57,10 @@ public final class Inky extends Ghost {
    * Creates a new "Inky", a.k.a. Bashful.
    *
    * @param spriteMap The sprites for this ghost.
+   * @param seed The seed of the random stream of this ghost.
    */
-  public Inky(final Map<Direction, Sprite> spriteMap) {
-    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION);
+  public Inky(final Map<Direction, Sprite> spriteMap, final long seed) {
+    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION, seed);
   }
 
   /**
@@ -81,44 +82,36 @@ public final class Inky extends Ghost {
    * </p>
    *
    * <p>
-   * <b>Implementation:</b> by lack of a coordinate system there is a
-   * workaround: first determine the square of Blinky (A) and the square 2
-   * squares away from Pac-Man (B). Then determine the shortest path from A to
-   * B regardless of terrain and walk that same path from B. This is the
-   * destination.
+   * <b>Implementation:</b> first determine the square of Blinky (A) and the
+   * square 2 squares away from Pac-Man (B). The destination lies as far from
+   * B as B lies from A, in the same direction, taking the shortest way
+   * around the edges of the board.
    * </p>
    */
   // CHECKSTYLE:OFF To keep this more readable.
   @Override
-  public Direction nextMove() {
-    final Unit blinky = Navigation.findNearest(Blinky.class, getSquare());
+  public Direction nextMove(final NearestUnits players) {
+    final Unit blinky = Navigation.findNearest(Blinky.class, getSquare(), this);
     if (blinky == null) {
       return randomMove();
     }
 
-    final Unit player = Navigation.findNearest(Player.class, getSquare());
+    final Unit player = findNearestPlayer(players);
     if (player == null) {
       return randomMove();
     }
 
     final Direction targetDirection = player.getDirection();
-    Square playerDestination = player.getSquare();
-    for (int i = 0; i < SQUARES_AHEAD; i++) {
-      playerDestination = playerDestination.getSquareAt(targetDirection);
-    }
+    final Board board = player.getSquare().getBoard();
+    final Square playerDestination = board.squareAt(player.getSquare(),
+        targetDirection.getDeltaX() * SQUARES_AHEAD, targetDirection.getDeltaY() * SQUARES_AHEAD);
 
-    Square destination = playerDestination;
-    final List<Direction> firstHalf = Navigation.shortestPath(blinky.getSquare(),
-        playerDestination, null);
-    if (firstHalf == null) {
-      return randomMove();
-    }
-
-    for (final Direction d : firstHalf) {
-      destination = playerDestination.getSquareAt(d);
-    }
+    final Square blinkySquare = blinky.getSquare();
+    Square destination = board.squareAt(playerDestination,
+        board.offsetX(blinkySquare, playerDestination),
+        board.offsetY(blinkySquare, playerDestination));
 
-    final List<Direction> path = Navigation.shortestPath(getSquare(),
+    final List<Direction> path = getPathTracker().shortestPath(getSquare(),
         destination, this);
     if (path != null && !path.isEmpty()) {
       return path.get(0);
@@ -128,7 +121,7 @@ public final class Inky extends Ghost {
 
   @Override
   protected Object clone() throws CloneNotSupportedException {
-    return new Inky(super.sprites);
+    return continueStream(new Inky(super.sprites, getSeed()));
   }
   // CHECKSTYLE:ON
 
@@ -1,14 +1,24 @@
 package jpacman.engine.npc.ghost;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import jpacman.engine.board.Components;
 import jpacman.engine.board.Direction;
+import jpacman.engine.board.JunctionGraph;
+import jpacman.engine.board.PathHierarchy;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.level.Pellet;
+import jpacman.engine.level.Player;
 
 /**
  * Navigation provides utility to nagivate on {@link Square}s.
@@ -32,7 +42,11 @@ public final class Navigation {
    * <code>null</code>, this method will ignore terrain and find the shortest path whether it can
    * actually be reached or not.
    * @return The shortest path to the destination or <code>null</code> if no such path could be
-   * found. When the destination is the current square, an empty list is returned.
+   * found. When the destination is the current square, an empty list is returned. When the
+   * traveller cannot occupy the destination, or the destination lies in another connected
+   * component, see {@link Components}, <code>null</code> is returned without searching. Boards
+   * with a {@link JunctionGraph} are searched from junction to junction, boards with a
+   * {@link PathHierarchy} from cluster to cluster, which may give a slightly longer path.
    */
   public static List<Direction> shortestPath(final Square from, final Square to,
       final Unit traveller) {
@@ -45,39 +59,157 @@ public final class Navigation {
     if (from.equals(to)) {
       return new ArrayList<>();
     }
+    if (traveller != null
+        && (!to.isAccessibleTo(traveller) || !Components.mayConnect(from, to))) {
+      return null;
+    }
+    final JunctionGraph graph = JunctionGraph.of(from);
+    if (traveller != null && ignored.isEmpty() && graph != null && graph == JunctionGraph.of(to)) {
+      return graph.shortestPath(from, to);
+    }
+    final PathHierarchy hierarchy = PathHierarchy.of(from);
+    if (traveller != null && ignored.isEmpty() && hierarchy != null
+        && hierarchy == PathHierarchy.of(to)) {
+      return hierarchy.shortestPath(from, to);
+    }
 
-    final List<Node> targets = new ArrayList<>();
+    final Deque<Node> targets = new ArrayDeque<>();
     final Set<Square> visited = new HashSet<>();
     visited.addAll(ignored);
+    visited.add(from);
     targets.add(new Node(null, from, null));
     while (!targets.isEmpty()) {
-      final Node n = targets.remove(0);
+      final Node n = targets.poll();
       final Square s = n.getSquare();
       if (s.equals(to)) {
         return n.getPath();
       }
-      visited.add(s);
       addNewTargets(traveller, targets, visited, n, s);
     }
     return null;
   }
 
-  private static void addNewTargets(final Unit traveller, final List<Node> targets,
+  /**
+   * Queues the unvisited neighbours of a square the traveller can enter. Squares are marked as
+   * visited when they are queued, so every square is queued at most once.
+   */
+  private static void addNewTargets(final Unit traveller, final Deque<Node> targets,
       final Set<Square> visited, final Node n, final Square s) {
     for (final Direction d : Direction.values()) {
       final Square target = s.getSquareAt(d);
-      if (!visited.contains(target)
-          && (traveller == null || target
-          .isAccessibleTo(traveller))) {
+      if ((traveller == null || target.isAccessibleTo(traveller))
+          && visited.add(target)) {
         targets.add(new Node(d, target, n));
       }
     }
   }
 
+  /**
+   * Determines whether a destination can be reached within a number of steps. The search stops
+   * as soon as it finds the destination or has looked at all squares within that distance, so
+   * its cost does not depend on the size of the board.
+   *
+   * @param from The starting square.
+   * @param to The destination.
+   * @param maxDistance The largest number of steps allowed.
+   * @param traveller The traveller attempting to reach the destination, or <code>null</code> to
+   * ignore terrain.
+   * @return <code>true</code> iff there is a path of at most <code>maxDistance</code> steps.
+   */
+  public static boolean isWithin(final Square from, final Square to, final int maxDistance,
+      final Unit traveller) {
+    if (from.equals(to)) {
+      return maxDistance >= 0;
+    }
+    if (traveller != null
+        && (!to.isAccessibleTo(traveller) || !Components.mayConnect(from, to))) {
+      return false;
+    }
+    Deque<Square> ring = new ArrayDeque<>();
+    final Set<Square> visited = new HashSet<>();
+    ring.add(from);
+    visited.add(from);
+    for (int distance = 1; distance <= maxDistance && !ring.isEmpty(); distance++) {
+      final Deque<Square> next = new ArrayDeque<>();
+      for (final Square square : ring) {
+        for (final Direction d : Direction.values()) {
+          final Square target = square.getSquareAt(d);
+          if (target.equals(to)) {
+            return true;
+          }
+          if ((traveller == null || target.isAccessibleTo(traveller)) && visited.add(target)) {
+            next.add(target);
+          }
+        }
+      }
+      ring = next;
+    }
+    return false;
+  }
+
+  /**
+   * Calculates the first step of the shortest path, without building the rest of the path.
+   *
+   * @param from The starting square.
+   * @param to The destination.
+   * @param traveller The traveller attempting to reach the destination, or <code>null</code> to
+   * ignore terrain.
+   * @return The first step towards the destination, or <code>null</code> if it cannot be reached
+   * or is the starting square. Like {@link #shortestPath(Square, Square, Unit)}, boards with a
+   * {@link PathHierarchy} may give the first step of a slightly longer path.
+   */
+  public static Direction firstStep(final Square from, final Square to, final Unit traveller) {
+    if (from.equals(to)) {
+      return null;
+    }
+    if (traveller != null
+        && (!to.isAccessibleTo(traveller) || !Components.mayConnect(from, to))) {
+      return null;
+    }
+    final PathHierarchy hierarchy = PathHierarchy.of(from);
+    if (traveller != null && hierarchy != null && hierarchy == PathHierarchy.of(to)) {
+      return hierarchy.firstStep(from, to);
+    }
+    final JunctionGraph graph = JunctionGraph.of(from);
+    if (traveller != null && graph != null && graph == JunctionGraph.of(to)) {
+      return graph.firstStep(from, to);
+    }
+
+    final Deque<Square> toDo = new ArrayDeque<>();
+    final Map<Square, Direction> firstSteps = new HashMap<>();
+    for (final Direction d : Direction.values()) {
+      final Square target = from.getSquareAt(d);
+      if (target.equals(to)) {
+        return d;
+      }
+      if ((traveller == null || target.isAccessibleTo(traveller))
+          && !target.equals(from) && !firstSteps.containsKey(target)) {
+        firstSteps.put(target, d);
+        toDo.add(target);
+      }
+    }
+    while (!toDo.isEmpty()) {
+      final Square square = toDo.remove();
+      final Direction first = firstSteps.get(square);
+      for (final Direction d : Direction.values()) {
+        final Square target = square.getSquareAt(d);
+        if (target.equals(to)) {
+          return first;
+        }
+        if ((traveller == null || target.isAccessibleTo(traveller))
+            && !target.equals(from) && !firstSteps.containsKey(target)) {
+          firstSteps.put(target, first);
+          toDo.add(target);
+        }
+      }
+    }
+    return null;
+  }
+
   /**
    * Finds the nearest unit of the given type and returns its location. This
    * method will perform a breadth first search starting from the given
-   * square.
+   * square, regardless of terrain.
    *
    * @param type The type of unit to search for.
    * @param currentLocation The starting location for the search.
@@ -86,21 +218,39 @@ public final class Navigation {
    */
   public static Unit findNearest(final Class<? extends Unit> type,
       final Square currentLocation) {
-    final List<Square> toDo = new ArrayList<>();
-    final Set<Square> visited = new HashSet<>();
+    return findNearest(type, currentLocation, null);
+  }
 
+  /**
+   * Finds the nearest unit of the given type that a traveller can walk to. This method will
+   * perform a breadth first search starting from the given square, which stops at the first
+   * square holding such a unit. To find the nearest unit for many squares at once, use
+   * {@link NearestUnits}.
+   *
+   * @param type The type of unit to search for.
+   * @param currentLocation The starting location for the search.
+   * @param traveller The traveller looking for the unit, or <code>null</code> to ignore terrain.
+   * @return The nearest unit of the given type, or <code>null</code> if no such unit could be
+   * found.
+   */
+  public static Unit findNearest(final Class<? extends Unit> type,
+      final Square currentLocation, final Unit traveller) {
+    final UnitKind kind = kindOf(type);
+    final Deque<Square> toDo = new ArrayDeque<>();
+    final Set<Square> visited = new HashSet<>();
     toDo.add(currentLocation);
+    visited.add(currentLocation);
 
     while (!toDo.isEmpty()) {
-      final Square square = toDo.remove(0);
-      final Unit unit = findUnit(type, square);
+      final Square square = toDo.remove();
+      final Unit unit = square.findOccupant(type, kind);
       if (unit != null) {
         return unit;
       }
-      visited.add(square);
       for (final Direction d : Direction.values()) {
         final Square newTarget = square.getSquareAt(d);
-        if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
+        if ((traveller == null || newTarget.isAccessibleTo(traveller))
+            && visited.add(newTarget)) {
           toDo.add(newTarget);
         }
       }
@@ -117,12 +267,29 @@ public final class Navigation {
    * does.
    */
   public static Unit findUnit(final Class<? extends Unit> type, final Square square) {
-    for (final Unit u : square.getOccupants()) {
-      if (type.isInstance(u)) {
-        return u;
-      }
+    return square.findOccupant(type, kindOf(type));
+  }
+
+  /**
+   * @param type A type of unit.
+   * @return The kind all units of the type belong to, or <code>null</code> if the type covers
+   * more than one kind.
+   */
+  static UnitKind kindOf(final Class<? extends Unit> type) {
+    if (Pellet.class.isAssignableFrom(type)) {
+      return UnitKind.PELLET;
     }
-    return null;
+    if (Player.class.isAssignableFrom(type)) {
+      return UnitKind.PLAYER;
+    }
+    if (Ghost.class.isAssignableFrom(type)) {
+      return UnitKind.GHOST;
+    }
+    if (type.isAssignableFrom(Pellet.class) || type.isAssignableFrom(Player.class)
+        || type.isAssignableFrom(Ghost.class)) {
+      return null;
+    }
+    return UnitKind.OTHER;
   }
 
   /**
@@ -0,0 +1,107 @@
+package jpacman.engine.npc.ghost;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import jpacman.engine.board.Direction;
+import jpacman.engine.board.Square;
+import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.board.UnitRegistry;
+
+/**
+ * Answers which of a number of units is nearest, for any number of squares, with one breadth
+ * first search that starts from all units at once. Every square the search reaches is labelled
+ * with its nearest unit and the distance to it. The search only goes as far as the squares asked
+ * for so far, and continues where it left off for the next one, so all questions together cost at
+ * most one search of the board.
+ *
+ * <p>
+ * The answers are only valid while the units stay where they were when the search started. A
+ * search may be shared by threads that ask at the same time, e.g. all ghosts deciding in the same
+ * tick.
+ * </p>
+ */
+public final class NearestUnits {
+
+  private final Unit traveller;
+  private final Deque<Square> frontier = new ArrayDeque<>();
+  private final Map<Square, Unit> nearest = new HashMap<>();
+  private final Map<Square, Integer> distances = new HashMap<>();
+
+  /**
+   * Starts a search from the squares of the given units.
+   *
+   * @param units The units to look for. Units that are not on a square are skipped.
+   * @param traveller The traveller that walks to the units, or <code>null</code> to ignore
+   * terrain.
+   */
+  public NearestUnits(final Collection<? extends Unit> units, final Unit traveller) {
+    this.traveller = traveller;
+    for (final Unit unit : units) {
+      final Square square = unit.getSquare();
+      if (square != null && !this.nearest.containsKey(square)) {
+        this.nearest.put(square, unit);
+        this.distances.put(square, 0);
+        this.frontier.add(square);
+      }
+    }
+  }
+
+  /**
+   * Starts a search from the squares of the units of a kind that are on the board, as kept track
+   * of by a registry.
+   *
+   * @param registry The registry of the units.
+   * @param kind The kind of units to look for.
+   * @param traveller The traveller that walks to the units, or <code>null</code> to ignore
+   * terrain.
+   */
+  public NearestUnits(final UnitRegistry registry, final UnitKind kind, final Unit traveller) {
+    this(registry.getUnits(kind), traveller);
+  }
+
+  /**
+   * @param square The square to find the nearest unit for.
+   * @return The unit nearest to the square, or <code>null</code> if none can be reached.
+   */
+  public synchronized Unit nearestTo(final Square square) {
+    search(square);
+    return this.nearest.get(square);
+  }
+
+  /**
+   * @param square The square to find the distance for.
+   * @return The number of steps from the square to its nearest unit, or <code>-1</code> if none
+   * can be reached.
+   */
+  public synchronized int distanceTo(final Square square) {
+    search(square);
+    final Integer distance = this.distances.get(square);
+    return distance == null ? -1 : distance;
+  }
+
+  /**
+   * Continues the search until it has reached a square or has nothing left to search.
+   *
+   * @param square The square to reach.
+   */
+  private void search(final Square square) {
+    while (!this.nearest.containsKey(square) && !this.frontier.isEmpty()) {
+      final Square current = this.frontier.remove();
+      final Unit unit = this.nearest.get(current);
+      final int distance = this.distances.get(current) + 1;
+      for (final Direction d : Direction.values()) {
+        final Square next = current.getSquareAt(d);
+        if ((this.traveller == null || next.isAccessibleTo(this.traveller))
+            && !this.nearest.containsKey(next)) {
+          this.nearest.put(next, unit);
+          this.distances.put(next, distance);
+          this.frontier.add(next);
+        }
+      }
+    }
+  }
+}
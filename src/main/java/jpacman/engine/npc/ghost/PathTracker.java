@@ -0,0 +1,46 @@
+package jpacman.engine.npc.ghost;
+
+import java.util.List;
+import jpacman.engine.board.Components;
+import jpacman.engine.board.Direction;
+import jpacman.engine.board.JunctionGraph;
+import jpacman.engine.board.Square;
+import jpacman.engine.board.Unit;
+
+/**
+ * Calculates shortest paths for one ghost, keeping what its earlier searches learned about the
+ * distances to its target. A ghost that chases a target that moves a square at a time searches
+ * hardly more than the path itself, see {@link JunctionGraph.Tracker}. Searches on boards without
+ * a junction graph fall back to {@link Navigation#shortestPath(Square, Square, Unit)}.
+ */
+public final class PathTracker {
+
+  /**
+   * The tracker of the last graph searched, or <code>null</code>.
+   */
+  private JunctionGraph.Tracker tracker;
+  private JunctionGraph graph;
+
+  /**
+   * Calculates the shortest path, like {@link Navigation#shortestPath(Square, Square, Unit)}.
+   *
+   * @param from The starting square.
+   * @param to The destination.
+   * @param traveller The traveller attempting to reach the destination, or <code>null</code> to
+   * ignore terrain.
+   * @return The shortest path to the destination or <code>null</code> if no such path could be
+   * found. When the destination is the current square, an empty list is returned.
+   */
+  public List<Direction> shortestPath(final Square from, final Square to, final Unit traveller) {
+    final JunctionGraph target = JunctionGraph.of(from);
+    if (traveller == null || target == null || target != JunctionGraph.of(to) || from.equals(to)
+        || !to.isAccessibleTo(traveller) || !Components.mayConnect(from, to)) {
+      return Navigation.shortestPath(from, to, traveller);
+    }
+    if (this.graph != target) {
+      this.graph = target;
+      this.tracker = target.newTracker();
+    }
+    return this.tracker.shortestPath(from, to);
+  }
+}
@@ -5,7 +5,6 @@ import java.util.Map;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
-import jpacman.engine.level.Player;
 import jpacman.engine.sprite.Sprite;
 
 /**
@@ -63,9 +62,10 @@ public final class Pinky extends Ghost {
    * Creates a new "Pinky", a.k.a. "Speedy".
    *
    * @param spriteMap The sprites for this ghost.
+   * @param seed The seed of the random stream of this ghost.
    */
-  public Pinky(final Map<Direction, Sprite> spriteMap) {
-    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION);
+  public Pinky(final Map<Direction, Sprite> spriteMap, final long seed) {
+    super(spriteMap, MOVE_INTERVAL, INTERVAL_VARIATION, seed);
   }
 
   /**
@@ -83,19 +83,17 @@ public final class Pinky extends Ghost {
    * </p>
    */
   @Override
-  public Direction nextMove() {
-    final Unit player = Navigation.findNearest(Player.class, getSquare());
+  public Direction nextMove(final NearestUnits players) {
+    final Unit player = findNearestPlayer(players);
     if (player == null) {
       return randomMove();
     }
 
     final Direction targetDirection = player.getDirection();
-    Square destination = player.getSquare();
-    for (int i = 0; i < SQUARES_AHEAD; i++) {
-      destination = destination.getSquareAt(targetDirection);
-    }
+    Square destination = player.getSquare().getBoard().squareAt(player.getSquare(),
+        targetDirection.getDeltaX() * SQUARES_AHEAD, targetDirection.getDeltaY() * SQUARES_AHEAD);
 
-    final List<Direction> path = Navigation.shortestPath(getSquare(),
+    final List<Direction> path = getPathTracker().shortestPath(getSquare(),
         destination, this);
     if (path != null && !path.isEmpty()) {
       return path.get(0);
@@ -105,6 +103,6 @@ public final class Pinky extends Ghost {
 
   @Override
   protected Object clone() throws CloneNotSupportedException {
-    return new Pinky(super.sprites);
+    return continueStream(new Pinky(super.sprites, getSeed()));
   }
 }
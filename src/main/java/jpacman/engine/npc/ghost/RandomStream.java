@@ -0,0 +1,72 @@
+package jpacman.engine.npc.ghost;
+
+import java.util.SplittableRandom;
+
+/**
+ * The random stream of a ghost. It draws the same values as a {@link SplittableRandom} created
+ * with the same seed, but keeps its state in a single field, so a copy of a ghost can continue
+ * the stream of the original where it is, see {@link #continueFrom(RandomStream)}.
+ */
+final class RandomStream {
+
+  /**
+   * The step added to the state for every value, as used by {@link SplittableRandom}.
+   */
+  private static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+  /**
+   * The state of the stream, advanced by {@link #GAMMA} for every value drawn.
+   */
+  private long state;
+
+  /**
+   * Creates a new stream.
+   *
+   * @param seed The seed of the stream.
+   */
+  RandomStream(final long seed) {
+    this.state = seed;
+  }
+
+  /**
+   * Moves this stream to where another stream is, so both draw the same values from now on.
+   *
+   * @param other The stream to continue.
+   */
+  void continueFrom(final RandomStream other) {
+    this.state = other.state;
+  }
+
+  /**
+   * Draws the next value, like {@link SplittableRandom#nextInt(int)}: values that would make
+   * some results more likely than others are rejected.
+   *
+   * @param bound The bound on the value, must be positive.
+   * @return A value between 0 (inclusive) and the bound (exclusive).
+   */
+  int nextInt(final int bound) {
+    assert bound > 0;
+    int r = next();
+    final int m = bound - 1;
+    if ((bound & m) == 0) {
+      return r & m;
+    }
+    int u = r >>> 1;
+    r = u % bound;
+    while (u + m - r < 0) {
+      u = next() >>> 1;
+      r = u % bound;
+    }
+    return r;
+  }
+
+  /**
+   * @return The next 32 random bits.
+   */
+  private int next() {
+    this.state += GAMMA;
+    long z = this.state;
+    z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+    return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+  }
+}
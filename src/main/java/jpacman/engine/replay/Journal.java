@@ -0,0 +1,115 @@
+package jpacman.engine.replay;
+
+import java.util.zip.CRC32;
+import jpacman.engine.board.Direction;
+import jpacman.engine.board.Unit;
+import jpacman.engine.level.Level;
+
+/**
+ * The binary format of a game journal, which records every move applied to a level so the game
+ * can be replayed exactly from its map.
+ *
+ * <p>
+ * A journal starts with a header: the magic number, the format version, the checksum of the map
+ * the level was parsed from, the seed of the game and a byte of flags, see {@link #PELLET_LAYER}.
+ * It is followed by one record per tick: the
+ * number of the tick, the number of moves as an unsigned short and, for every move in the order it
+ * was applied, the index of the unit as an unsigned short and the ordinal of the direction. The player has index 0, the ghosts follow in
+ * the order of {@link Level#getGhosts()}. All numbers are big-endian.
+ * </p>
+ */
+public final class Journal {
+
+  /**
+   * The first four bytes of every journal, "PMJL".
+   */
+  public static final int MAGIC = 0x504D4A4C;
+
+  /**
+   * The version of the format written by {@link JournalWriter}.
+   */
+  public static final short VERSION = 3;
+
+  /**
+   * The size of the header in bytes.
+   */
+  public static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 1;
+
+  /**
+   * The flag set in the header when the map was parsed with a pellet layer, see
+   * {@link jpacman.engine.level.MapParser#withPelletLayer()}, so it is replayed with one too.
+   */
+  public static final int PELLET_LAYER = 1;
+
+  /**
+   * The size of a tick record without its moves, in bytes.
+   */
+  public static final int TICK_SIZE = 8 + 2;
+
+  /**
+   * The size of a single move in bytes.
+   */
+  public static final int MOVE_SIZE = 2 + 1;
+
+  /**
+   * The largest number of moves in a tick, and the largest index of a unit.
+   */
+  public static final int MAX_UNITS = 0xFFFF;
+
+  /**
+   * The index of the player.
+   */
+  static final int PLAYER = 0;
+
+  /**
+   * The directions by ordinal.
+   */
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private Journal() {
+  }
+
+  /**
+   * @param map The contents of the map a level is parsed from.
+   * @return The checksum identifying the map in a journal.
+   */
+  public static long checksum(final byte[] map) {
+    final CRC32 crc = new CRC32();
+    crc.update(map, 0, map.length);
+    return crc.getValue();
+  }
+
+  /**
+   * @param level The level the unit is on.
+   * @param unit The unit to look up.
+   * @return The index of the unit in a journal of the level.
+   */
+  static int indexOf(final Level level, final Unit unit) {
+    if (unit == level.getPlayer()) {
+      return PLAYER;
+    }
+    final int ghost = level.getGhosts().indexOf(unit);
+    assert ghost >= 0 : "Unit not on level: " + unit;
+    return ghost + 1;
+  }
+
+  /**
+   * @param level The level the unit is on.
+   * @param index The index of the unit in a journal of the level.
+   * @return The unit with the index.
+   */
+  static Unit unitAt(final Level level, final int index) {
+    if (index == PLAYER) {
+      return level.getPlayer();
+    }
+    return level.getGhosts().get(index - 1);
+  }
+
+  /**
+   * @param ordinal The ordinal of a direction in a journal.
+   * @return The direction.
+   */
+  static Direction directionAt(final int ordinal) {
+    return DIRECTIONS[ordinal];
+  }
+}
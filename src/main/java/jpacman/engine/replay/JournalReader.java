@@ -0,0 +1,180 @@
+package jpacman.engine.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.Level.Move;
+
+/**
+ * Reads a {@link Journal} tick by tick.
+ */
+public class JournalReader {
+
+  /**
+   * The size of the buffer the journal is read into.
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The channel the journal is read from.
+   */
+  private final ReadableByteChannel channel;
+
+  /**
+   * The bytes read from the channel but not yet decoded.
+   */
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+  /**
+   * The checksum of the map the journal was recorded on.
+   */
+  private final long mapChecksum;
+
+  /**
+   * The seed of the recorded game.
+   */
+  private final long seed;
+
+  /**
+   * The flags of the journal, see {@link Journal#PELLET_LAYER}.
+   */
+  private final int flags;
+
+  /**
+   * The number of the last tick read, or -1 if no tick was read yet.
+   */
+  private long tick = -1L;
+
+  /**
+   * Creates a new reader and reads the header of the journal.
+   *
+   * @param channel The channel to read the journal from, positioned at the start of the journal.
+   * @throws IOException When the channel does not contain a journal this reader understands.
+   */
+  public JournalReader(final ReadableByteChannel channel) throws IOException {
+    assert channel != null;
+    this.channel = channel;
+    this.buffer.flip();
+
+    if (!require(Journal.HEADER_SIZE)) {
+      throw new IOException("Journal header is truncated.");
+    }
+    if (this.buffer.getInt() != Journal.MAGIC) {
+      throw new IOException("Not a journal.");
+    }
+    final short version = this.buffer.getShort();
+    if (version != Journal.VERSION) {
+      throw new IOException("Unsupported journal version: " + version);
+    }
+    this.mapChecksum = this.buffer.getLong();
+    this.seed = this.buffer.getLong();
+    this.flags = this.buffer.get();
+    if ((this.flags & ~Journal.PELLET_LAYER) != 0) {
+      throw new IOException("Unsupported journal flags: " + this.flags);
+    }
+  }
+
+  /**
+   * @return The checksum of the map the journal was recorded on.
+   */
+  public long getMapChecksum() {
+    return this.mapChecksum;
+  }
+
+  /**
+   * @return The seed of the recorded game.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * @return <code>true</code> iff the map was parsed with a pellet layer when the game was
+   * recorded.
+   */
+  public boolean hasPelletLayer() {
+    return (this.flags & Journal.PELLET_LAYER) != 0;
+  }
+
+  /**
+   * @return The number of the last tick read, or -1 if no tick was read yet.
+   */
+  public long getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Continues reading at another tick of the journal, e.g. the tick after a keyframe.
+   *
+   * @param offset The offset of the tick in the journal.
+   * @param ticks The number of ticks before it.
+   * @throws IOException When the channel of the journal cannot seek.
+   */
+  public void seek(final long offset, final long ticks) throws IOException {
+    if (!(this.channel instanceof SeekableByteChannel)) {
+      throw new IOException("Journal cannot seek.");
+    }
+    ((SeekableByteChannel) this.channel).position(offset);
+    this.buffer.clear().flip();
+    this.tick = ticks - 1L;
+  }
+
+  /**
+   * Reads the moves of the next tick. A record that was cut off, e.g. because the game crashed
+   * while it was written, ends the journal.
+   *
+   * @param level The level the moves apply to.
+   * @return The moves of the next tick in the order they were applied, or <code>null</code> at
+   * the end of the journal.
+   * @throws IOException When the journal could not be read.
+   */
+  public List<Move> nextTick(final Level level) throws IOException {
+    if (!require(Journal.TICK_SIZE)) {
+      return null;
+    }
+    final long number = this.buffer.getLong(this.buffer.position());
+    final int count = this.buffer.getShort(this.buffer.position() + Long.BYTES) & 0xFFFF;
+    if (!require(Journal.TICK_SIZE + count * Journal.MOVE_SIZE)) {
+      return null;
+    }
+    this.buffer.position(this.buffer.position() + Journal.TICK_SIZE);
+
+    final List<Move> moves = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final int unit = this.buffer.getShort() & 0xFFFF;
+      final int direction = this.buffer.get() & 0xFF;
+      moves.add(new Move(Journal.unitAt(level, unit), Journal.directionAt(direction)));
+    }
+    this.tick = number;
+    return moves;
+  }
+
+  /**
+   * Makes sure the buffer holds at least the given number of bytes, reading more from the channel
+   * if needed.
+   *
+   * @param bytes The number of bytes needed.
+   * @return <code>false</code> if the journal ends before that many bytes.
+   * @throws IOException When the journal could not be read.
+   */
+  private boolean require(final int bytes) throws IOException {
+    if (this.buffer.remaining() >= bytes) {
+      return true;
+    }
+    this.buffer.compact();
+    try {
+      while (this.buffer.position() < bytes) {
+        if (this.channel.read(this.buffer) < 0) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      this.buffer.flip();
+    }
+  }
+}
@@ -0,0 +1,273 @@
+package jpacman.engine.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.Level.Move;
+
+/**
+ * Writes a {@link Journal} of a game.
+ *
+ * <p>
+ * The game thread only encodes the moves of a tick into a small record and hands it over, the
+ * records are buffered and written to the channel by a separate thread, so a slow disk never
+ * delays a tick. The buffer is written out whenever the writer catches up with the game, so a
+ * journal of a live game is at most a few ticks behind.
+ * </p>
+ *
+ * <p>
+ * Every few ticks the writer can also record a keyframe of the level through a
+ * {@link KeyframeWriter}, so replays can seek. Keyframes are encoded on the game thread, which is
+ * the only one that may look at the live level, and written after the journal up to their tick.
+ * </p>
+ */
+public class JournalWriter implements Closeable {
+
+  /**
+   * The size of the buffer records are collected in before they are written.
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Marks the end of the journal in the queue of records.
+   */
+  private static final Pending END = new Pending(new byte[0], null, 0L);
+
+  /**
+   * The channel the journal is written to.
+   */
+  private final WritableByteChannel channel;
+
+  /**
+   * The encoded records waiting to be written.
+   */
+  private final BlockingQueue<Pending> records = new LinkedBlockingQueue<>();
+
+  /**
+   * The writer of the keyframes, or <code>null</code> if no keyframes are recorded.
+   */
+  private final KeyframeWriter keyframes;
+
+  /**
+   * The thread writing the records.
+   */
+  private final Thread writer;
+
+  /**
+   * The number of the next tick.
+   */
+  private long tick;
+
+  /**
+   * The error that stopped the writer, if any.
+   */
+  private volatile IOException failure;
+
+  /**
+   * Creates a new journal and starts writing its header.
+   *
+   * @param channel The channel to write the journal to, which is closed with this writer.
+   * @param mapChecksum The checksum of the map, see {@link Journal#checksum(byte[])}.
+   * @param seed The seed of the game.
+   */
+  public JournalWriter(final WritableByteChannel channel, final long mapChecksum,
+      final long seed) {
+    this(channel, mapChecksum, seed, false, null);
+  }
+
+  /**
+   * Creates a new journal with keyframes and starts writing its header.
+   *
+   * @param channel The channel to write the journal to, which is closed with this writer.
+   * @param mapChecksum The checksum of the map, see {@link Journal#checksum(byte[])}.
+   * @param seed The seed of the game.
+   * @param pelletLayer Whether the map was parsed with a pellet layer, see
+   * {@link Journal#PELLET_LAYER}.
+   * @param keyframes The writer of the keyframes, which is closed with this writer, or
+   * <code>null</code> to not record keyframes.
+   */
+  public JournalWriter(final WritableByteChannel channel, final long mapChecksum,
+      final long seed, final boolean pelletLayer, final KeyframeWriter keyframes) {
+    assert channel != null;
+    this.channel = channel;
+    this.keyframes = keyframes;
+
+    final byte[] header = new byte[Journal.HEADER_SIZE];
+    ByteBuffer.wrap(header)
+        .putInt(Journal.MAGIC)
+        .putShort(Journal.VERSION)
+        .putLong(mapChecksum)
+        .putLong(seed)
+        .put((byte) (pelletLayer ? Journal.PELLET_LAYER : 0));
+    this.records.add(new Pending(header, null, 0L));
+
+    this.writer = new Thread(this::drain, "journal-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Records the moves of the next tick. Must only be called by the thread running the game, after
+   * the moves were applied.
+   *
+   * @param level The level the moves were applied to.
+   * @param moves The moves of the tick, in the order they were applied.
+   * @throws IllegalArgumentException When the tick has more moves, or a unit a larger index, than
+   * a journal can hold, see {@link Journal#MAX_UNITS}.
+   */
+  public void record(final Level level, final List<Move> moves) {
+    if (moves.size() > Journal.MAX_UNITS) {
+      throw new IllegalArgumentException("Too many moves to record: " + moves.size());
+    }
+    if (this.failure != null) {
+      return;
+    }
+
+    final byte[] record = new byte[Journal.TICK_SIZE + moves.size() * Journal.MOVE_SIZE];
+    final ByteBuffer buffer = ByteBuffer.wrap(record);
+    buffer.putLong(this.tick).putShort((short) moves.size());
+    for (final Move move : moves) {
+      final int unit = Journal.indexOf(level, move.getUnit());
+      if (unit > Journal.MAX_UNITS) {
+        throw new IllegalArgumentException("Too many units to record: " + unit);
+      }
+      buffer.putShort((short) unit).put((byte) move.getDirection().ordinal());
+    }
+    this.tick++;
+
+    byte[] keyframe = null;
+    if (this.keyframes != null && this.tick % this.keyframes.getInterval() == 0L) {
+      keyframe = Keyframes.encode(level, this.tick);
+    }
+    this.records.add(new Pending(record, keyframe, this.tick));
+  }
+
+  /**
+   * @return The number of ticks recorded so far.
+   */
+  public long getTicks() {
+    return this.tick;
+  }
+
+  /**
+   * Waits until all recorded ticks are written, then closes the channel.
+   *
+   * @throws IOException When the journal could not be written.
+   */
+  @Override
+  public void close() throws IOException {
+    this.records.add(END);
+    try {
+      this.writer.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while closing the journal.");
+    } finally {
+      closeChannels();
+    }
+    if (this.failure != null) {
+      throw this.failure;
+    }
+  }
+
+  /**
+   * Closes the journal and keyframe channels.
+   *
+   * @throws IOException When a channel could not be closed.
+   */
+  private void closeChannels() throws IOException {
+    try {
+      this.channel.close();
+    } finally {
+      if (this.keyframes != null) {
+        this.keyframes.close();
+      }
+    }
+  }
+
+  /**
+   * Writes the records until the end of the journal.
+   */
+  private void drain() {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    long offset = 0L;
+    try {
+      while (true) {
+        final Pending pending = this.records.take();
+        if (pending == END) {
+          flush(buffer);
+          return;
+        }
+        if (buffer.remaining() < pending.record.length) {
+          flush(buffer);
+        }
+        buffer.put(pending.record);
+        offset += pending.record.length;
+        if (pending.keyframe != null) {
+          flush(buffer);
+          this.keyframes.write(pending.ticks, offset, pending.keyframe);
+        } else if (this.records.isEmpty()) {
+          flush(buffer);
+        }
+      }
+    } catch (final IOException e) {
+      this.failure = e;
+    } catch (final InterruptedException e) {
+      this.failure = new InterruptedIOException("Journal writer was interrupted.");
+    }
+  }
+
+  /**
+   * Writes the contents of the buffer to the channel and clears it.
+   *
+   * @param buffer The buffer to write.
+   * @throws IOException When the buffer could not be written.
+   */
+  private void flush(final ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * A record waiting to be written, with the keyframe taken after it, if any.
+   */
+  private static final class Pending {
+
+    /**
+     * The encoded record.
+     */
+    private final byte[] record;
+
+    /**
+     * The keyframe of the level after the record, or <code>null</code>.
+     */
+    private final byte[] keyframe;
+
+    /**
+     * The number of ticks applied after the record.
+     */
+    private final long ticks;
+
+    /**
+     * Creates a new pending record.
+     *
+     * @param record The encoded record.
+     * @param keyframe The keyframe of the level after the record, or <code>null</code>.
+     * @param ticks The number of ticks applied after the record.
+     */
+    Pending(final byte[] record, final byte[] keyframe, final long ticks) {
+      this.record = record;
+      this.keyframe = keyframe;
+      this.ticks = ticks;
+    }
+  }
+}
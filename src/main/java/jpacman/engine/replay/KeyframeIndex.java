@@ -0,0 +1,148 @@
+package jpacman.engine.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@link Keyframes} of a journal, memory-mapped for reading. Looking up the keyframe of a tick
+ * is a binary search over the mapped index, so it does not depend on the length of the game. Only
+ * the keyframe that is read is mapped from the keyframe file, so the keyframe file may grow
+ * beyond what a single mapping can hold.
+ */
+public final class KeyframeIndex {
+
+  /**
+   * An index without keyframes.
+   */
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  /**
+   * The mapped index file.
+   */
+  private final ByteBuffer index;
+
+  /**
+   * The keyframe file, or <code>null</code> if there are no keyframes.
+   */
+  private final Path keyframes;
+
+  /**
+   * The number of keyframes in the index.
+   */
+  private final int size;
+
+  /**
+   * Creates a new index.
+   *
+   * @param index The index file.
+   * @param keyframes The keyframe file, or <code>null</code> if there are no keyframes.
+   */
+  private KeyframeIndex(final ByteBuffer index, final Path keyframes) {
+    this.index = index;
+    this.keyframes = keyframes;
+    // an entry that was cut off while it was written is ignored
+    this.size = index.capacity() / Keyframes.ENTRY_SIZE;
+  }
+
+  /**
+   * Maps the keyframes of a journal. A journal recorded without keyframes has an empty index.
+   *
+   * @param journal The journal file.
+   * @return The keyframes of the journal.
+   * @throws IOException When the keyframe files could not be read, or the index is too large to
+   * be mapped.
+   */
+  public static KeyframeIndex open(final Path journal) throws IOException {
+    final Path indexFile = Keyframes.indexFile(journal);
+    if (!Files.exists(indexFile)) {
+      return new KeyframeIndex(EMPTY, null);
+    }
+    try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Keyframe index too large: " + indexFile);
+      }
+      // the mapping stays valid after the file is closed
+      return new KeyframeIndex(channel.map(MapMode.READ_ONLY, 0L, channel.size()),
+          Keyframes.keyframeFile(journal));
+    }
+  }
+
+  /**
+   * @return The number of keyframes.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Finds the last keyframe at or before a tick.
+   *
+   * @param ticks The number of ticks to seek to.
+   * @return The number of the last keyframe with at most the given number of ticks applied, or -1
+   * if there is none.
+   */
+  public int floor(final long ticks) {
+    int low = 0;
+    int high = this.size - 1;
+    int found = -1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (getTicks(mid) <= ticks) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @param entry The number of a keyframe.
+   * @return The number of ticks applied in the keyframe.
+   */
+  public long getTicks(final int entry) {
+    return this.index.getLong(entry * Keyframes.ENTRY_SIZE);
+  }
+
+  /**
+   * @param entry The number of a keyframe.
+   * @return The offset of the tick after the keyframe in the journal.
+   */
+  public long getJournalOffset(final int entry) {
+    return this.index.getLong(entry * Keyframes.ENTRY_SIZE + 16);
+  }
+
+  /**
+   * @param entry The number of a keyframe.
+   * @return The offset of the keyframe in the keyframe file.
+   */
+  private long getKeyframeOffset(final int entry) {
+    return this.index.getLong(entry * Keyframes.ENTRY_SIZE + 8);
+  }
+
+  /**
+   * @param entry The number of a keyframe.
+   * @return The keyframe, positioned at its start.
+   * @throws IOException When the keyframe could not be read.
+   */
+  ByteBuffer getKeyframe(final int entry) throws IOException {
+    try (FileChannel channel = FileChannel.open(this.keyframes, StandardOpenOption.READ)) {
+      final long offset = getKeyframeOffset(entry);
+      long end = channel.size();
+      if (entry + 1 < this.size) {
+        end = getKeyframeOffset(entry + 1);
+      }
+      if (offset < 0 || end < offset || end > channel.size()
+          || end - offset > Integer.MAX_VALUE) {
+        throw new IOException("Invalid keyframe offset: " + offset);
+      }
+      return channel.map(MapMode.READ_ONLY, offset, end - offset);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package jpacman.engine.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the {@link Keyframes} of a journal. Keyframes are handed to this writer by the
+ * {@link JournalWriter} of the journal, on its own thread.
+ */
+public class KeyframeWriter implements Closeable {
+
+  /**
+   * The channel the keyframes are written to.
+   */
+  private final FileChannel keyframes;
+
+  /**
+   * The channel the index is written to.
+   */
+  private final WritableByteChannel index;
+
+  /**
+   * The number of ticks between keyframes.
+   */
+  private final int interval;
+
+  /**
+   * The buffer an index entry is encoded in.
+   */
+  private final ByteBuffer entry = ByteBuffer.allocate(Keyframes.ENTRY_SIZE);
+
+  /**
+   * Creates a new keyframe writer.
+   *
+   * @param keyframes The channel to write the keyframes to, which is closed with this writer.
+   * @param index The channel to write the index to, which is closed with this writer.
+   * @param interval The number of ticks between keyframes.
+   */
+  public KeyframeWriter(final FileChannel keyframes, final WritableByteChannel index,
+      final int interval) {
+    assert keyframes != null;
+    assert index != null;
+    assert interval > 0;
+    this.keyframes = keyframes;
+    this.index = index;
+    this.interval = interval;
+  }
+
+  /**
+   * Creates the keyframe and index files of a journal, see {@link Keyframes#keyframeFile(Path)}
+   * and {@link Keyframes#indexFile(Path)}.
+   *
+   * @param journal The journal file.
+   * @param interval The number of ticks between keyframes.
+   * @return A new keyframe writer.
+   * @throws IOException When the files could not be created.
+   */
+  public static KeyframeWriter create(final Path journal, final int interval) throws IOException {
+    final FileChannel keyframes = open(Keyframes.keyframeFile(journal));
+    try {
+      return new KeyframeWriter(keyframes, open(Keyframes.indexFile(journal)), interval);
+    } catch (final IOException e) {
+      keyframes.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @param file The file to create.
+   * @return A channel writing to the empty file.
+   * @throws IOException When the file could not be created.
+   */
+  private static FileChannel open(final Path file) throws IOException {
+    return FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * @return The number of ticks between keyframes.
+   */
+  public int getInterval() {
+    return this.interval;
+  }
+
+  /**
+   * Writes a keyframe and its index entry.
+   *
+   * @param ticks The number of ticks applied in the keyframe.
+   * @param journalOffset The offset of the next tick in the journal.
+   * @param keyframe The encoded keyframe.
+   * @throws IOException When the keyframe could not be written.
+   */
+  void write(final long ticks, final long journalOffset, final byte[] keyframe)
+      throws IOException {
+    final long offset = this.keyframes.position();
+    writeFully(this.keyframes, ByteBuffer.wrap(keyframe));
+
+    this.entry.clear();
+    this.entry.putLong(ticks).putLong(offset).putLong(journalOffset).flip();
+    writeFully(this.index, this.entry);
+  }
+
+  /**
+   * @param channel The channel to write to.
+   * @param buffer The bytes to write.
+   * @throws IOException When the bytes could not be written.
+   */
+  private static void writeFully(final WritableByteChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.keyframes.close();
+    } finally {
+      this.index.close();
+    }
+  }
+}
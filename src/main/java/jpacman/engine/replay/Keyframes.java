@@ -0,0 +1,64 @@
+package jpacman.engine.replay;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.LevelSerializer;
+
+/**
+ * The binary format of the keyframes of a {@link Journal}, which let a replay start from the
+ * state of the game at a recorded tick instead of from its first tick.
+ *
+ * <p>
+ * Keyframes are written next to the journal, into a keyframe file and an index file. A keyframe
+ * holds the number of ticks applied so far followed by a snapshot of the level, see
+ * {@link LevelSerializer}. The index holds an entry of {@link #ENTRY_SIZE} bytes per keyframe:
+ * the number of ticks applied, the offset of the keyframe in the keyframe file and the offset of
+ * the next tick in the journal. All numbers are big-endian.
+ * </p>
+ */
+public final class Keyframes {
+
+  /**
+   * The number of ticks between keyframes when none is given.
+   */
+  public static final int DEFAULT_INTERVAL = 64;
+
+  /**
+   * The size of an entry in the index file in bytes.
+   */
+  public static final int ENTRY_SIZE = 8 + 8 + 8;
+
+  private Keyframes() {
+  }
+
+  /**
+   * @param journal The journal file.
+   * @return The keyframe file of the journal.
+   */
+  public static Path keyframeFile(final Path journal) {
+    return journal.resolveSibling(journal.getFileName() + ".keyframes");
+  }
+
+  /**
+   * @param journal The journal file.
+   * @return The index file of the journal.
+   */
+  public static Path indexFile(final Path journal) {
+    return journal.resolveSibling(journal.getFileName() + ".index");
+  }
+
+  /**
+   * Encodes the state of a level.
+   *
+   * @param level The level to encode.
+   * @param ticks The number of ticks applied to the level.
+   * @return The keyframe.
+   */
+  static byte[] encode(final Level level, final long ticks) {
+    final ByteBuffer buffer = ByteBuffer.allocate(8 + LevelSerializer.sizeOf(level));
+    buffer.putLong(ticks);
+    LevelSerializer.write(level, buffer);
+    return buffer.array();
+  }
+}
@@ -0,0 +1,193 @@
+package jpacman.engine.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import jpacman.PacmanConfigurationException;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.Level.Move;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.LevelSerializer;
+import jpacman.engine.level.MapCompiler;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.PlayerFactory;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.PacManSprites;
+
+/**
+ * Rebuilds a game from its map and its {@link Journal}, applying the recorded ticks as fast as
+ * they can be read.
+ */
+public class Replayer {
+
+  /**
+   * The sprite store used by the rebuilt level.
+   */
+  private final PacManSprites sprites;
+
+  /**
+   * Creates a new replayer.
+   *
+   * @param spriteStore The sprite store used by the rebuilt level.
+   */
+  public Replayer(final PacManSprites spriteStore) {
+    this.sprites = spriteStore;
+  }
+
+  /**
+   * Replays the whole journal.
+   *
+   * @param map The contents of the map the journal was recorded on.
+   * @param journal The channel to read the journal from.
+   * @return The level in the state after the last recorded tick.
+   * @throws IOException When the journal could not be read.
+   * @throws PacmanConfigurationException When the journal was recorded on another map.
+   */
+  public Level replay(final byte[] map, final ReadableByteChannel journal) throws IOException {
+    return replay(map, journal, Long.MAX_VALUE);
+  }
+
+  /**
+   * Replays the first ticks of the journal.
+   *
+   * @param map The contents of the map the journal was recorded on.
+   * @param journal The channel to read the journal from.
+   * @param ticks The number of ticks to replay.
+   * @return The level in the state after the given number of ticks, or after the last recorded
+   * tick if the journal is shorter.
+   * @throws IOException When the journal could not be read.
+   * @throws PacmanConfigurationException When the journal was recorded on another map.
+   */
+  public Level replay(final byte[] map, final ReadableByteChannel journal, final long ticks)
+      throws IOException {
+    final JournalReader reader = open(map, journal);
+    final Level level = makeLevel(map, reader.getSeed(), reader.hasPelletLayer());
+    play(level, reader, ticks);
+    return level;
+  }
+
+  /**
+   * Replays a journal up to a tick, starting from the last keyframe before it instead of from the
+   * first tick, see {@link Keyframes}.
+   *
+   * @param map The contents of the map the journal was recorded on.
+   * @param journal The journal file.
+   * @param ticks The number of ticks to replay.
+   * @return The level in the state after the given number of ticks, or after the last recorded
+   * tick if the journal is shorter.
+   * @throws IOException When the journal or its keyframes could not be read.
+   * @throws PacmanConfigurationException When the journal was recorded on another map.
+   */
+  public Level seek(final byte[] map, final Path journal, final long ticks) throws IOException {
+    try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+      final JournalReader reader = open(map, channel);
+      final KeyframeIndex index = KeyframeIndex.open(journal);
+      final int keyframe = index.floor(ticks);
+      if (keyframe < 0) {
+        final Level level = makeLevel(map, reader.getSeed(), reader.hasPelletLayer());
+        play(level, reader, ticks);
+        return level;
+      }
+
+      final ByteBuffer frame = index.getKeyframe(keyframe);
+      final long replayed = frame.getLong();
+      final Level level = makeSerializer(reader.getSeed()).read(frame);
+      reader.seek(index.getJournalOffset(keyframe), replayed);
+      play(level, reader, ticks - replayed);
+      return level;
+    }
+  }
+
+  /**
+   * @param map The contents of the map the journal was recorded on.
+   * @param journal The channel to read the journal from.
+   * @return A reader of the journal, positioned at its first tick.
+   * @throws IOException When the journal could not be read.
+   * @throws PacmanConfigurationException When the journal was recorded on another map.
+   */
+  private static JournalReader open(final byte[] map, final ReadableByteChannel journal)
+      throws IOException {
+    final JournalReader reader = new JournalReader(journal);
+    if (reader.getMapChecksum() != Journal.checksum(map)) {
+      throw new PacmanConfigurationException("Journal was not recorded on this map.");
+    }
+    return reader;
+  }
+
+  /**
+   * Applies the next ticks of a journal to a level.
+   *
+   * @param level The level.
+   * @param reader The reader of the journal.
+   * @param ticks The number of ticks to apply.
+   * @throws IOException When the journal could not be read.
+   */
+  private static void play(final Level level, final JournalReader reader, final long ticks)
+      throws IOException {
+    long replayed = 0L;
+    List<Move> moves = replayed < ticks ? reader.nextTick(level) : null;
+    while (moves != null) {
+      level.moveAll(moves);
+      replayed++;
+      moves = replayed < ticks ? reader.nextTick(level) : null;
+    }
+  }
+
+  /**
+   * Creates the level of a game recorded without a pellet layer, with its player registered.
+   *
+   * @param map The contents of the map, as text or compiled.
+   * @param seed The seed of the recorded game.
+   * @return The level in its initial state.
+   * @throws IOException When the map could not be read.
+   */
+  protected Level makeLevel(final byte[] map, final long seed) throws IOException {
+    return makeLevel(map, seed, false);
+  }
+
+  /**
+   * Creates the level of the recorded game, with its player registered.
+   *
+   * @param map The contents of the map, as text or compiled.
+   * @param seed The seed of the recorded game.
+   * @param pelletLayer Whether the map is parsed with a pellet layer, see
+   * {@link MapParser#withPelletLayer()}.
+   * @return The level in its initial state.
+   * @throws IOException When the map could not be read.
+   */
+  protected Level makeLevel(final byte[] map, final long seed, final boolean pelletLayer)
+      throws IOException {
+    final GhostFactory ghosts = new GhostFactory(this.sprites, seed);
+    final MapParser parser = new MapParser(
+        new LevelFactory(this.sprites, ghosts),
+        new BoardFactory(this.sprites));
+    if (pelletLayer) {
+      parser.withPelletLayer();
+    }
+    final ByteBuffer compiled = ByteBuffer.wrap(map);
+    final Level level;
+    if (MapCompiler.isCompiled(compiled)) {
+      level = parser.parseMap(compiled);
+    } else {
+      level = parser.parseMap(new ByteArrayInputStream(map));
+    }
+    level.registerPlayer(new PlayerFactory(this.sprites).createPacMan());
+    return level;
+  }
+
+  /**
+   * @param seed The seed of the recorded game.
+   * @return A serializer creating the units of the recorded game.
+   */
+  private LevelSerializer makeSerializer(final long seed) {
+    final GhostFactory ghosts = new GhostFactory(this.sprites, seed);
+    return new LevelSerializer(new LevelFactory(this.sprites, ghosts), ghosts,
+        new BoardFactory(this.sprites), new PlayerFactory(this.sprites));
+  }
+}
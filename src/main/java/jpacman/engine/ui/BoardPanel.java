@@ -3,11 +3,13 @@ package jpacman.engine.ui;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.util.function.Supplier;
 import javax.swing.JPanel;
 import jpacman.engine.board.Board;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
 import jpacman.engine.game.Game;
+import jpacman.engine.level.Level;
 
 /**
  * Panel displaying a game.
@@ -33,19 +35,22 @@ class BoardPanel extends JPanel {
   private static final int SQUARE_SIZE = 16;
 
   /**
-   * The game to display.
+   * Provides the state of the level to display on every repaint.
    */
-  private final Game game;
+  private final Supplier<Level> levelView;
 
   /**
    * Creates a new board panel that will display the provided game.
    *
    * @param game The game to display.
+   * @param levelView Provides the state of the level to display on every repaint, which may be a
+   * snapshot rather than the level of the game itself.
    */
-  BoardPanel(final Game game) {
+  BoardPanel(final Game game, final Supplier<Level> levelView) {
     super();
     assert game != null;
-    this.game = game;
+    assert levelView != null;
+    this.levelView = levelView;
 
     final Board board = game.getLevel().getBoard();
 
@@ -60,7 +65,7 @@ class BoardPanel extends JPanel {
   @Override
   public void paint(final Graphics g) {
     assert g != null;
-    render(this.game.getLevel().getBoard(), g, getSize());
+    render(this.levelView.get().getBoard(), g, getSize());
   }
 
   /**
@@ -101,6 +106,12 @@ class BoardPanel extends JPanel {
   private void render(final Square square, final Graphics g, final int x, final int y, final int w,
       final int h) {
     square.getSprite().draw(g, x, y, w, h);
+    if (square.hasPellet()) {
+      square.getPelletLayer().getSprite().draw(g, x, y, w, h);
+    }
+    if (square.getKinds() == 0) {
+      return;
+    }
     for (final Unit unit : square.getOccupants()) {
       unit.getSprite().draw(g, x, y, w, h);
     }
@@ -6,9 +6,11 @@ import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import jpacman.engine.game.Game;
+import jpacman.engine.level.Level;
 import jpacman.engine.ui.ScorePanel.ScoreFormatter;
 
 /**
@@ -56,13 +58,16 @@ public class PacManUI extends JFrame {
    * @param keyMappings The map of keyCode-to-action entries that will be added as key listeners to
    * the interface.
    * @param sf The formatter used to display the current score.
+   * @param levelView Provides the state of the level to draw in every frame.
    */
   public PacManUI(final Game game, final Map<String, Action> buttons,
-      final Map<Integer, Action> keyMappings, final ScoreFormatter sf) {
+      final Map<Integer, Action> keyMappings, final ScoreFormatter sf,
+      final Supplier<Level> levelView) {
     super("JPac-Man");
     assert game != null;
     assert buttons != null;
     assert keyMappings != null;
+    assert levelView != null;
 
     setDefaultCloseOperation(EXIT_ON_CLOSE);
 
@@ -76,7 +81,7 @@ public class PacManUI extends JFrame {
       this.scorePanel.setScoreFormatter(sf);
     }
 
-    this.boardPanel = new BoardPanel(game);
+    this.boardPanel = new BoardPanel(game, levelView);
 
     final Container contentPanel = getContentPane();
     contentPanel.setLayout(new BorderLayout());
@@ -3,7 +3,9 @@ package jpacman.engine.ui;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 import jpacman.engine.game.Game;
+import jpacman.engine.level.Level;
 import jpacman.engine.ui.ScorePanel.ScoreFormatter;
 
 /**
@@ -43,6 +45,11 @@ public class PacManUiBuilder {
    */
   private ScoreFormatter scoreFormatter = null;
 
+  /**
+   * Provides the state of the level to draw, <code>null</code> to draw the level of the game.
+   */
+  private Supplier<Level> levelView = null;
+
   /**
    * Creates a new Pac-Man UI builder without any mapped keys or buttons.
    */
@@ -65,7 +72,11 @@ public class PacManUiBuilder {
       addStartButton(game);
       addStopButton(game);
     }
-    return new PacManUI(game, this.buttons, this.keyMappings, this.scoreFormatter);
+    Supplier<Level> view = this.levelView;
+    if (view == null) {
+      view = game::getLevel;
+    }
+    return new PacManUI(game, this.buttons, this.keyMappings, this.scoreFormatter, view);
   }
 
   /**
@@ -156,4 +167,16 @@ public class PacManUiBuilder {
     this.scoreFormatter = sf;
     return this;
   }
+
+  /**
+   * Provide the state of the level to draw in every frame, for instance a snapshot published by
+   * the thread that runs the game. By default the level of the game itself is drawn.
+   *
+   * @param view The provider of the level to draw.
+   * @return The builder.
+   */
+  public PacManUiBuilder withLevelView(final Supplier<Level> view) {
+    this.levelView = view;
+    return this;
+  }
 }
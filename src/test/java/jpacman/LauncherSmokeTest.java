@@ -212,18 +212,6 @@ public class LauncherSmokeTest {
     launcher.getPacmanThread().setUncaughtExceptionHandler(((t, e) -> {
       this.threadException = e;
     }));
-    launcher.getBlinkyThread().setUncaughtExceptionHandler(((t, e) -> {
-      this.threadException = e;
-    }));
-    launcher.getInkyThread().setUncaughtExceptionHandler(((t, e) -> {
-      this.threadException = e;
-    }));
-    launcher.getPinkyThread().setUncaughtExceptionHandler(((t, e) -> {
-      this.threadException = e;
-    }));
-    launcher.getClydeThread().setUncaughtExceptionHandler(((t, e) -> {
-      this.threadException = e;
-    }));
   }
 
   private void assertThreadsAreAliveAndNoExceptionWasThrown(final Launcher launcher) {
@@ -232,10 +220,6 @@ public class LauncherSmokeTest {
     }
     assertTrue("game thread died", launcher.getGameStateThread().isAlive());
     assertTrue("pac thread died", launcher.getPacmanThread().isAlive());
-    assertTrue("blinky thread died", launcher.getBlinkyThread().isAlive());
-    assertTrue("clyde thread died", launcher.getClydeThread().isAlive());
-    assertTrue("inky thread died", launcher.getInkyThread().isAlive());
-    assertTrue("pinky thread died", launcher.getPinkyThread().isAlive());
 
     assertEquals(this.threadException, null);
   }
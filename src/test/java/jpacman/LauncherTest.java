@@ -0,0 +1,37 @@
+package jpacman;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the resources used by a {@link Launcher}.
+ */
+public class LauncherTest {
+
+	/**
+	 * The folder the journals are written to.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Verifies that a missing map is reported, rather than failing while
+	 * computing its checksum.
+	 *
+	 * @throws Exception Never.
+	 */
+	@Test(expected = PacmanConfigurationException.class)
+	public void journalOfMissingMap() throws Exception {
+		new Launcher().withMapFile("/missing.txt")
+				.withJournalFile(this.folder.newFile().getPath()).makeJournal();
+	}
+
+	/**
+	 * Verifies that a missing map is reported when the level is made.
+	 */
+	@Test(expected = PacmanConfigurationException.class)
+	public void levelOfMissingMap() {
+		new Launcher().withMapFile("/missing.txt").makeLevel();
+	}
+}
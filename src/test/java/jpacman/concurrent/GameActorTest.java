@@ -0,0 +1,106 @@
+package jpacman.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+import java.util.Arrays;
+import java.util.List;
+import jpacman.concurrent.ghosts.BlinkyActor;
+import jpacman.concurrent.ghosts.ClydeActor;
+import jpacman.concurrent.ghosts.Event;
+import jpacman.concurrent.ghosts.InkyActor;
+import jpacman.concurrent.ghosts.PinkyActor;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Direction;
+import jpacman.engine.game.GameFactory;
+import jpacman.engine.game.SinglePlayerGame;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.Level.Move;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.PlayerFactory;
+import jpacman.engine.npc.ghost.Blinky;
+import jpacman.engine.npc.ghost.Clyde;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.npc.ghost.Inky;
+import jpacman.engine.npc.ghost.Pinky;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the order in which the {@link GameActor} applies the intents of a tick.
+ */
+public class GameActorTest {
+
+	/**
+	 * The game the intents are resolved in.
+	 */
+	private SinglePlayerGame game;
+
+	/**
+	 * The actor under test.
+	 */
+	private GameActor actor;
+
+	/**
+	 * Creates a game with all four ghosts.
+	 */
+	@Before
+	public void setUp() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 5L)),
+				new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+						"#######",
+						"#P   G#",
+						"#G G G#",
+						"#######"));
+		this.game = (SinglePlayerGame) new GameFactory(new PlayerFactory(sprites))
+				.createSinglePlayerGame(level);
+		this.actor = new GameActor(this.game);
+	}
+
+	/**
+	 * Verifies that Pac-Man moves first, followed by the ghosts in the order of
+	 * {@link GameActor#GHOST_PRIORITY}, whatever the order of their intents.
+	 */
+	@Test
+	public void playerFirstThenGhostPriority() {
+		final PacmanActor pacman = new PacmanActor();
+		final List<Move> moves = this.actor.resolveIntents(Lists.newArrayList(
+				new Event(new ClydeActor(), Direction.WEST),
+				new Event(new InkyActor(), Direction.NORTH),
+				new Event(pacman, Direction.EAST),
+				new Event(new PinkyActor(), Direction.SOUTH),
+				new Event(new BlinkyActor(), Direction.EAST)));
+
+		final Level level = this.game.getLevel();
+		assertThat(moves).extracting(Move::getUnit).containsExactly(this.game.getPlayer(),
+				level.getGhost(Blinky.class), level.getGhost(Pinky.class),
+				level.getGhost(Inky.class), level.getGhost(Clyde.class));
+		assertThat(moves).extracting(Move::getDirection).containsExactly(Direction.EAST,
+				Direction.EAST, Direction.SOUTH, Direction.NORTH, Direction.WEST);
+	}
+
+	/**
+	 * Verifies that only the latest intent of every actor is kept, and that Pac-Man keeps going
+	 * in his own direction without an intent.
+	 */
+	@Test
+	public void latestIntentWins() {
+		final BlinkyActor blinky = new BlinkyActor();
+		final List<Move> moves = this.actor.resolveIntents(Arrays.asList(
+				new Event(blinky, Direction.WEST),
+				new Event(blinky, Direction.SOUTH),
+				new Event(blinky, Direction.EAST)));
+
+		assertThat(moves).extracting(Move::getUnit).containsExactly(this.game.getPlayer(),
+				this.game.getLevel().getGhost(Blinky.class));
+		assertThat(moves).extracting(Move::getDirection)
+				.containsExactly(this.game.getPlayer().getDirection(), Direction.EAST);
+	}
+}
@@ -0,0 +1,159 @@
+package jpacman.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests publishing snapshots through a {@link SnapshotChannel}.
+ */
+public class SnapshotChannelTest {
+
+	/**
+	 * The live state, which is only written by the test thread.
+	 */
+	private int[] live;
+
+	/**
+	 * The number of snapshots built.
+	 */
+	private AtomicInteger builds;
+
+	/**
+	 * The threads that built snapshots.
+	 */
+	private List<Thread> builders;
+
+	/**
+	 * The channel under test, of copies of the live state.
+	 */
+	private SnapshotChannel<int[]> channel;
+
+	/**
+	 * The readers of the channel.
+	 */
+	private ExecutorService readers;
+
+	/**
+	 * Creates the channel under test.
+	 */
+	@Before
+	public void setUp() {
+		this.live = new int[] {0, 0};
+		this.builds = new AtomicInteger();
+		this.builders = new ArrayList<>();
+		this.channel = new SnapshotChannel<>(() -> {
+			this.builds.incrementAndGet();
+			this.builders.add(Thread.currentThread());
+			return this.live.clone();
+		});
+		this.readers = Executors.newFixedThreadPool(4);
+	}
+
+	/**
+	 * Stops the readers.
+	 */
+	@After
+	public void tearDown() {
+		this.readers.shutdownNow();
+	}
+
+	/**
+	 * Verifies that one snapshot is built for a version that is read, shared by all readers, and
+	 * that versions nobody reads are not built.
+	 *
+	 * @throws Exception If a reader fails.
+	 */
+	@Test
+	public void snapshotPerVersion() throws Exception {
+		this.channel.publish();
+		final int[] first = readAll().get(0);
+
+		write(1);
+		assertThat(this.builds.get()).isEqualTo(2);
+		final List<int[]> views = readAll();
+		assertThat(views.get(0)).containsExactly(1, 1).isNotSameAs(first);
+		for (final int[] view : views) {
+			assertThat(view).isSameAs(views.get(0));
+		}
+
+		write(2);
+		write(3);
+		assertThat(this.builds.get()).isEqualTo(3);
+		assertThat(this.channel.get()).containsExactly(2, 2);
+		assertThat(this.channel.getVersion()).isEqualTo(3L);
+		assertThat(this.builders).containsOnly(Thread.currentThread());
+	}
+
+	/**
+	 * Verifies that readers during a write get the previous snapshot, and that the state halfway
+	 * through the write is never copied.
+	 *
+	 * @throws Exception If a reader fails.
+	 */
+	@Test
+	public void readDuringWrite() throws Exception {
+		this.channel.publish();
+		this.channel.get();
+
+		this.live[0] = 1;
+		for (final int[] view : readAll()) {
+			assertThat(view).containsExactly(0, 0);
+		}
+		this.live[1] = 1;
+		this.channel.endWrite();
+
+		assertThat(this.builds.get()).isEqualTo(2);
+		assertThat(this.channel.get()).containsExactly(1, 1);
+		assertThat(this.builders).containsOnly(Thread.currentThread());
+	}
+
+	/**
+	 * Verifies that a cleared channel has no snapshot until the next write that was asked for.
+	 */
+	@Test
+	public void clear() {
+		this.channel.publish();
+		this.channel.clear();
+		assertThat(this.channel.get()).isNull();
+
+		write(1);
+		assertThat(this.channel.get()).containsExactly(1, 1);
+	}
+
+	/**
+	 * Changes the live state as the writer.
+	 *
+	 * @param value The new value of both halves of the state.
+	 */
+	private void write(final int value) {
+		this.live[0] = value;
+		this.live[1] = value;
+		this.channel.endWrite();
+	}
+
+	/**
+	 * @return The snapshots read by several readers at once.
+	 * @throws Exception If a reader fails.
+	 */
+	private List<int[]> readAll() throws Exception {
+		final List<Callable<int[]>> reads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			reads.add(this.channel::get);
+		}
+		final List<int[]> views = new ArrayList<>();
+		for (final Future<int[]> view : this.readers.invokeAll(reads)) {
+			views.add(view.get());
+		}
+		return views;
+	}
+}
@@ -0,0 +1,185 @@
+package jpacman.concurrent.ghosts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import jpacman.concurrent.GameView;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Direction;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.PlayerFactory;
+import jpacman.engine.npc.ghost.Blinky;
+import jpacman.engine.npc.ghost.Ghost;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.npc.ghost.NearestUnits;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ghosts deciding on their moves in a {@link GhostPhase}.
+ */
+public class GhostPhaseTest {
+
+	/**
+	 * The view all ghosts decide on.
+	 */
+	private GameView view;
+
+	/**
+	 * The pool the decisions are made on.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * Creates the view and the pool.
+	 */
+	@Before
+	public void setUp() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 3L)),
+				new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+						"#########",
+						"#P     G#",
+						"# ##### #",
+						"#G  G  G#",
+						"#########"));
+		level.registerPlayer(new PlayerFactory(sprites).createPacMan());
+		this.view = new GameView(level, null);
+		this.pool = new ForkJoinPool(2);
+	}
+
+	/**
+	 * Stops the pool.
+	 */
+	@After
+	public void tearDown() {
+		this.pool.shutdownNow();
+	}
+
+	/**
+	 * Verifies that every ghost makes a decision that it can follow on the view.
+	 */
+	@Test
+	public void decisions() {
+		final List<GhostActor> actors = Arrays.asList(
+				new BlinkyActor(), new PinkyActor(), new InkyActor(), new ClydeActor());
+		final List<Event> intents = new GhostPhase(actors, this.pool).decide(this.view);
+
+		assertThat(intents).hasSize(actors.size());
+		for (int i = 0; i < actors.size(); i++) {
+			assertThat(intents.get(i).getACTOR()).isSameAs(actors.get(i));
+			final Ghost ghost = this.view.getLEVEL().getGhost(actors.get(i).getGhostType());
+			assertThat(ghost.getSquare().getSquareAt(intents.get(i).getDIRECTION())
+					.isAccessibleTo(ghost)).isTrue();
+		}
+	}
+
+	/**
+	 * Verifies that the intents are in the order of the actors, not in the order the decisions
+	 * were finished.
+	 */
+	@Test
+	public void joinOrder() {
+		final List<GhostActor> actors = Arrays.asList(
+				new FixedActor(Direction.NORTH, 100L), new FixedActor(Direction.SOUTH, 0L),
+				new FixedActor(Direction.WEST, 50L));
+		final List<Event> intents = new GhostPhase(actors, this.pool).decide(this.view);
+
+		assertThat(intents).extracting(Event::getACTOR).containsExactlyElementsOf(actors);
+		assertThat(intents).extracting(Event::getDIRECTION)
+				.containsExactly(Direction.NORTH, Direction.SOUTH, Direction.WEST);
+	}
+
+	/**
+	 * Verifies that all ghosts of a tick share one search for the nearest players.
+	 */
+	@Test
+	public void sharedSearch() {
+		final FixedActor first = new FixedActor(Direction.NORTH, 0L);
+		final FixedActor second = new FixedActor(Direction.SOUTH, 0L);
+		new GhostPhase(Arrays.asList(first, second), this.pool).decide(this.view);
+
+		assertThat(first.players).isNotNull().isSameAs(second.players);
+		assertThat(first.players.nearestTo(this.view.getLEVEL().getGhost(Blinky.class).getSquare()))
+				.isSameAs(this.view.getLEVEL().getPlayer());
+	}
+
+	/**
+	 * Verifies that a decision that fails makes the whole phase fail, instead of losing the intent
+	 * of the ghost.
+	 */
+	@Test
+	public void failingDecision() {
+		final List<GhostActor> actors = Arrays.asList(
+				new FixedActor(Direction.NORTH, 0L), new FixedActor(null, 0L));
+		try {
+			new GhostPhase(actors, this.pool).decide(this.view);
+			fail("The failing decision was not reported.");
+		} catch (final IllegalStateException e) {
+			assertThat(e).hasMessageContaining("no decision");
+		}
+	}
+
+	/**
+	 * An actor that takes its time to decide on the same direction every time.
+	 */
+	private static final class FixedActor extends GhostActor {
+
+		/**
+		 * The direction decided on, or <code>null</code> to fail.
+		 */
+		private final Direction direction;
+
+		/**
+		 * The time a decision takes, in milliseconds.
+		 */
+		private final long delay;
+
+		/**
+		 * The search for the players of the last decision.
+		 */
+		private volatile NearestUnits players;
+
+		/**
+		 * Creates a new actor.
+		 *
+		 * @param direction The direction decided on, or <code>null</code> to fail.
+		 * @param delay The time a decision takes, in milliseconds.
+		 */
+		FixedActor(final Direction direction, final long delay) {
+			this.direction = direction;
+			this.delay = delay;
+		}
+
+		@Override
+		protected Direction nextMove(final GameView gameView, final NearestUnits nearest) {
+			this.players = nearest;
+			try {
+				Thread.sleep(this.delay);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (this.direction == null) {
+				throw new IllegalStateException("no decision");
+			}
+			return this.direction;
+		}
+
+		@Override
+		public Class<? extends Ghost> getGhostType() {
+			return Blinky.class;
+		}
+	}
+}
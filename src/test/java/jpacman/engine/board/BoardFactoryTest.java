@@ -1,8 +1,12 @@
 package jpacman.engine.board;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import java.util.Collections;
 import jpacman.engine.sprite.PacManSprites;
 import org.junit.Before;
 import org.junit.Test;
@@ -93,4 +97,66 @@ public class BoardFactoryTest {
 		assertEquals(s2, s1.getSquareAt(Direction.SOUTH));
 		assertEquals(s1, s2.getSquareAt(Direction.SOUTH));
 	}
+
+	/**
+	 * Verifies that boards with the same walls, and copies of a board, share their topology, and
+	 * that boards with other walls do not.
+	 */
+	@Test
+	public void sharedTopology() {
+		final Board board = this.factory.createBoard(grid("# ", "  "));
+		final Board same = this.factory.createBoard(grid("# ", "  "));
+		final Board copy = this.factory.copyBoard(board, Collections.<Square>emptySet());
+		final Board other = this.factory.createBoard(grid(" #", "  "));
+
+		assertSame(board.getTopology(), same.getTopology());
+		assertSame(board.getTopology(), copy.getTopology());
+		assertNotSame(board.getTopology(), other.getTopology());
+		assertEquals(1, Components.label(same));
+		assertEquals(board.squareAt(1, 1).getComponent(), same.squareAt(1, 1).getComponent());
+		assertSame(JunctionGraph.of(board.squareAt(1, 1)), JunctionGraph.of(copy.squareAt(1, 1)));
+		assertSame(copy.squareAt(0, 1), copy.squareAt(1, 1).getSquareAt(Direction.EAST));
+		assertSame(copy.squareAt(0, 1), copy.squareAt(0, 0).getSquareAt(Direction.NORTH));
+	}
+
+	/**
+	 * Verifies that a copy of a board only creates the squares holding a unit, and that those
+	 * squares read their walls and components from the shared topology.
+	 */
+	@Test
+	public void copyCreatesOccupiedSquares() {
+		final Board board = this.factory.createBoard(grid("# ", "  "));
+		new BasicUnit().occupy(board.squareAt(1, 1));
+		final Board copy = this.factory.copyBoard(board,
+				Collections.singleton(board.squareAt(0, 1)));
+
+		final TopologyBoard shared = (TopologyBoard) copy;
+		assertEquals(2, shared.getMaterializedSquares().size());
+		assertEquals(1, copy.squareAt(1, 1).getOccupants().size());
+		assertNotSame(board.squareAt(1, 1).getOccupants().get(0),
+				copy.squareAt(1, 1).getOccupants().get(0));
+		assertEquals(Collections.singletonList(copy.squareAt(0, 1)),
+				this.factory.getClonedStartSquares());
+		assertTrue(BoardFactory.isWall(copy.squareAt(0, 0)));
+		assertEquals(board.squareAt(1, 0).getComponent(), copy.squareAt(1, 0).getComponent());
+
+		final Board copyOfCopy = this.factory.copyBoard(copy, Collections.<Square>emptySet());
+		assertSame(board.getTopology(), copyOfCopy.getTopology());
+		assertEquals(1, copyOfCopy.squareAt(1, 1).getOccupants().size());
+	}
+
+	/**
+	 * @param rows The rows of the grid, with a wall for each <code>#</code>.
+	 * @return A grid of walls and ground.
+	 */
+	private Square[][] grid(final String... rows) {
+		final Square[][] grid = new Square[rows[0].length()][rows.length];
+		for (int x = 0; x < grid.length; x++) {
+			for (int y = 0; y < rows.length; y++) {
+				grid[x][y] = rows[y].charAt(x) == '#'
+						? this.factory.createWall() : this.factory.createGround();
+			}
+		}
+		return grid;
+	}
 }
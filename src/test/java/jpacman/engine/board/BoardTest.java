@@ -79,4 +79,29 @@ public class BoardTest {
 	public void verifyX0Y1() {
 		assertEquals(this.x0y1, this.board.squareAt(0, 1));
 	}
+
+	/**
+	 * Verifies that squares know their position, and that offsets and distances take the
+	 * shortest way around the edges of the board.
+	 */
+	@Test
+	public void offsets() {
+		final Square[][] grid = new Square[5][4];
+		for (int x = 0; x < 5; x++) {
+			for (int y = 0; y < 4; y++) {
+				grid[x][y] = new BasicSquare();
+			}
+		}
+		final Board b = new Board(grid);
+		final Square from = b.squareAt(0, 1);
+		assertEquals(b, from.getBoard());
+		assertEquals(0, from.getX());
+		assertEquals(1, from.getY());
+
+		assertEquals(-1, b.offsetX(from, b.squareAt(4, 1)));
+		assertEquals(2, b.offsetX(from, b.squareAt(2, 1)));
+		assertEquals(2, b.offsetY(from, b.squareAt(0, 3)));
+		assertEquals(3, b.manhattanDistance(from, b.squareAt(4, 3)));
+		assertEquals(b.squareAt(4, 0), b.squareAt(from, -1, -5));
+	}
 }
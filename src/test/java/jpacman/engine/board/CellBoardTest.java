@@ -0,0 +1,162 @@
+package jpacman.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests boards that keep their state in a {@link CellStore}.
+ */
+public class CellBoardTest {
+
+	/**
+	 * The board under test, 3 wide and 2 high with a wall at 1,0 and pellets at 0,0 and 2,1.
+	 */
+	private Board board;
+
+	/**
+	 * The cells of the board.
+	 */
+	private CellStore cells;
+
+	/**
+	 * Creates the board under test.
+	 */
+	@Before
+	public void setUp() {
+		this.cells = new CellStore(3, 2);
+		this.cells.set(1, 0, CellStore.WALL, true);
+		this.cells.set(0, 0, CellStore.PELLET, true);
+		this.cells.set(2, 1, CellStore.PELLET, true);
+		this.board = new BoardFactory(mock(PacManSprites.class)).createBoard(this.cells,
+				BasicUnit::new);
+	}
+
+	/**
+	 * Verifies that squares are created once, with their walls, pellets and neighbours.
+	 */
+	@Test
+	public void squaresFromCells() {
+		final Square square = this.board.squareAt(0, 0);
+		assertThat(this.board.squareAt(0, 0)).isSameAs(square);
+		assertThat(BoardFactory.isWall(this.board.squareAt(1, 0))).isTrue();
+		assertThat(square.isAccessibleTo(null)).isTrue();
+		assertThat(square.getOccupants()).hasSize(1);
+		assertThat(square.getSquareAt(Direction.EAST)).isSameAs(this.board.squareAt(1, 0));
+		assertThat(square.getSquareAt(Direction.WEST)).isSameAs(this.board.squareAt(2, 0));
+		assertThat(square.getSquareAt(Direction.NORTH)).isSameAs(this.board.squareAt(0, 1));
+	}
+
+	/**
+	 * Verifies that the cells are labelled without creating squares first, wrapping around the
+	 * edges of the board.
+	 */
+	@Test
+	public void components() {
+		assertThat(Components.label(this.board)).isEqualTo(1);
+		assertThat(this.board.squareAt(0, 0).getComponent())
+				.isEqualTo(this.board.squareAt(2, 0).getComponent());
+		assertThat(this.board.squareAt(1, 0).getComponent()).isEqualTo(Components.NONE);
+	}
+
+	/**
+	 * Verifies that a pellet leaving its square clears its cell.
+	 */
+	@Test
+	public void pelletLeaves() {
+		final Unit pellet = this.board.squareAt(0, 0).getOccupants().get(0);
+		assertThat(this.cells.getPelletCount()).isEqualTo(2);
+		pellet.leaveSquare();
+		assertThat(this.cells.is(0, 0, CellStore.PELLET)).isFalse();
+		assertThat(this.cells.getPelletCount()).isEqualTo(1);
+	}
+
+	/**
+	 * Verifies that other units mark their cell as occupied while they are on it.
+	 */
+	@Test
+	public void unitsOccupyCells() {
+		final Unit unit = new BasicUnit();
+		unit.occupy(this.board.squareAt(2, 1));
+		assertThat(this.cells.is(2, 1, CellStore.OCCUPIED)).isTrue();
+		unit.occupy(this.board.squareAt(0, 1));
+		assertThat(this.cells.is(2, 1, CellStore.OCCUPIED)).isFalse();
+		assertThat(this.cells.is(2, 1, CellStore.PELLET)).isTrue();
+		assertThat(this.cells.is(0, 1, CellStore.OCCUPIED)).isTrue();
+	}
+
+	/**
+	 * Verifies that a copy has its own cells and units.
+	 */
+	@Test
+	public void copy() {
+		final Unit unit = new BasicUnit();
+		unit.occupy(this.board.squareAt(2, 1));
+		final BoardFactory factory = new BoardFactory(null);
+		final Board copy = factory.copyBoard(this.board,
+				Collections.singleton(this.board.squareAt(0, 1)));
+
+		this.board.squareAt(0, 0).getOccupants().get(0).leaveSquare();
+		assertThat(copy.squareAt(0, 0).getOccupants()).hasSize(1);
+		assertThat(copy.squareAt(2, 1).getOccupants()).hasSize(2);
+		assertThat(factory.getClonedStartSquares()).containsExactly(copy.squareAt(0, 1));
+	}
+
+	/**
+	 * Verifies that threads creating the squares of a board at the same time all get the same
+	 * square, with its position and a single pellet, for every cell.
+	 *
+	 * @throws Exception If a thread fails.
+	 */
+	@Test
+	public void concurrentSquares() throws Exception {
+		final CellStore large = new CellStore(300, 100);
+		for (int x = 0; x < large.getWidth(); x += 2) {
+			large.set(x, 0, CellStore.PELLET, true);
+		}
+		final Board shared = new BoardFactory(mock(PacManSprites.class)).createBoard(large,
+				BasicUnit::new);
+		final Callable<Square[]> createAll = () -> {
+			final Square[] squares = new Square[large.getWidth() * large.getHeight()];
+			for (int y = 0; y < large.getHeight(); y++) {
+				for (int x = 0; x < large.getWidth(); x++) {
+					squares[y * large.getWidth() + x] = shared.squareAt(x, y);
+				}
+			}
+			return squares;
+		};
+
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Square[]>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				results.add(pool.submit(createAll));
+			}
+			final Square[] first = results.get(0).get();
+			for (final Future<Square[]> result : results) {
+				final Square[] squares = result.get();
+				for (int cell = 0; cell < first.length; cell++) {
+					assertThat(squares[cell]).isSameAs(first[cell]);
+				}
+			}
+			for (int cell = 0; cell < first.length; cell++) {
+				assertThat(first[cell].getX()).isEqualTo(cell % large.getWidth());
+				assertThat(first[cell].getY()).isEqualTo(cell / large.getWidth());
+			}
+			assertThat(first[2].getOccupants()).hasSize(1);
+			assertThat(large.getPelletCount()).isEqualTo(150);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
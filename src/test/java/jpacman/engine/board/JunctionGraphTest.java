@@ -0,0 +1,202 @@
+package jpacman.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.MazeGenerator;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests searching paths through a {@link JunctionGraph}.
+ */
+public class JunctionGraphTest {
+
+	/**
+	 * Verifies that the paths through the junctions are as short as a search of all squares, and
+	 * lead to the destination, on a maze with loops and tunnels.
+	 */
+	@Test
+	public void pathsAreShortest() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final List<String> map = new MazeGenerator(31, 21, 7L).withLoopDensity(0.3)
+				.withTunnels(2).generate();
+		final Board board = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 7L)),
+				new BoardFactory(sprites)).parseMap(map).getBoard();
+
+		final List<Square> open = new ArrayList<>();
+		for (int x = 0; x < board.getWidth(); x++) {
+			for (int y = 0; y < board.getHeight(); y++) {
+				if (!BoardFactory.isWall(board.squareAt(x, y))) {
+					open.add(board.squareAt(x, y));
+				}
+			}
+		}
+		final JunctionGraph graph = JunctionGraph.of(open.get(0));
+		assertThat(graph.size()).isLessThan(open.size());
+
+		final SplittableRandom random = new SplittableRandom(1L);
+		for (int i = 0; i < 200; i++) {
+			final Square from = open.get(random.nextInt(open.size()));
+			final Square to = open.get(random.nextInt(open.size()));
+			final List<Direction> path = graph.shortestPath(from, to);
+
+			assertThat(path).hasSize(distances(from).get(to));
+			Square square = from;
+			for (final Direction direction : path) {
+				square = square.getSquareAt(direction);
+				assertThat(BoardFactory.isWall(square)).isFalse();
+			}
+			assertThat(square).isSameAs(to);
+		}
+	}
+
+	/**
+	 * Verifies that the first step of a path leads one square closer to the destination, on a maze
+	 * with loops and tunnels.
+	 */
+	@Test
+	public void firstStepsAreShortest() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final List<String> map = new MazeGenerator(31, 21, 7L).withLoopDensity(0.3)
+				.withTunnels(2).generate();
+		final Board board = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 7L)),
+				new BoardFactory(sprites)).parseMap(map).getBoard();
+
+		final List<Square> open = new ArrayList<>();
+		for (int x = 0; x < board.getWidth(); x++) {
+			for (int y = 0; y < board.getHeight(); y++) {
+				if (!BoardFactory.isWall(board.squareAt(x, y))) {
+					open.add(board.squareAt(x, y));
+				}
+			}
+		}
+		final JunctionGraph graph = JunctionGraph.of(open.get(0));
+
+		final SplittableRandom random = new SplittableRandom(2L);
+		for (int i = 0; i < 200; i++) {
+			final Square from = open.get(random.nextInt(open.size()));
+			final Square to = open.get(random.nextInt(open.size()));
+			final Direction step = graph.firstStep(from, to);
+			if (from == to) {
+				assertThat(step).isNull();
+				continue;
+			}
+
+			final Map<Square, Integer> distances = distances(to);
+			assertThat(distances.get(from.getSquareAt(step))).isEqualTo(distances.get(from) - 1);
+		}
+	}
+
+	/**
+	 * Verifies that a tracker keeps finding shortest paths while its start and destination move
+	 * around, one square at a time or by jumping.
+	 */
+	@Test
+	public void trackerFollowsMovingTarget() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final List<String> map = new MazeGenerator(31, 21, 9L).withLoopDensity(0.3)
+				.withTunnels(2).generate();
+		final Board board = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 9L)),
+				new BoardFactory(sprites)).parseMap(map).getBoard();
+		final List<Square> open = new ArrayList<>();
+		for (int x = 0; x < board.getWidth(); x++) {
+			for (int y = 0; y < board.getHeight(); y++) {
+				if (!BoardFactory.isWall(board.squareAt(x, y))) {
+					open.add(board.squareAt(x, y));
+				}
+			}
+		}
+		final JunctionGraph.Tracker tracker = JunctionGraph.of(open.get(0)).newTracker();
+
+		final SplittableRandom random = new SplittableRandom(2L);
+		Square from = open.get(0);
+		Square to = open.get(open.size() - 1);
+		for (int i = 0; i < 300; i++) {
+			final List<Direction> path = tracker.shortestPath(from, to);
+			assertThat(path).hasSize(distances(from).get(to));
+			if (!path.isEmpty()) {
+				from = from.getSquareAt(path.get(0));
+			}
+			if (i % 50 == 49) {
+				to = open.get(random.nextInt(open.size()));
+			} else {
+				final Square next = to.getSquareAt(Direction.values()[random.nextInt(4)]);
+				if (!BoardFactory.isWall(next)) {
+					to = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a tracker returns the rest of its last path when the start has followed it,
+	 * also on a copy of the board.
+	 */
+	@Test
+	public void trackerReusesPath() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final Board board = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 7L)),
+				new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+						"#######", "#     #", "# # # #", "#     #", "#######")).getBoard();
+		final JunctionGraph.Tracker tracker = JunctionGraph.of(board.squareAt(1, 1)).newTracker();
+		final List<Direction> path = tracker.shortestPath(board.squareAt(1, 1),
+				board.squareAt(5, 3));
+		assertThat(path).hasSize(6);
+
+		final Board copy = new BoardFactory(null).copyBoard(board, Collections.<Square>emptySet());
+		final Square next = copy.squareAt(1, 1).getSquareAt(path.get(0));
+		assertThat(tracker.shortestPath(next, copy.squareAt(5, 3)))
+				.isEqualTo(path.subList(1, path.size()));
+	}
+
+	/**
+	 * Verifies that a loop without any junction can be searched.
+	 */
+	@Test
+	public void loopWithoutJunctions() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final Board board = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 7L)),
+				new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+						"#####", "#   #", "# # #", "#   #", "#####")).getBoard();
+		final JunctionGraph graph = JunctionGraph.of(board.squareAt(1, 1));
+		assertThat(graph.size()).isEqualTo(1);
+		assertThat(graph.shortestPath(board.squareAt(1, 2), board.squareAt(3, 2))).hasSize(4);
+		assertThat(graph.shortestPath(board.squareAt(2, 1), board.squareAt(3, 1)))
+				.containsExactly(Direction.EAST);
+	}
+
+	/**
+	 * @param from The square to start from.
+	 * @return The distances to all squares that can be reached from the start.
+	 */
+	private static Map<Square, Integer> distances(final Square from) {
+		final Map<Square, Integer> distances = new HashMap<>();
+		final Deque<Square> queue = new ArrayDeque<>();
+		distances.put(from, 0);
+		queue.add(from);
+		while (!queue.isEmpty()) {
+			final Square square = queue.remove();
+			for (final Direction direction : Direction.values()) {
+				final Square next = square.getSquareAt(direction);
+				if (!BoardFactory.isWall(next) && !distances.containsKey(next)) {
+					distances.put(next, distances.get(square) + 1);
+					queue.add(next);
+				}
+			}
+		}
+		return distances;
+	}
+}
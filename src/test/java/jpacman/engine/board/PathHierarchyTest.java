@@ -0,0 +1,93 @@
+package jpacman.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapCompiler;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.MazeGenerator;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests searching paths through a {@link PathHierarchy}.
+ */
+public class PathHierarchyTest {
+
+	/**
+	 * Verifies that the paths found lead to their destination, are not much longer than the
+	 * shortest paths and start with the first step, on a maze of many clusters with loops and
+	 * tunnels.
+	 */
+	@Test
+	public void pathsReachDestination() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final List<String> map = new MazeGenerator(101, 61, 3L).withLoopDensity(0.3)
+				.withTunnels(3).generate();
+		final Board board = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 3L)),
+				new BoardFactory(sprites)).parseMap(ByteBuffer.wrap(MapCompiler.compile(map)))
+				.getBoard();
+
+		final List<Square> open = new ArrayList<>();
+		for (int x = 0; x < board.getWidth(); x++) {
+			for (int y = 0; y < board.getHeight(); y++) {
+				if (!BoardFactory.isWall(board.squareAt(x, y))) {
+					open.add(board.squareAt(x, y));
+				}
+			}
+		}
+		final PathHierarchy hierarchy = PathHierarchy.of(open.get(0));
+		assertThat(hierarchy.size()).isPositive();
+
+		final SplittableRandom random = new SplittableRandom(1L);
+		for (int i = 0; i < 200; i++) {
+			final Square from = open.get(random.nextInt(open.size()));
+			final Square to = open.get(random.nextInt(open.size()));
+			final List<Direction> path = hierarchy.shortestPath(from, to);
+			final int shortest = distances(from).get(to);
+
+			assertThat(path.size()).isBetween(shortest, 2 * shortest);
+			Square square = from;
+			for (final Direction direction : path) {
+				square = square.getSquareAt(direction);
+				assertThat(BoardFactory.isWall(square)).isFalse();
+			}
+			assertThat(square).isSameAs(to);
+			if (!path.isEmpty()) {
+				assertThat(hierarchy.firstStep(from, to)).isEqualTo(path.get(0));
+			}
+		}
+	}
+
+	/**
+	 * @param from The square to start from.
+	 * @return The distances to all squares that can be reached from the start.
+	 */
+	private static Map<Square, Integer> distances(final Square from) {
+		final Map<Square, Integer> distances = new HashMap<>();
+		final Deque<Square> queue = new ArrayDeque<>();
+		distances.put(from, 0);
+		queue.add(from);
+		while (!queue.isEmpty()) {
+			final Square square = queue.remove();
+			for (final Direction direction : Direction.values()) {
+				final Square next = square.getSquareAt(direction);
+				if (!BoardFactory.isWall(next) && !distances.containsKey(next)) {
+					distances.put(next, distances.get(square) + 1);
+					queue.add(next);
+				}
+			}
+		}
+		return distances;
+	}
+}
@@ -1,9 +1,11 @@
 package jpacman.engine.board;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -65,4 +67,30 @@ public class SquareTest {
 		final Object[] occupantsAsArray = this.square.getOccupants().toArray();
 		assertArrayEquals(new Object[] { o1, o2 }, occupantsAsArray);
 	}
+
+	/**
+	 * Assert that the square keeps track of the kinds of its occupants, until the last unit of a
+	 * kind has left.
+	 */
+	@Test
+	public void testKinds() {
+		final Unit g1 = mock(Unit.class);
+		final Unit g2 = mock(Unit.class);
+		when(g1.getKind()).thenReturn(UnitKind.GHOST);
+		when(g2.getKind()).thenReturn(UnitKind.GHOST);
+		assertEquals(0, this.square.getKinds());
+
+		this.square.put(g1);
+		this.square.put(g2);
+		this.square.put(new BasicUnit());
+		assertTrue(this.square.holds(UnitKind.GHOST));
+		assertTrue(this.square.holds(UnitKind.OTHER));
+		assertFalse(this.square.holds(UnitKind.PELLET));
+
+		this.square.remove(g1);
+		assertTrue(this.square.holds(UnitKind.GHOST));
+		this.square.remove(g2);
+		assertFalse(this.square.holds(UnitKind.GHOST));
+		assertEquals(UnitKind.OTHER.getBit(), this.square.getKinds());
+	}
 }
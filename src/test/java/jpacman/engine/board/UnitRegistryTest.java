@@ -0,0 +1,69 @@
+package jpacman.engine.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.Player;
+import jpacman.engine.level.PlayerFactory;
+import jpacman.engine.npc.ghost.Ghost;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests keeping track of units with a {@link UnitRegistry}.
+ */
+public class UnitRegistryTest {
+
+	/**
+	 * Verifies that the registry follows units on and off the board.
+	 */
+	@Test
+	public void followsUnits() {
+		final UnitRegistry registry = new UnitRegistry();
+		final Square square = new BasicSquare();
+		final Unit unit = new BasicUnit();
+		registry.register(unit);
+		assertThat(registry.count(UnitKind.OTHER)).isEqualTo(0);
+		assertThat(registry.find(BasicUnit.class)).isSameAs(unit);
+
+		unit.occupy(square);
+		unit.occupy(new BasicSquare());
+		assertThat(registry.getUnits(UnitKind.OTHER)).containsExactly(unit);
+		unit.leaveSquare();
+		assertThat(registry.count(UnitKind.OTHER)).isEqualTo(0);
+		assertThat(registry.find(BasicUnit.class)).isSameAs(unit);
+	}
+
+	/**
+	 * Verifies that a level registers its players, ghosts and pellets, also when it is copied.
+	 */
+	@Test
+	public void levelUnits() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 7L)),
+				new BoardFactory(sprites)).parseMap(Lists.newArrayList("#####", "#G.P#", "#####"));
+		final Player player = new PlayerFactory(sprites).createPacMan();
+		level.registerPlayer(player);
+		assertThat(level.getUnits().getUnits(UnitKind.PLAYER)).containsExactly(player);
+		assertThat(level.getUnits().count(UnitKind.PELLET)).isEqualTo(1);
+		final Ghost ghost = (Ghost) level.getGhosts().get(0);
+		assertThat(level.getGhost(ghost.getClass())).isSameAs(ghost);
+		assertThat(level.getUnits().getUnits(UnitKind.GHOST)).containsExactly(ghost);
+
+		player.occupy(level.getBoard().squareAt(2, 1));
+		level.getBoard().squareAt(2, 1).getOccupants().get(0).leaveSquare();
+		assertThat(level.remainingPellets()).isEqualTo(0);
+		final Level copy = new Level(level);
+		assertThat(copy.remainingPellets()).isEqualTo(0);
+		assertThat(copy.getUnits().getUnits(UnitKind.PLAYER)).containsExactly(copy.getPlayer());
+		assertThat(copy.getGhost(ghost.getClass())).isSameAs(copy.getGhosts().get(0));
+	}
+}
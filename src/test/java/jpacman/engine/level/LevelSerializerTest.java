@@ -0,0 +1,144 @@
+package jpacman.engine.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import jpacman.PacmanConfigurationException;
+import jpacman.engine.board.Board;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.CellBoard;
+import jpacman.engine.board.Direction;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests writing a {@link Level} to a snapshot and reading it back.
+ */
+public class LevelSerializerTest {
+
+	/**
+	 * The serializer under test.
+	 */
+	private LevelSerializer serializer;
+
+	/**
+	 * The factory creating the levels.
+	 */
+	private LevelFactory levels;
+
+	/**
+	 * The factory creating the boards.
+	 */
+	private BoardFactory boards;
+
+	/**
+	 * The level written to a snapshot.
+	 */
+	private Level level;
+
+	/**
+	 * Creates a level and plays two moves on it.
+	 */
+	@Before
+	public void setUp() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final GhostFactory ghosts = new GhostFactory(sprites, 1L);
+		this.levels = new LevelFactory(sprites, ghosts);
+		this.boards = new BoardFactory(sprites);
+		final PlayerFactory players = new PlayerFactory(sprites);
+		this.serializer = new LevelSerializer(this.levels, ghosts, this.boards, players);
+
+		this.level = new MapParser(this.levels, this.boards).parseMap(Lists.newArrayList(
+				"######",
+				"#P.. #",
+				"# G G#",
+				"######"));
+		this.level.registerPlayer(players.createPacMan());
+		this.level.move(this.level.getPlayer(), Direction.EAST);
+		this.level.move(this.level.getGhosts().get(1), Direction.WEST);
+	}
+
+	/**
+	 * Verifies that a level read from a snapshot has the state of the level
+	 * it was written from.
+	 */
+	@Test
+	public void roundTrip() {
+		final byte[] bytes = LevelSerializer.toBytes(this.level);
+		assertThat(bytes).hasSize(LevelSerializer.sizeOf(this.level));
+
+		final Level copy = this.serializer.read(ByteBuffer.wrap(bytes));
+		final Board board = copy.getBoard();
+		assertThat(board.getWidth()).isEqualTo(6);
+		assertThat(board.getHeight()).isEqualTo(4);
+		assertThat(BoardFactory.isWall(board.squareAt(0, 0))).isTrue();
+		assertThat(BoardFactory.isWall(board.squareAt(1, 1))).isFalse();
+		assertThat(copy.remainingPellets()).isEqualTo(1);
+
+		final Player player = copy.getPlayer();
+		assertThat(player.getSquare()).isSameAs(board.squareAt(2, 1));
+		assertThat(player.getScore()).isEqualTo(this.level.getPlayer().getScore());
+		assertThat(player.isAlive()).isTrue();
+		assertThat(player.getDirection()).isEqualTo(Direction.EAST);
+
+		assertThat(copy.getGhosts()).hasSize(2);
+		for (int i = 0; i < 2; i++) {
+			assertThat(copy.getGhosts().get(i)).isExactlyInstanceOf(
+					this.level.getGhosts().get(i).getClass());
+		}
+		assertThat(copy.getGhosts().get(1).getSquare()).isSameAs(board.squareAt(3, 2));
+		assertThat(copy.getGhosts().get(1).getDirection()).isEqualTo(Direction.WEST);
+	}
+
+	/**
+	 * Verifies that a level keeping its pellets in a pellet layer is read back into a pellet layer.
+	 */
+	@Test
+	public void pelletLayerRoundTrip() {
+		final Level layered = new MapParser(this.levels, this.boards).withPelletLayer()
+				.parseMap(Lists.newArrayList("######", "#P.. #", "######"));
+		final Level copy = this.serializer.read(ByteBuffer.wrap(LevelSerializer.toBytes(layered)));
+
+		final Board board = copy.getBoard();
+		assertThat(board.getPelletLayer()).isNotNull();
+		assertThat(board.squareAt(2, 1).hasPellet()).isTrue();
+		assertThat(board.squareAt(2, 1).getOccupants()).isEmpty();
+		assertThat(board.squareAt(4, 1).hasPellet()).isFalse();
+		assertThat(copy.remainingPellets()).isEqualTo(2);
+	}
+
+	/**
+	 * Verifies that a level on a board of cells is written without creating any squares, and read
+	 * back onto a board of cells.
+	 */
+	@Test
+	public void cellBoardRoundTrip() {
+		final Level compiled = new MapParser(this.levels, this.boards).parseMap(ByteBuffer.wrap(
+				MapCompiler.compile(Lists.newArrayList("######", "#P.. #", "# G .#", "######"))));
+		final CellBoard cells = (CellBoard) compiled.getBoard();
+		final int created = cells.getMaterializedSquares().size();
+		final byte[] bytes = LevelSerializer.toBytes(compiled);
+		assertThat(cells.getMaterializedSquares()).hasSize(created);
+
+		final Level copy = this.serializer.read(ByteBuffer.wrap(bytes));
+		assertThat(copy.getBoard()).isInstanceOf(CellBoard.class);
+		assertThat(copy.remainingPellets()).isEqualTo(3);
+		assertThat(BoardFactory.isWall(copy.getBoard().squareAt(0, 2))).isTrue();
+		assertThat(copy.getGhosts().get(0).getSquare()).isSameAs(copy.getBoard().squareAt(2, 2));
+	}
+
+	/**
+	 * Verifies that other data is rejected.
+	 */
+	@Test(expected = PacmanConfigurationException.class)
+	public void rejectsOtherData() {
+		this.serializer.read(ByteBuffer.allocate(16));
+	}
+}
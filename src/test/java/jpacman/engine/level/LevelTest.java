@@ -1,16 +1,24 @@
 package jpacman.engine.level;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Lists;
+import java.util.Collections;
 import jpacman.engine.board.Board;
+import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
+import jpacman.engine.board.Unit;
+import jpacman.engine.level.Level.LevelObserver;
+import jpacman.engine.level.Level.Move;
 import jpacman.engine.npc.NPC;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 /**
  * Tests various aspects of level.
@@ -147,4 +155,51 @@ public class LevelTest {
 		this.level.registerPlayer(p3);
 		verify(p3).occupy(this.square1);
 	}
+
+	/**
+	 * Verifies that a batch of moves is applied in order.
+	 */
+	@Test
+	public void moveAllInOrder() {
+		final Square destination = walkableSquare();
+		final Unit u1 = unitMovingTo(destination);
+		final Unit u2 = unitMovingTo(destination);
+		this.level.moveAll(Lists.newArrayList(new Move(u1, Direction.EAST),
+				new Move(u2, Direction.EAST)));
+
+		final InOrder order = inOrder(u1, u2);
+		order.verify(u1).occupy(destination);
+		order.verify(u2).occupy(destination);
+	}
+
+	/**
+	 * Verifies that the observers are only notified once per batch of moves.
+	 */
+	@Test
+	public void moveAllNotifiesOnce() {
+		final LevelObserver observer = mock(LevelObserver.class);
+		this.level.addObserver(observer);
+		final Square destination = walkableSquare();
+		this.level.moveAll(Lists.newArrayList(
+				new Move(unitMovingTo(destination), Direction.EAST),
+				new Move(unitMovingTo(destination), Direction.EAST)));
+
+		verify(observer, times(1)).levelLost();
+		verify(observer, times(1)).levelWon();
+	}
+
+	private Square walkableSquare() {
+		final Square square = mock(Square.class);
+		when(square.isAccessibleTo(any(Unit.class))).thenReturn(true);
+		when(square.getOccupants()).thenReturn(Collections.<Unit>emptyList());
+		return square;
+	}
+
+	private Unit unitMovingTo(final Square destination) {
+		final Square location = mock(Square.class);
+		when(location.getSquareAt(Direction.EAST)).thenReturn(destination);
+		final Unit unit = mock(Unit.class);
+		when(unit.getSquare()).thenReturn(location);
+		return unit;
+	}
 }
@@ -0,0 +1,94 @@
+package jpacman.engine.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import java.util.List;
+import jpacman.engine.board.Board;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests loading maps compiled by the {@link MapCompiler}.
+ */
+public class MapCompilerTest {
+
+	/**
+	 * The text map under test.
+	 */
+	private static final List<String> MAP = Lists.newArrayList(
+			"#######",
+			"#P.G. #",
+			"# ##G.#",
+			"#######");
+
+	/**
+	 * The sprites of the levels.
+	 */
+	private final PacManSprites sprites = mock(PacManSprites.class);
+
+	/**
+	 * Stubs the sprites a player needs.
+	 */
+	@Before
+	public void setUp() {
+		when(this.sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+	}
+
+	/**
+	 * Verifies that a compiled map loads into the same level as its text.
+	 */
+	@Test
+	public void compiledMatchesText() {
+		final Level text = parser().parseMap(MAP);
+		final Level compiled = parser().parseMap(ByteBuffer.wrap(MapCompiler.compile(MAP)));
+
+		final Board expected = text.getBoard();
+		final Board actual = compiled.getBoard();
+		assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+		assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+		for (int x = 0; x < expected.getWidth(); x++) {
+			for (int y = 0; y < expected.getHeight(); y++) {
+				assertThat(BoardFactory.isWall(actual.squareAt(x, y)))
+						.isEqualTo(BoardFactory.isWall(expected.squareAt(x, y)));
+				assertThat(actual.squareAt(x, y).getOccupants()).hasSameSizeAs(
+						expected.squareAt(x, y).getOccupants());
+			}
+		}
+		assertThat(compiled.remainingPellets()).isEqualTo(3);
+
+		assertThat(compiled.getGhosts()).hasSize(2);
+		for (int i = 0; i < 2; i++) {
+			assertThat(compiled.getGhosts().get(i)).isExactlyInstanceOf(
+					text.getGhosts().get(i).getClass());
+		}
+		assertThat(compiled.getGhosts().get(0).getSquare()).isSameAs(actual.squareAt(3, 1));
+
+		compiled.registerPlayer(new PlayerFactory(this.sprites).createPacMan());
+		assertThat(compiled.getPlayer().getSquare()).isSameAs(actual.squareAt(1, 1));
+	}
+
+	/**
+	 * Verifies that a compiled map is recognised as such.
+	 */
+	@Test
+	public void recognisesCompiledMaps() {
+		assertThat(MapCompiler.isCompiled(ByteBuffer.wrap(MapCompiler.compile(MAP)))).isTrue();
+		assertThat(MapCompiler.isCompiled(ByteBuffer.wrap("#P#\n".getBytes()))).isFalse();
+	}
+
+	/**
+	 * @return A parser creating its levels with the mocked sprites.
+	 */
+	private MapParser parser() {
+		return new MapParser(new LevelFactory(this.sprites, new GhostFactory(this.sprites, 1L)),
+				new BoardFactory(this.sprites));
+	}
+}
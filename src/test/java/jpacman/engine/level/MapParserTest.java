@@ -0,0 +1,192 @@
+package jpacman.engine.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import jpacman.PacmanConfigurationException;
+import jpacman.engine.board.Board;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Direction;
+import jpacman.engine.board.Square;
+import jpacman.engine.board.Unit;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests streaming maps through {@link MapParser#parseMap(ReadableByteChannel)}.
+ */
+public class MapParserTest {
+
+	/**
+	 * The map under test.
+	 */
+	private static final List<String> MAP = Lists.newArrayList(
+			"#####",
+			"#G.P#",
+			"#P G#",
+			"#####");
+
+	/**
+	 * The sprites of the levels.
+	 */
+	private final PacManSprites sprites = mock(PacManSprites.class);
+
+	/**
+	 * Verifies that a streamed map is the same level as the parsed lines.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void streamMatchesLines() throws IOException {
+		final Level lines = parser().parseMap(MAP);
+		final Level streamed = parser().parseMap(channel("#####\r\n#G.P#\r\n#P G#\r\n#####"));
+
+		final Board expected = lines.getBoard();
+		final Board actual = streamed.getBoard();
+		assertThat(actual.getWidth()).isEqualTo(5);
+		assertThat(actual.getHeight()).isEqualTo(4);
+		for (int x = 0; x < expected.getWidth(); x++) {
+			for (int y = 0; y < expected.getHeight(); y++) {
+				assertThat(BoardFactory.isWall(actual.squareAt(x, y)))
+						.isEqualTo(BoardFactory.isWall(expected.squareAt(x, y)));
+			}
+		}
+		assertThat(streamed.remainingPellets()).isEqualTo(1);
+
+		// ghosts are created column by column, like the other parsers do
+		assertThat(streamed.getGhosts().get(0).getSquare()).isSameAs(actual.squareAt(1, 1));
+		assertThat(streamed.getGhosts().get(1).getSquare()).isSameAs(actual.squareAt(3, 2));
+		for (int i = 0; i < 2; i++) {
+			assertThat(streamed.getGhosts().get(i)).isExactlyInstanceOf(
+					lines.getGhosts().get(i).getClass());
+		}
+		assertThat(streamed.getStartSquares()).containsExactly(
+				actual.squareAt(1, 2), actual.squareAt(3, 1));
+	}
+
+	/**
+	 * Verifies that pellets can be kept in a layer, which a player eats from and which copies of
+	 * the level do not share, whether the map is parsed or streamed.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void pelletLayer() throws IOException {
+		when(this.sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Level streamed = parser().withPelletLayer().parseMap(channel("#####\n#..P#\n#####"));
+		final Level lines = parser().withPelletLayer().parseMap(
+				Lists.newArrayList("#####", "#..P#", "#####"));
+		for (final Level level : Lists.newArrayList(streamed, lines)) {
+			final Square square = level.getBoard().squareAt(2, 1);
+			assertThat(square.hasPellet()).isTrue();
+			assertThat(square.getOccupants()).isEmpty();
+			assertThat(level.getBoard().squareAt(3, 1).hasPellet()).isFalse();
+			assertThat(level.remainingPellets()).isEqualTo(2);
+
+			final Player player = new PlayerFactory(this.sprites).createPacMan();
+			level.registerPlayer(player);
+			final Level copy = new Level(level);
+			level.move(player, Direction.WEST);
+			assertThat(player.getScore()).isEqualTo(10);
+			assertThat(square.hasPellet()).isFalse();
+			assertThat(level.remainingPellets()).isEqualTo(1);
+			assertThat(copy.remainingPellets()).isEqualTo(2);
+			assertThat(copy.getBoard().squareAt(2, 1).hasPellet()).isTrue();
+		}
+	}
+
+	/**
+	 * Verifies that a player eats the pellets of the pellet layer with the default interaction map
+	 * too, so that the level can be won.
+	 */
+	@Test
+	public void pelletLayerWithInteractionMap() {
+		when(this.sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Level parsed = parser().withPelletLayer().parseMap(
+				Lists.newArrayList("#####", "#..P#", "#####"));
+		final Level level = new Level(parsed.getBoard(), parsed.getGhosts(),
+				parsed.getStartSquares(), new DefaultPlayerInteractionMap());
+		final Player player = new PlayerFactory(this.sprites).createPacMan();
+		level.registerPlayer(player);
+
+		level.move(player, Direction.WEST);
+		level.move(player, Direction.WEST);
+		assertThat(player.getScore()).isEqualTo(20);
+		assertThat(level.remainingPellets()).isZero();
+	}
+
+	/**
+	 * Verifies that a collision map that only knows about pellet units handles the pellets of the
+	 * pellet layer as pellet units.
+	 */
+	@Test
+	public void pelletLayerWithUnitCollisions() {
+		when(this.sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Level parsed = parser().withPelletLayer().parseMap(
+				Lists.newArrayList("#####", "#..P#", "#####"));
+		final PlayerCollisions units = new PlayerCollisions();
+		final Level level = new Level(parsed.getBoard(), parsed.getGhosts(),
+				parsed.getStartSquares(), new CollisionMap() {
+					@Override
+					public <C1 extends Unit, C2 extends Unit> void collide(final C1 collider,
+							final C2 collidee) {
+						units.collide(collider, collidee);
+					}
+				});
+		final Player player = new PlayerFactory(this.sprites).createPacMan();
+		level.registerPlayer(player);
+
+		level.move(player, Direction.WEST);
+		assertThat(player.getScore()).isEqualTo(10);
+		assertThat(level.remainingPellets()).isEqualTo(1);
+		assertThat(player.getSquare().hasPellet()).isFalse();
+		assertThat(player.getSquare().getOccupants()).containsExactly(player);
+	}
+
+	/**
+	 * Verifies that rows of different widths are rejected.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test(expected = PacmanConfigurationException.class)
+	public void unequalWidths() throws IOException {
+		parser().parseMap(channel("###\n#\n###\n"));
+	}
+
+	/**
+	 * Verifies that an empty map is rejected.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test(expected = PacmanConfigurationException.class)
+	public void emptyMap() throws IOException {
+		parser().parseMap(channel(""));
+	}
+
+	/**
+	 * @param text The map.
+	 * @return A channel reading the map.
+	 */
+	private static ReadableByteChannel channel(final String text) {
+		return Channels.newChannel(new ByteArrayInputStream(
+				text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * @return A parser creating its levels with the mocked sprites.
+	 */
+	private MapParser parser() {
+		return new MapParser(new LevelFactory(this.sprites, new GhostFactory(this.sprites, 1L)),
+				new BoardFactory(this.sprites));
+	}
+}
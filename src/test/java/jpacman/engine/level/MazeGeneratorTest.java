@@ -0,0 +1,90 @@
+package jpacman.engine.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import jpacman.engine.board.Board;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Direction;
+import jpacman.engine.board.Square;
+import jpacman.engine.npc.ghost.GhostFactory;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests the maps generated by the {@link MazeGenerator}.
+ */
+public class MazeGeneratorTest {
+
+	/**
+	 * A generator with every feature switched on.
+	 *
+	 * @param seed The seed of the maps.
+	 * @return A new generator.
+	 */
+	private static MazeGenerator generator(final long seed) {
+		return new MazeGenerator(41, 24, seed).withLoopDensity(0.2).withPelletDensity(0.5)
+				.withTunnels(2).withGhosts(6).withPlayers(2);
+	}
+
+	/**
+	 * Verifies that the same seed generates the same map.
+	 */
+	@Test
+	public void deterministicPerSeed() {
+		assertThat(generator(3L).generate()).isEqualTo(generator(3L).generate());
+		assertThat(generator(3L).generate()).isNotEqualTo(generator(4L).generate());
+	}
+
+	/**
+	 * Verifies that a generated map parses into a level with the requested
+	 * units, on which every open square can be reached.
+	 */
+	@Test
+	public void validConnectedMap() {
+		final List<String> text = generator(5L).generate();
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final Level level = new MapParser(new LevelFactory(sprites,
+				new GhostFactory(sprites, 5L)), new BoardFactory(sprites)).parseMap(text);
+
+		assertThat(level.getGhosts()).hasSize(6);
+		assertThat(level.getStartSquares()).hasSize(2);
+
+		final Board board = level.getBoard();
+		int open = 0;
+		for (int x = 0; x < board.getWidth(); x++) {
+			for (int y = 0; y < board.getHeight(); y++) {
+				if (!BoardFactory.isWall(board.squareAt(x, y))) {
+					open++;
+				}
+			}
+		}
+		assertThat(reachable(level.getStartSquares().get(0))).isEqualTo(open);
+	}
+
+	/**
+	 * @param start The square to start from.
+	 * @return The number of squares that can be reached from the start.
+	 */
+	private static int reachable(final Square start) {
+		final Set<Square> visited = new HashSet<>();
+		final Deque<Square> queue = new ArrayDeque<>();
+		visited.add(start);
+		queue.add(start);
+		while (!queue.isEmpty()) {
+			final Square square = queue.remove();
+			for (final Direction direction : Direction.values()) {
+				final Square next = square.getSquareAt(direction);
+				if (!BoardFactory.isWall(next) && visited.add(next)) {
+					queue.add(next);
+				}
+			}
+		}
+		return visited.size();
+	}
+}
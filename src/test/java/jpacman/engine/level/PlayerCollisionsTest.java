@@ -0,0 +1,52 @@
+package jpacman.engine.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.npc.ghost.Ghost;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests the dispatch of collisions by {@link PlayerCollisions}.
+ */
+public class PlayerCollisionsTest {
+
+	/**
+	 * Verifies that units that do not tell their kind collide as units of another kind.
+	 */
+	@Test
+	public void unitWithoutKind() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Player player = new PlayerFactory(sprites).createPacMan();
+		final Unit unit = mock(Unit.class);
+		when(unit.getKind()).thenReturn(null);
+
+		final PlayerCollisions collisions = new PlayerCollisions();
+		collisions.collide(unit, player);
+		collisions.collide(player, unit);
+		assertThat(player.isAlive()).isTrue();
+		assertThat(player.getScore()).isZero();
+	}
+
+	/**
+	 * Verifies that collisions are dispatched on the type of the units, so a unit that reports the
+	 * wrong kind is not cast to the type of that kind.
+	 */
+	@Test
+	public void kindDisagreesWithType() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		final Player player = new PlayerFactory(sprites).createPacMan();
+		final Ghost ghost = mock(Ghost.class);
+		when(ghost.getKind()).thenReturn(UnitKind.PELLET);
+
+		new PlayerCollisions().collide(player, ghost);
+		assertThat(player.isAlive()).isFalse();
+	}
+}
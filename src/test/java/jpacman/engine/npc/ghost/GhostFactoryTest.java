@@ -0,0 +1,72 @@
+package jpacman.engine.npc.ghost;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Test;
+
+/**
+ * Tests the seeded random streams handed out by the {@link GhostFactory}.
+ */
+public class GhostFactoryTest {
+
+	/**
+	 * The seed used by the factories under test.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The number of intervals drawn from each ghost.
+	 */
+	private static final int DRAWS = 20;
+
+	/**
+	 * Verifies that factories with the same seed create ghosts with the same
+	 * random streams.
+	 */
+	@Test
+	public void sameSeedSameIntervals() {
+		final GhostFactory first = new GhostFactory(mock(PacManSprites.class), SEED);
+		final GhostFactory second = new GhostFactory(mock(PacManSprites.class), SEED);
+
+		assertThat(intervals(second.createBlinky()))
+				.isEqualTo(intervals(first.createBlinky()));
+		assertThat(intervals(second.createClyde()))
+				.isEqualTo(intervals(first.createClyde()));
+	}
+
+	/**
+	 * Verifies that a copy of a ghost continues the stream of the original
+	 * where the original is, without disturbing the original.
+	 *
+	 * @throws CloneNotSupportedException Never.
+	 */
+	@Test
+	public void copyContinuesSameStream() throws CloneNotSupportedException {
+		final Inky ghost = (Inky) new GhostFactory(mock(PacManSprites.class), SEED).createInky();
+		final Inky twin = (Inky) new GhostFactory(mock(PacManSprites.class), SEED).createInky();
+		intervals(ghost);
+		intervals(twin);
+
+		final Ghost copy = (Ghost) ghost.clone();
+		final List<Long> expected = intervals(twin);
+
+		assertThat(intervals(copy)).isEqualTo(expected);
+		assertThat(intervals(ghost)).isEqualTo(expected);
+	}
+
+	/**
+	 * @param ghost The ghost to draw intervals from.
+	 * @return The next intervals of the ghost.
+	 */
+	private static List<Long> intervals(final Ghost ghost) {
+		final List<Long> result = new ArrayList<>();
+		for (int i = 0; i < DRAWS; i++) {
+			result.add(ghost.getInterval());
+		}
+		return result;
+	}
+}
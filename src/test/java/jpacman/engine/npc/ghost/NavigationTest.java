@@ -2,8 +2,12 @@ package jpacman.engine.npc.ghost;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import com.google.common.collect.Lists;
@@ -12,6 +16,7 @@ import java.io.InputStream;
 import java.util.List;
 import jpacman.engine.board.Board;
 import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Components;
 import jpacman.engine.board.Direction;
 import jpacman.engine.board.Square;
 import jpacman.engine.board.Unit;
@@ -73,6 +78,50 @@ public class NavigationTest {
 		assertNull(path);
 	}
 
+	/**
+	 * Verifies that the squares on either side of a wall are labelled as different components.
+	 */
+	@Test
+	public void testComponents() {
+		final Board b = this.parser
+				.parseMap(Lists.newArrayList("#####", "# # #", "#  ##", "#####"))
+				.getBoard();
+		assertEquals(b.squareAt(1, 1).getComponent(), b.squareAt(2, 2).getComponent());
+		assertNotEquals(b.squareAt(1, 1).getComponent(), b.squareAt(3, 1).getComponent());
+		assertEquals(Components.NONE, b.squareAt(2, 1).getComponent());
+	}
+
+	/**
+	 * Verifies that the bounded distance check counts the steps around walls.
+	 */
+	@Test
+	public void testIsWithin() {
+		final Board b = this.parser
+				.parseMap(Lists.newArrayList("#####", "#   #", "# # #", "#####"))
+				.getBoard();
+		final Unit traveller = mock(Unit.class);
+		assertTrue(Navigation.isWithin(b.squareAt(1, 2), b.squareAt(3, 2), 4, traveller));
+		assertFalse(Navigation.isWithin(b.squareAt(1, 2), b.squareAt(3, 2), 3, traveller));
+		assertTrue(Navigation.isWithin(b.squareAt(1, 2), b.squareAt(3, 2), 2, null));
+		assertTrue(Navigation.isWithin(b.squareAt(1, 2), b.squareAt(1, 2), 0, traveller));
+	}
+
+	/**
+	 * Verifies that the first step is the first step of the shortest path.
+	 */
+	@Test
+	public void testFirstStep() {
+		final Board b = this.parser.parseMap(
+				Lists.newArrayList("####", "#  #", "## #", "####")).getBoard();
+		final Unit traveller = mock(Unit.class);
+		assertEquals(Direction.EAST, Navigation.firstStep(b.squareAt(1, 1), b.squareAt(2, 2),
+				traveller));
+		assertEquals(Direction.NORTH, Navigation.firstStep(b.squareAt(2, 2), b.squareAt(1, 1),
+				traveller));
+		assertNull(Navigation.firstStep(b.squareAt(1, 1), b.squareAt(1, 1), traveller));
+		assertNull(Navigation.firstStep(b.squareAt(1, 1), b.squareAt(0, 0), traveller));
+	}
+
 	/**
 	 * Verifies that having no traveller ignores terrain.
 	 */
@@ -132,6 +181,20 @@ public class NavigationTest {
 		assertEquals(s2, result);
 	}
 
+	/**
+	 * Verifies that a traveller looks for the nearest unit it can walk to.
+	 */
+	@Test
+	public void testNearestReachableUnit() {
+		final Board b = this.parser
+				.parseMap(Lists.newArrayList("#######", "#   #.#", "#.#####", "#######"))
+				.getBoard();
+		final Square s1 = b.squareAt(3, 1);
+		assertSame(b.squareAt(5, 1), Navigation.findNearest(Pellet.class, s1).getSquare());
+		assertSame(b.squareAt(1, 2),
+				Navigation.findNearest(Pellet.class, s1, mock(Unit.class)).getSquare());
+	}
+
 	/**
 	 * Verifies that there is no such location if there is no nearest object.
 	 */
@@ -0,0 +1,107 @@
+package jpacman.engine.npc.ghost;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import jpacman.engine.board.Board;
+import jpacman.engine.board.BoardFactory;
+import jpacman.engine.board.Unit;
+import jpacman.engine.board.UnitKind;
+import jpacman.engine.board.UnitRegistry;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.LevelFactory;
+import jpacman.engine.level.MapParser;
+import jpacman.engine.level.Pellet;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests finding the nearest of a number of units with {@link NearestUnits}.
+ */
+public class NearestUnitsTest {
+
+	/**
+	 * A board with pellets at 1,1 and 5,1, and a wall between them with a gap at the bottom.
+	 */
+	private Board board;
+
+	/**
+	 * The registry of the units of the level.
+	 */
+	private UnitRegistry registry;
+
+	/**
+	 * The pellets on the board.
+	 */
+	private List<Unit> pellets;
+
+	/**
+	 * Creates the board.
+	 */
+	@Before
+	public void setUp() {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		final Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites, 7L)),
+				new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+						"#######", "#. # .#", "#     #", "#######"));
+		this.board = level.getBoard();
+		this.registry = level.getUnits();
+		this.pellets = Lists.newArrayList(
+				Navigation.findUnit(Pellet.class, this.board.squareAt(1, 1)),
+				Navigation.findUnit(Pellet.class, this.board.squareAt(5, 1)));
+	}
+
+	/**
+	 * Verifies that every square is labelled with the unit it can walk to first.
+	 */
+	@Test
+	public void nearestAroundWalls() {
+		final NearestUnits nearest = new NearestUnits(this.pellets, mock(Unit.class));
+		assertThat(nearest.nearestTo(this.board.squareAt(2, 1))).isSameAs(this.pellets.get(0));
+		assertThat(nearest.distanceTo(this.board.squareAt(2, 1))).isEqualTo(1);
+		assertThat(nearest.nearestTo(this.board.squareAt(4, 2))).isSameAs(this.pellets.get(1));
+		assertThat(nearest.distanceTo(this.board.squareAt(4, 2))).isEqualTo(2);
+		assertThat(nearest.distanceTo(this.board.squareAt(3, 2))).isEqualTo(3);
+		assertThat(nearest.nearestTo(this.board.squareAt(3, 1))).isNull();
+		assertThat(nearest.distanceTo(this.board.squareAt(3, 1))).isEqualTo(-1);
+	}
+
+	/**
+	 * Verifies that without a traveller the walls are ignored.
+	 */
+	@Test
+	public void ignoringTerrain() {
+		final NearestUnits nearest = new NearestUnits(this.pellets, null);
+		assertThat(nearest.distanceTo(this.board.squareAt(3, 1))).isEqualTo(2);
+	}
+
+	/**
+	 * Verifies that the search starts from the units of a kind kept track of by a registry, and only
+	 * from those still on the board.
+	 */
+	@Test
+	public void fromRegistry() {
+		final NearestUnits nearest = new NearestUnits(this.registry, UnitKind.PELLET,
+				mock(Unit.class));
+		assertThat(nearest.nearestTo(this.board.squareAt(3, 2))).isSameAs(this.pellets.get(0));
+
+		this.pellets.get(0).leaveSquare();
+		final NearestUnits remaining = new NearestUnits(this.registry, UnitKind.PELLET,
+				mock(Unit.class));
+		assertThat(remaining.nearestTo(this.board.squareAt(1, 1))).isSameAs(this.pellets.get(1));
+		assertThat(remaining.distanceTo(this.board.squareAt(1, 1))).isEqualTo(6);
+	}
+
+	/**
+	 * Verifies that nothing is found without any units.
+	 */
+	@Test
+	public void noUnits() {
+		final NearestUnits nearest = new NearestUnits(Collections.<Unit>emptyList(), null);
+		assertThat(nearest.nearestTo(this.board.squareAt(1, 1))).isNull();
+	}
+}
@@ -0,0 +1,49 @@
+package jpacman.engine.npc.ghost;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Tests the {@link RandomStream} of the ghosts.
+ */
+public class RandomStreamTest {
+
+	/**
+	 * The seed of the streams under test.
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * Verifies that a stream draws the same values as a {@link SplittableRandom}
+	 * with the same seed, for bounds that need no rejection, some and a lot.
+	 */
+	@Test
+	public void sameAsSplittableRandom() {
+		final RandomStream stream = new RandomStream(SEED);
+		final SplittableRandom random = new SplittableRandom(SEED);
+		final int[] bounds = {1, 4, 3, 200, Integer.MAX_VALUE / 2 + 7};
+		for (int i = 0; i < 1000; i++) {
+			final int bound = bounds[i % bounds.length];
+			assertThat(stream.nextInt(bound)).isEqualTo(random.nextInt(bound));
+		}
+	}
+
+	/**
+	 * Verifies that a stream continuing another draws what the other draws next.
+	 */
+	@Test
+	public void continueFrom() {
+		final RandomStream stream = new RandomStream(SEED);
+		for (int i = 0; i < 10; i++) {
+			stream.nextInt(3);
+		}
+		final RandomStream copy = new RandomStream(SEED);
+		copy.continueFrom(stream);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(copy.nextInt(5)).isEqualTo(stream.nextInt(5));
+		}
+	}
+}
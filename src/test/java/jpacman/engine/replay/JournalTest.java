@@ -0,0 +1,299 @@
+package jpacman.engine.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import jpacman.PacmanConfigurationException;
+import jpacman.engine.board.Direction;
+import jpacman.engine.level.Level;
+import jpacman.engine.level.Level.Move;
+import jpacman.engine.sprite.AnimatedSprite;
+import jpacman.engine.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests recording a game in a {@link Journal} and replaying it.
+ */
+public class JournalTest {
+
+	/**
+	 * The seed of the recorded game.
+	 */
+	private static final long SEED = 7L;
+
+	/**
+	 * The map the game is recorded on.
+	 */
+	private static final byte[] MAP = ("#######\n"
+			+ "#P..  #\n"
+			+ "#    G#\n"
+			+ "#######\n").getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * The folder the journal files are written to.
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * The replayer under test.
+	 */
+	private Replayer replayer;
+
+	/**
+	 * The level the game is recorded on.
+	 */
+	private Level recorded;
+
+	/**
+	 * The score of the player after every recorded tick.
+	 */
+	private final int[] scores = new int[3];
+
+	/**
+	 * The recorded journal.
+	 */
+	private byte[] journal;
+
+	/**
+	 * Records three ticks of a game.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		final PacManSprites sprites = mock(PacManSprites.class);
+		when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+		this.replayer = new Replayer(sprites);
+		this.recorded = this.replayer.makeLevel(MAP, SEED);
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		record(this.recorded, new JournalWriter(Channels.newChannel(out),
+				Journal.checksum(MAP), SEED));
+		this.journal = out.toByteArray();
+	}
+
+	/**
+	 * Plays and records three ticks: the player eats two pellets on its way
+	 * east, the ghost moves west.
+	 *
+	 * @param level The level to play on.
+	 * @param journal The journal to record in, which is closed afterwards.
+	 * @throws IOException Never.
+	 */
+	private void record(final Level level, final JournalWriter journal) throws IOException {
+		try (JournalWriter writer = journal) {
+			for (int tick = 0; tick < this.scores.length; tick++) {
+				final List<Move> moves = Arrays.asList(
+						new Move(level.getPlayer(), Direction.EAST),
+						new Move(level.getGhosts().get(0), Direction.WEST));
+				level.moveAll(moves);
+				writer.record(level, moves);
+				this.scores[tick] = level.getPlayer().getScore();
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a replay ends in the same state as the recorded game.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void replayReachesRecordedState() throws IOException {
+		final Level replayed = this.replayer.replay(MAP, channel());
+
+		assertThat(replayed.getPlayer().getScore()).isEqualTo(this.scores[2]);
+		assertThat(replayed.getPlayer().getSquare())
+				.isSameAs(replayed.getBoard().squareAt(4, 1));
+		assertThat(replayed.getGhosts().get(0).getSquare())
+				.isSameAs(replayed.getBoard().squareAt(2, 2));
+	}
+
+	/**
+	 * Verifies that a replay can stop after a given tick.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void replayStopsAtTick() throws IOException {
+		final Level replayed = this.replayer.replay(MAP, channel(), 1L);
+
+		assertThat(replayed.getPlayer().getScore()).isEqualTo(this.scores[0]);
+		assertThat(replayed.getPlayer().getSquare())
+				.isSameAs(replayed.getBoard().squareAt(2, 1));
+	}
+
+	/**
+	 * Verifies that a cut off last record ends the journal.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void truncatedTickIsIgnored() throws IOException {
+		this.journal = Arrays.copyOf(this.journal, this.journal.length - 1);
+		final Level replayed = this.replayer.replay(MAP, channel());
+
+		assertThat(replayed.getPlayer().getScore()).isEqualTo(this.scores[1]);
+		assertThat(replayed.getPlayer().getSquare())
+				.isSameAs(replayed.getBoard().squareAt(3, 1));
+	}
+
+	/**
+	 * Verifies that seeking restores the last keyframe before the tick and
+	 * replays the ticks after it.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void seekStartsFromKeyframe() throws IOException {
+		final Path file = this.folder.getRoot().toPath().resolve("game.journal");
+		record(this.replayer.makeLevel(MAP, SEED), new JournalWriter(
+				FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+				Journal.checksum(MAP), SEED, false, KeyframeWriter.create(file, 2)));
+		assertThat(KeyframeIndex.open(file).size()).isEqualTo(1);
+
+		final Level third = this.replayer.seek(MAP, file, 3L);
+		assertThat(third.getPlayer().getScore()).isEqualTo(this.scores[2]);
+		assertThat(third.getPlayer().getSquare())
+				.isSameAs(third.getBoard().squareAt(4, 1));
+		assertThat(third.getGhosts().get(0).getSquare())
+				.isSameAs(third.getBoard().squareAt(2, 2));
+		assertThat(third.getBoard().squareAt(2, 1).getOccupants()).isEmpty();
+
+		final Level first = this.replayer.seek(MAP, file, 1L);
+		assertThat(first.getPlayer().getSquare())
+				.isSameAs(first.getBoard().squareAt(2, 1));
+		assertThat(first.getBoard().squareAt(3, 1).getOccupants()).isNotEmpty();
+	}
+
+	/**
+	 * Verifies that a game recorded with a pellet layer is replayed with one.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void pelletLayerIsReplayed() throws IOException {
+		final Level level = this.replayer.makeLevel(MAP, SEED, true);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		record(level, new JournalWriter(Channels.newChannel(out), Journal.checksum(MAP), SEED,
+				true, null));
+		this.journal = out.toByteArray();
+
+		final Level replayed = this.replayer.replay(MAP, channel());
+		assertThat(replayed.getBoard().getPelletLayer()).isNotNull();
+		assertThat(replayed.getPlayer().getScore()).isEqualTo(this.scores[2]);
+		assertThat(replayed.remainingPellets()).isEqualTo(level.remainingPellets());
+		assertThat(this.replayer.replay(MAP, channel(), 0L).getBoard().squareAt(2, 1)
+				.hasPellet()).isTrue();
+	}
+
+	/**
+	 * Verifies that a journal is not replayed on another map.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test(expected = PacmanConfigurationException.class)
+	public void otherMapIsRejected() throws IOException {
+		final byte[] other = Arrays.copyOf(MAP, MAP.length);
+		other[9] = ' ';
+		this.replayer.replay(other, channel());
+	}
+
+	/**
+	 * Verifies that the moves of more units than fit in a byte are recorded and replayed.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void manyUnits() throws IOException {
+		final StringBuilder wall = new StringBuilder();
+		final StringBuilder row = new StringBuilder("#P");
+		for (int i = 0; i < 300; i++) {
+			row.append('G');
+		}
+		row.append(" #");
+		for (int i = 0; i < row.length(); i++) {
+			wall.append('#');
+		}
+		final byte[] map = (wall + "\n" + row + "\n" + wall + "\n")
+				.getBytes(StandardCharsets.UTF_8);
+
+		final Level level = this.replayer.makeLevel(map, SEED);
+		final List<Move> moves = Arrays.asList(
+				new Move(level.getGhosts().get(299), Direction.EAST));
+		level.moveAll(moves);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JournalWriter writer = new JournalWriter(Channels.newChannel(out),
+				Journal.checksum(map), SEED)) {
+			writer.record(level, moves);
+		}
+		this.journal = out.toByteArray();
+
+		final Level replayed = this.replayer.replay(map, channel());
+		assertThat(replayed.getGhosts().get(299).getSquare())
+				.isSameAs(replayed.getBoard().squareAt(row.length() - 2, 1));
+	}
+
+	/**
+	 * Verifies that a tick with more moves than a journal can hold is rejected, instead of being
+	 * recorded wrongly.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void tooManyMoves() throws IOException {
+		try (JournalWriter writer = new JournalWriter(
+				Channels.newChannel(new ByteArrayOutputStream()), Journal.checksum(MAP), SEED)) {
+			writer.record(this.recorded, Collections.nCopies(Journal.MAX_UNITS + 1,
+					new Move(this.recorded.getPlayer(), Direction.EAST)));
+		}
+	}
+
+	/**
+	 * Verifies that a keyframe beyond the first 2 GiB of the keyframe file is
+	 * found at its offset, instead of at a wrapped around one.
+	 *
+	 * @throws IOException Never.
+	 */
+	@Test
+	public void farKeyframe() throws IOException {
+		final Path file = this.folder.getRoot().toPath().resolve("far.journal");
+		final long offset = 3L << 30;
+		final FileChannel keyframes = FileChannel.open(Keyframes.keyframeFile(file),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		// leaves a hole before the keyframe, which takes no space on most file systems
+		keyframes.position(offset);
+		try (KeyframeWriter writer = new KeyframeWriter(keyframes,
+				FileChannel.open(Keyframes.indexFile(file), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE), 1)) {
+			writer.write(5L, 0L, Keyframes.encode(this.recorded, 5L));
+		}
+
+		final KeyframeIndex index = KeyframeIndex.open(file);
+		assertThat(index.getKeyframe(0).getLong()).isEqualTo(5L);
+	}
+
+	/**
+	 * @return A channel reading the recorded journal.
+	 */
+	private ReadableByteChannel channel() {
+		return Channels.newChannel(new ByteArrayInputStream(this.journal));
+	}
+}